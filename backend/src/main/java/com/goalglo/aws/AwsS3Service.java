@@ -1,74 +1,279 @@
 package com.goalglo.aws;
 
 import com.goalglo.config.SecretConfig;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 @Service
 public class AwsS3Service {
 
-   private final S3Client s3Client;
+   private static final Logger log = LoggerFactory.getLogger(AwsS3Service.class);
+
+   // DeleteObjects accepts at most 1000 keys per call
+   private static final int MAX_DELETE_BATCH = 1000;
+
+   private static final String KEY_PREFIX = "blog-images/";
+
+   private final S3AsyncClient s3Client;
+
+   private final S3Presigner presigner;
 
    private final SecretConfig secretConfig;
 
+   private final Queue<String> pendingDeletions = new ConcurrentLinkedQueue<>();
+
 
+   @Autowired
    public AwsS3Service(SecretConfig secretConfig) {
+      this(secretConfig, buildClient(secretConfig.getAws()), buildPresigner(secretConfig.getAws()));
+   }
+
+   AwsS3Service(SecretConfig secretConfig, S3AsyncClient s3Client, S3Presigner presigner) {
       this.secretConfig = secretConfig;
+      this.s3Client = s3Client;
+      this.presigner = presigner;
+   }
 
-      AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(secretConfig.getAws().getAccessKeyId(), secretConfig.getAws().getSecretAccessKey());
-      this.s3Client = S3Client.builder()
-         .region(Region.of(secretConfig.getAws().getRegion()))
+   /**
+    * Builds the async client. Objects above the multipart threshold are split into parts that are uploaded
+    * concurrently over a shared pool of connections.
+    */
+   private static S3AsyncClient buildClient(SecretConfig.Aws aws) {
+      SecretConfig.Aws.Upload upload = aws.getUpload();
+      AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(aws.getAccessKeyId(), aws.getSecretAccessKey());
+      S3AsyncClientBuilder builder = S3AsyncClient.builder()
+         .region(Region.of(aws.getRegion()))
          .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
-         .build();
+         .httpClientBuilder(NettyNioAsyncHttpClient.builder().maxConcurrency(upload.getMaxConcurrency()))
+         .multipartEnabled(true)
+         .multipartConfiguration(MultipartConfiguration.builder()
+            .thresholdInBytes(upload.getMultipartThreshold().toBytes())
+            .minimumPartSizeInBytes(upload.getPartSize().toBytes())
+            .build())
+         .forcePathStyle(aws.isPathStyleAccess());
+      if (hasEndpoint(aws)) {
+         builder.endpointOverride(URI.create(aws.getEndpoint()));
+      }
+      return builder.build();
+   }
+
+   private static S3Presigner buildPresigner(SecretConfig.Aws aws) {
+      AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(aws.getAccessKeyId(), aws.getSecretAccessKey());
+      S3Presigner.Builder builder = S3Presigner.builder()
+         .region(Region.of(aws.getRegion()))
+         .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
+         .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(aws.isPathStyleAccess()).build());
+      if (hasEndpoint(aws)) {
+         builder.endpointOverride(URI.create(aws.getEndpoint()));
+      }
+      return builder.build();
    }
 
    /**
-    * Uploads a file to S3 and returns the public URL to access it.
+    * Starts uploading a file to S3 and returns its public URL straight away.
+    * The file is copied to a local temp file first, because the multipart upload is cleaned up when the
+    * request ends while the S3 upload continues in the background.
     *
     * @param file the file to upload
-    * @return the public URL to access the uploaded file
+    * @return the public URL the file will be available at, and the upload's completion
     * @throws IOException if the file cannot be read
     */
-   public String uploadFile(MultipartFile file) throws IOException {
-      String key = generateFileKey(file);
+   public PendingUpload uploadFile(MultipartFile file) throws IOException {
+      Path spooled = Files.createTempFile("blog-image-", ".upload");
+      try {
+         file.transferTo(spooled);
+      } catch (IOException e) {
+         Files.deleteIfExists(spooled);
+         throw e;
+      }
+      return uploadFile(spooled, file.getOriginalFilename(), file.getContentType());
+   }
 
-      // Create a PutObjectRequest with public-read ACL
+   /**
+    * Starts uploading a local file to S3 and returns its public URL straight away. The file is deleted once
+    * the upload has finished.
+    *
+    * @param file             the file to upload
+    * @param originalFileName the name the file was uploaded with
+    * @param contentType      the content type of the file
+    * @return the public URL the file will be available at, and the upload's completion
+    */
+   public PendingUpload uploadFile(Path file, String originalFileName, String contentType) {
+      String key = generateFileKey(originalFileName);
+      CompletableFuture<Void> completion = putObject(key, contentType, AsyncRequestBody.fromFile(file))
+         .whenComplete((ignored, error) -> deleteTempFile(file));
+
+      return new PendingUpload(generatePublicUrl(key), completion);
+   }
+
+   /**
+    * Uploads content that is already in memory, such as a resized image.
+    *
+    * @param key         the key to store the object under
+    * @param contentType the content type of the object
+    * @param content     the content of the object
+    * @return completes when S3 has stored the object, or exceptionally if the upload failed
+    */
+   public CompletableFuture<Void> uploadBytes(String key, String contentType, byte[] content) {
+      return putObject(key, contentType, AsyncRequestBody.fromBytes(content));
+   }
+
+   private CompletableFuture<Void> putObject(String key, String contentType, AsyncRequestBody body) {
+      PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+         .bucket(secretConfig.getAwsBucketName())
+         .key(key)
+         .contentType(contentType)
+         .build();
+
+      return s3Client.putObject(putObjectRequest, body)
+         .whenComplete((response, error) -> {
+            if (error != null) {
+               log.error("Upload of {} to S3 failed", key, error);
+            }
+         })
+         .thenApply(response -> null);
+   }
+
+   /**
+    * Creates a URL that lets a client PUT one object straight to S3 without credentials. The content type
+    * and length are signed, so S3 rejects a body of any other type or size.
+    *
+    * @param key           the key the object will be stored under
+    * @param contentType   the content type the client must send
+    * @param contentLength the exact size of the body in bytes
+    * @param ttl           how long the URL stays valid
+    * @return the URL, the headers the client must send with it, and when it expires
+    */
+   public PresignedUpload presignUpload(String key, String contentType, long contentLength, Duration ttl) {
       PutObjectRequest putObjectRequest = PutObjectRequest.builder()
          .bucket(secretConfig.getAwsBucketName())
          .key(key)
-         .contentType(file.getContentType())
+         .contentType(contentType)
+         .contentLength(contentLength)
          .build();
+      PresignedPutObjectRequest presigned = presigner.presignPutObject(PutObjectPresignRequest.builder()
+         .signatureDuration(ttl)
+         .putObjectRequest(putObjectRequest)
+         .build());
 
-      // Upload the file to S3
-      PutObjectResponse response = s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+      // Browsers set Host and Content-Length themselves and refuse to let scripts send them
+      Map<String, String> headers = new TreeMap<>();
+      presigned.signedHeaders().forEach((name, values) -> {
+         if (!"host".equalsIgnoreCase(name) && !"content-length".equalsIgnoreCase(name)) {
+            headers.put(name.toLowerCase(Locale.ROOT), String.join(",", values));
+         }
+      });
+      return new PresignedUpload(presigned.url().toString(), headers, presigned.expiration());
+   }
 
-      // Return the public URL
-      return generatePublicUrl(key);
+   /**
+    * Looks up an object's size and content type without downloading it.
+    *
+    * @param key the key of the object
+    * @return the object's metadata, or an empty Optional if there is no such object
+    */
+   public Optional<HeadObjectResponse> findObject(String key) {
+      try {
+         return Optional.of(s3Client.headObject(request -> request.bucket(secretConfig.getAwsBucketName()).key(key)).join());
+      } catch (CompletionException e) {
+         if (e.getCause() instanceof S3Exception s3Exception && s3Exception.statusCode() == 404) {
+            return Optional.empty();
+         }
+         throw e;
+      }
    }
 
    /**
-    * Deletes a file from S3.
+    * Queues a file for deletion from S3. Queued files are removed in batches by a background task, so
+    * callers do not wait on S3.
     *
     * @param fileUrl the URL of the file to delete
     */
-   public void deleteS3Object(String fileUrl) {
-      String key = extractKeyFromUrl(fileUrl);
-      DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
+   public void scheduleDeletion(String fileUrl) {
+      pendingDeletions.add(extractKeyFromUrl(fileUrl));
+   }
+
+   /**
+    * Deletes queued files, up to 1000 per S3 call. A batch that fails as a whole is queued again.
+    */
+   @Scheduled(fixedDelayString = "${app.aws.upload.deletion-interval-ms:30000}")
+   public void deletePendingObjects() {
+      List<ObjectIdentifier> batch = new ArrayList<>();
+      String key;
+      while (batch.size() < MAX_DELETE_BATCH && (key = pendingDeletions.poll()) != null) {
+         batch.add(ObjectIdentifier.builder().key(key).build());
+      }
+      if (batch.isEmpty()) {
+         return;
+      }
+
+      DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
          .bucket(secretConfig.getAwsBucketName())
-         .key(key)
+         .delete(Delete.builder().objects(batch).quiet(true).build())
          .build();
-      s3Client.deleteObject(deleteObjectRequest);
+      try {
+         DeleteObjectsResponse response = s3Client.deleteObjects(deleteObjectsRequest).join();
+         response.errors().forEach(error -> log.warn("Could not delete {} from S3: {}", error.key(), error.message()));
+      } catch (RuntimeException e) {
+         log.warn("Deleting {} objects from S3 failed, retrying later", batch.size(), e);
+         batch.forEach(identifier -> pendingDeletions.add(identifier.key()));
+      }
+   }
+
+   /**
+    * Flushes the deletion queue and releases the client's connections.
+    */
+   @PreDestroy
+   public void shutdown() {
+      // One attempt per queued batch, so batches that keep failing cannot hold up shutdown
+      int batches = (pendingDeletions.size() + MAX_DELETE_BATCH - 1) / MAX_DELETE_BATCH;
+      for (int i = 0; i < batches; i++) {
+         deletePendingObjects();
+      }
+      s3Client.close();
+      presigner.close();
    }
 
    /**
@@ -100,11 +305,38 @@ public class AwsS3Service {
    /**
     * Generates a unique file key for storing the file in S3.
     *
-    * @param file the file being uploaded
+    * @param originalFileName the name of the file being uploaded
     * @return a unique S3 key
     */
-   private String generateFileKey(MultipartFile file) {
-      return "blog-images/" + UUID.randomUUID() + "-" + cleanFileName(file.getOriginalFilename());
+   public String generateFileKey(String originalFileName) {
+      return KEY_PREFIX + UUID.randomUUID() + "-" + cleanFileName(originalFileName);
+   }
+
+   /**
+    * Generates a unique file key under a prefix owned by one record, such as a blog post, so a key the client
+    * reports back can be checked against the record it claims to belong to.
+    *
+    * @param ownerId          the id of the owning record
+    * @param originalFileName the name of the file being uploaded
+    * @return a unique S3 key
+    */
+   public String generateFileKey(UUID ownerId, String originalFileName) {
+      return ownerPrefix(ownerId) + UUID.randomUUID() + "-" + cleanFileName(originalFileName);
+   }
+
+   /**
+    * Checks whether a key was generated for the given owner.
+    *
+    * @param key     the key to check
+    * @param ownerId the id of the owning record
+    * @return true if the key lies under the owner's prefix
+    */
+   public boolean isOwnedBy(String key, UUID ownerId) {
+      return key != null && key.startsWith(ownerPrefix(ownerId)) && !key.contains("..");
+   }
+
+   private static String ownerPrefix(UUID ownerId) {
+      return KEY_PREFIX + ownerId + "/";
    }
 
    /**
@@ -114,7 +346,12 @@ public class AwsS3Service {
     * @return the public URL to access the object
     */
    public String generatePublicUrl(String key) {
-      return "https://" + secretConfig.getAwsBucketName() + ".s3." + secretConfig.getAws().getRegion() + ".amazonaws.com/" + key;
+      SecretConfig.Aws aws = secretConfig.getAws();
+      if (hasEndpoint(aws)) {
+         // S3-compatible stand-ins serve objects under the endpoint, bucket first
+         return aws.getEndpoint().replaceAll("/+$", "") + "/" + secretConfig.getAwsBucketName() + "/" + key;
+      }
+      return "https://" + secretConfig.getAwsBucketName() + ".s3." + aws.getRegion() + ".amazonaws.com/" + key;
    }
 
    /**
@@ -129,4 +366,35 @@ public class AwsS3Service {
       }
       return originalFileName.replaceAll("[^a-zA-Z0-9.-]", "_");
    }
-}
\ No newline at end of file
+
+   private static boolean hasEndpoint(SecretConfig.Aws aws) {
+      return aws.getEndpoint() != null && !aws.getEndpoint().isBlank();
+   }
+
+   private static void deleteTempFile(Path path) {
+      try {
+         Files.deleteIfExists(path);
+      } catch (IOException e) {
+         log.warn("Could not delete temp file {}", path, e);
+      }
+   }
+
+   /**
+    * An upload that has been started but may not have finished.
+    *
+    * @param url        the public URL the file will be available at
+    * @param completion completes when S3 has stored the file, or exceptionally if the upload failed
+    */
+   public record PendingUpload(String url, CompletableFuture<Void> completion) {
+   }
+
+   /**
+    * A pre-signed PUT URL.
+    *
+    * @param url       the URL to PUT the object to
+    * @param headers   the signed headers the request must carry
+    * @param expiresAt when the URL stops being accepted
+    */
+   public record PresignedUpload(String url, Map<String, String> headers, Instant expiresAt) {
+   }
+}
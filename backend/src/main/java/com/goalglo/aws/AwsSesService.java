@@ -9,7 +9,7 @@ import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.ses.model.*;
 
 @Service
-public class AwsSesService {
+public class AwsSesService implements EmailSender {
 
    private final SecretConfig secretConfig;
    private final SesClient sesClient;
@@ -39,6 +39,7 @@ public class AwsSesService {
     * @param subject The subject of the email.
     * @param htmlBody The HTML body of the email.
     */
+   @Override
    public void sendEmail(String to, String subject, String htmlBody) {
       SendEmailRequest emailRequest = SendEmailRequest.builder()
          .destination(Destination.builder().toAddresses(to).build())
@@ -0,0 +1,16 @@
+package com.goalglo.aws;
+
+/**
+ * Delivers a single rendered email. Used by the outbox dispatcher, never directly by request handling code.
+ */
+public interface EmailSender {
+
+   /**
+    * Sends an email.
+    *
+    * @param to       The email address of the recipient.
+    * @param subject  The subject of the email.
+    * @param htmlBody The HTML body of the email.
+    */
+   void sendEmail(String to, String subject, String htmlBody);
+}
@@ -0,0 +1,42 @@
+package com.goalglo.aws;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Stand-in for Amazon SES used in tests and local development.
+ * Enabled with {@code app.email.outbox.sender=fake}; messages are logged and kept in memory instead of sent.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "app.email.outbox", name = "sender", havingValue = "fake")
+public class FakeEmailSender implements EmailSender {
+
+   private static final Logger log = LoggerFactory.getLogger(FakeEmailSender.class);
+
+   private final List<SentEmail> sentEmails = new CopyOnWriteArrayList<>();
+
+   @Override
+   public void sendEmail(String to, String subject, String htmlBody) {
+      log.info("Fake email to {} with subject '{}'", to, subject);
+      sentEmails.add(new SentEmail(to, subject, htmlBody));
+   }
+
+   /**
+    * Returns every email accepted so far.
+    *
+    * @return The sent emails in delivery order.
+    */
+   public List<SentEmail> getSentEmails() {
+      return List.copyOf(sentEmails);
+   }
+
+   public record SentEmail(String to, String subject, String htmlBody) {
+   }
+}
@@ -10,6 +10,7 @@ import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import software.amazon.awssdk.services.ses.model.SesException;
 
 import java.util.stream.Collectors;
@@ -33,6 +34,27 @@ public class GlobalExceptionHandler {
       return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
    }
 
+   @ExceptionHandler(SlotUnavailableException.class)
+   public ResponseEntity<ErrorResponse> handleSlotUnavailableException(SlotUnavailableException ex) {
+      log.info("Booking conflict: {}", ex.getMessage());
+      ErrorResponse error = new ErrorResponse(ex.getMessage());
+      return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+   }
+
+   @ExceptionHandler(PayloadTooLargeException.class)
+   public ResponseEntity<ErrorResponse> handlePayloadTooLargeException(PayloadTooLargeException ex) {
+      log.info("Rejected upload: {}", ex.getMessage());
+      ErrorResponse error = new ErrorResponse(ex.getMessage());
+      return new ResponseEntity<>(error, HttpStatus.PAYLOAD_TOO_LARGE);
+   }
+
+   @ExceptionHandler(ImportQueueFullException.class)
+   public ResponseEntity<ErrorResponse> handleImportQueueFullException(ImportQueueFullException ex) {
+      log.info("Rejected import: {}", ex.getMessage());
+      ErrorResponse error = new ErrorResponse(ex.getMessage());
+      return new ResponseEntity<>(error, HttpStatus.TOO_MANY_REQUESTS);
+   }
+
    @ExceptionHandler(MethodArgumentNotValidException.class)
    public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
       String errorMessage = ex.getBindingResult().getFieldErrors().stream()
@@ -51,6 +73,14 @@ public class GlobalExceptionHandler {
       return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
    }
 
+   @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+   public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+      String errorMessage = "Invalid value for parameter: " + ex.getName();
+      log.warn(errorMessage);
+      ErrorResponse error = new ErrorResponse(errorMessage);
+      return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+   }
+
    @ExceptionHandler(SesException.class)
    public ResponseEntity<ErrorResponse> handleSesException(SesException ex) {
       log.error("SES exception: {}", ex.getMessage());
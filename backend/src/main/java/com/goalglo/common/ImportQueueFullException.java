@@ -0,0 +1,7 @@
+package com.goalglo.common;
+
+public class ImportQueueFullException extends RuntimeException {
+   public ImportQueueFullException(String message) {
+      super(message);
+   }
+}
@@ -0,0 +1,194 @@
+package com.goalglo.common;
+
+import com.goalglo.config.SecretConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.temporal.Temporal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times service and controller methods, plus anything marked {@link Instrumented}.
+ * <p>
+ * Every call is recorded in the {@code goalglo.method} timer, tagged by class, method and exception.
+ * Percentile histograms are published only for the successful calls of methods that ask for them, through
+ * {@link Instrumented#percentileHistogram()} or {@code app.instrumentation.histogram-methods}, unless
+ * {@code app.instrumentation.percentile-histogram} turns them on everywhere.
+ * Arguments are only captured for a sampled fraction of calls, only when DEBUG is enabled for the
+ * target class, and are formatted lazily by the logger. Simple values are printed unless their
+ * parameter name is on the redaction list; other objects are printed as their type only, so entity
+ * and DTO {@code toString()} methods are never called.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "app.instrumentation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class InstrumentationAspect {
+
+   static final String TIMER_NAME = "goalglo.method";
+   private static final String NO_EXCEPTION = "none";
+
+   private final MeterRegistry meterRegistry;
+   private final double sampleRate;
+   private final boolean percentileHistogram;
+   private final Set<String> histogramMethods;
+   private final List<String> redactedNames;
+   private final Map<Method, MethodMetrics> metrics = new ConcurrentHashMap<>();
+
+   public InstrumentationAspect(MeterRegistry meterRegistry, SecretConfig secretConfig) {
+      SecretConfig.Instrumentation instrumentation = secretConfig.getInstrumentation();
+      this.meterRegistry = meterRegistry;
+      this.sampleRate = instrumentation.getSampleRate();
+      this.percentileHistogram = instrumentation.isPercentileHistogram();
+      this.histogramMethods = Set.copyOf(instrumentation.getHistogramMethods());
+      this.redactedNames = instrumentation.getRedactedNames().stream()
+         .map(name -> name.toLowerCase(Locale.ROOT))
+         .toList();
+   }
+
+   @Around("execution(public * *(..)) && (within(com.goalglo.services..*) || within(com.goalglo.controllers..*)"
+      + " || @within(com.goalglo.common.Instrumented) || @annotation(com.goalglo.common.Instrumented))")
+   public Object instrument(ProceedingJoinPoint joinPoint) throws Throwable {
+      MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+      MethodMetrics methodMetrics = metrics.computeIfAbsent(signature.getMethod(),
+         method -> new MethodMetrics(signature, wantsHistogram(signature.getDeclaringType(), method)));
+
+      boolean sampled = methodMetrics.log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate;
+      if (sampled) {
+         methodMetrics.log.debug("{}() called with {}", methodMetrics.methodName, new Arguments(signature.getParameterNames(), joinPoint.getArgs()));
+      }
+
+      long start = System.nanoTime();
+      try {
+         Object result = joinPoint.proceed();
+         long elapsed = System.nanoTime() - start;
+         methodMetrics.success.record(elapsed, TimeUnit.NANOSECONDS);
+         if (sampled) {
+            methodMetrics.log.debug("{}() returned {} in {} µs", methodMetrics.methodName, typeOf(result), elapsed / 1_000);
+         }
+         return result;
+      } catch (Throwable ex) {
+         long elapsed = System.nanoTime() - start;
+         methodMetrics.timer(ex.getClass().getSimpleName()).record(elapsed, TimeUnit.NANOSECONDS);
+         if (sampled) {
+            methodMetrics.log.debug("{}() threw {} in {} µs", methodMetrics.methodName, ex.getClass().getSimpleName(), elapsed / 1_000);
+         }
+         throw ex;
+      }
+   }
+
+   private boolean wantsHistogram(Class<?> declaringType, Method method) {
+      if (percentileHistogram || histogramMethods.contains(declaringType.getSimpleName())
+         || histogramMethods.contains(declaringType.getSimpleName() + "." + method.getName())) {
+         return true;
+      }
+      Instrumented annotation = AnnotatedElementUtils.findMergedAnnotation(method, Instrumented.class);
+      if (annotation == null) {
+         annotation = AnnotatedElementUtils.findMergedAnnotation(declaringType, Instrumented.class);
+      }
+      return annotation != null && annotation.percentileHistogram();
+   }
+
+   private static String typeOf(Object value) {
+      return value == null ? "null" : value.getClass().getSimpleName();
+   }
+
+   private boolean isRedacted(String parameterName) {
+      String name = parameterName.toLowerCase(Locale.ROOT);
+      for (String redacted : redactedNames) {
+         if (name.contains(redacted)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private static boolean isSimpleValue(Object value) {
+      return value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+         || value instanceof Enum<?> || value instanceof UUID || value instanceof Temporal;
+   }
+
+   /**
+    * Meters and logger for one instrumented method, created on its first call.
+    */
+   private final class MethodMetrics {
+
+      private final Logger log;
+      private final String className;
+      private final String methodName;
+      private final Timer success;
+
+      private MethodMetrics(MethodSignature signature, boolean histogram) {
+         this.log = LoggerFactory.getLogger(signature.getDeclaringType());
+         this.className = signature.getDeclaringType().getSimpleName();
+         this.methodName = signature.getName();
+         this.success = timer(NO_EXCEPTION, histogram);
+      }
+
+      private Timer timer(String exception) {
+         // Failures are rare; their count and total time are enough
+         return timer(exception, false);
+      }
+
+      private Timer timer(String exception, boolean histogram) {
+         return Timer.builder(TIMER_NAME)
+            .description("Execution time of instrumented methods")
+            .tag("class", className)
+            .tag("method", methodName)
+            .tag("exception", exception)
+            .publishPercentileHistogram(histogram)
+            .register(meterRegistry);
+      }
+   }
+
+   /**
+    * Argument list that is only formatted if the logger actually writes the message.
+    */
+   private final class Arguments {
+
+      private final String[] names;
+      private final Object[] values;
+
+      private Arguments(String[] names, Object[] values) {
+         this.names = names;
+         this.values = values;
+      }
+
+      @Override
+      public String toString() {
+         StringBuilder out = new StringBuilder("[");
+         for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+               out.append(", ");
+            }
+            String name = names != null && i < names.length ? names[i] : "arg" + i;
+            out.append(name).append('=');
+            Object value = values[i];
+            if (value != null && isRedacted(name)) {
+               out.append("***");
+            } else if (value == null || isSimpleValue(value)) {
+               out.append(value);
+            } else {
+               out.append('<').append(typeOf(value)).append('>');
+            }
+         }
+         return out.append(']').toString();
+      }
+   }
+}
@@ -0,0 +1,23 @@
+package com.goalglo.common;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opts a bean or method outside the services and controllers packages into {@link InstrumentationAspect}.
+ * On a bean or method that is already instrumented, it can also turn on percentile histograms.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Instrumented {
+
+   /**
+    * Whether to publish a percentile histogram for successful calls. Each histogram adds about 70 buckets,
+    * so it is off unless asked for here or in {@code app.instrumentation.histogram-methods}.
+    */
+   boolean percentileHistogram() default false;
+}
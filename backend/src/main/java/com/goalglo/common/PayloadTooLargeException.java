@@ -0,0 +1,7 @@
+package com.goalglo.common;
+
+public class PayloadTooLargeException extends RuntimeException {
+   public PayloadTooLargeException(String message) {
+      super(message);
+   }
+}
@@ -0,0 +1,7 @@
+package com.goalglo.common;
+
+public class SlotUnavailableException extends RuntimeException {
+   public SlotUnavailableException(String message) {
+      super(message);
+   }
+}
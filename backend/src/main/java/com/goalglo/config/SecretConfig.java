@@ -4,6 +4,11 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 @Getter
 @Setter
@@ -20,6 +25,13 @@ public class SecretConfig {
    private Stripe stripe;
    private Contact contact;
    private ApiGateway apiGateway;
+   private RateLimit rateLimit = new RateLimit();
+   private Instrumentation instrumentation = new Instrumentation();
+   private BulkImport bulkImport = new BulkImport();
+   private Catalogue catalogue = new Catalogue();
+   private BlogFeed blogFeed = new BlogFeed();
+   private BlogImages blogImages = new BlogImages();
+   private Rollups rollups = new Rollups();
 
    public String getActiveDomain() {
       return domain.getAllowedDomain();
@@ -52,6 +64,7 @@ public class SecretConfig {
    @Setter
    public static class Jwt {
       private String secret;
+      private long cacheMaximumSize = 10_000;
    }
 
    @Getter
@@ -61,19 +74,32 @@ public class SecretConfig {
       private String secretAccessKey;
       private String region;
       private String bucketName;
+      private String endpoint;
+      private boolean pathStyleAccess;
       private Ses ses;
+      private Upload upload = new Upload();
 
       @Getter
       @Setter
       public static class Ses {
          private String sourceEmail;
       }
+
+      @Getter
+      @Setter
+      public static class Upload {
+         private DataSize multipartThreshold = DataSize.ofMegabytes(8);
+         private DataSize partSize = DataSize.ofMegabytes(8);
+         private int maxConcurrency = 32;
+      }
    }
 
    @Getter
    @Setter
    public static class Email {
       private Templates templates;
+      private Duration templateCacheTtl = Duration.ofMinutes(10);
+      private Outbox outbox = new Outbox();
 
       @Getter
       @Setter
@@ -85,6 +111,20 @@ public class SecretConfig {
          private String bookingConfirmationEmail;
 
       }
+
+      @Getter
+      @Setter
+      public static class Outbox {
+         private String sender = "ses";
+         private int batchSize = 50;
+         private int maxConcurrency = 4;
+         private int maxSendRate = 14;
+         private int maxAttempts = 8;
+         private Duration initialBackoff = Duration.ofSeconds(30);
+         private Duration maxBackoff = Duration.ofHours(1);
+         private Duration sendingLease = Duration.ofMinutes(5);
+         private Duration retention = Duration.ofDays(7);
+      }
    }
 
    @Getter
@@ -92,6 +132,19 @@ public class SecretConfig {
    public static class Stripe {
       private String apiKey;
       private String endpointSecret;
+      private Webhooks webhooks = new Webhooks();
+
+      @Getter
+      @Setter
+      public static class Webhooks {
+         private int batchSize = 50;
+         private int maxConcurrency = 4;
+         private int maxAttempts = 10;
+         private Duration initialBackoff = Duration.ofSeconds(10);
+         private Duration maxBackoff = Duration.ofMinutes(30);
+         private Duration processingLease = Duration.ofMinutes(5);
+         private Duration retention = Duration.ofDays(30);
+      }
    }
 
    @Getter
@@ -120,4 +173,91 @@ public class SecretConfig {
       private String key;
    }
 
-}
\ No newline at end of file
+   @Getter
+   @Setter
+   public static class RateLimit {
+      private String mode = "local";
+      private long maximumKeys = 100_000;
+      private Policy anonymous = new Policy(60, Duration.ofMinutes(1));
+      private Policy authenticated = new Policy(120, Duration.ofMinutes(1));
+      private List<Route> routes = new ArrayList<>();
+
+      @Getter
+      @Setter
+      public static class Policy {
+         private int limit;
+         private Duration window = Duration.ofMinutes(1);
+
+         public Policy() {
+         }
+
+         public Policy(int limit, Duration window) {
+            this.limit = limit;
+            this.window = window;
+         }
+      }
+
+      @Getter
+      @Setter
+      public static class Route extends Policy {
+         private String pattern;
+         private String method;
+      }
+   }
+
+   @Getter
+   @Setter
+   public static class Instrumentation {
+      private double sampleRate = 0.01;
+      private boolean percentileHistogram = false;
+      private List<String> histogramMethods = new ArrayList<>();
+      private List<String> redactedNames = new ArrayList<>(List.of("password", "token", "secret", "authorization", "signature", "apiKey"));
+   }
+
+   @Getter
+   @Setter
+   public static class BulkImport {
+      private int chunkSize = 1000;
+      private int maxConcurrentJobs = 1;
+      private int maxQueuedJobs = 4;
+      private DataSize maxUploadSize = DataSize.ofMegabytes(100);
+      private int maxReportedErrors = 1000;
+      private Duration jobRetention = Duration.ofHours(24);
+   }
+
+   @Getter
+   @Setter
+   public static class Catalogue {
+      private Duration cacheTtl = Duration.ofMinutes(5);
+   }
+
+   @Getter
+   @Setter
+   public static class BlogFeed {
+      private Duration cacheTtl = Duration.ofMinutes(10);
+      private Duration maxAge = Duration.ofMinutes(1);
+      private Duration staleWhileRevalidate = Duration.ofMinutes(5);
+   }
+
+   @Getter
+   @Setter
+   public static class BlogImages {
+      private List<Integer> widths = new ArrayList<>(List.of(480, 960, 1600));
+      private float quality = 0.8f;
+      private int workers = 2;
+      private int queueCapacity = 16;
+      private long maxPixels = 50_000_000;
+      private DataSize maxUploadSize = DataSize.ofMegabytes(25);
+      private Duration uploadUrlTtl = Duration.ofMinutes(10);
+      private List<String> uploadContentTypes = new ArrayList<>(List.of("image/jpeg", "image/png", "image/webp", "image/gif"));
+   }
+
+   @Getter
+   @Setter
+   public static class Rollups {
+      private int backfillChunkSize = 500;
+      private boolean rebuildOnStartup = false;
+      private int maxSeriesPoints = 1000;
+   }
+
+}
@@ -2,14 +2,18 @@ package com.goalglo.controllers;
 
 import com.goalglo.dto.*;
 import com.goalglo.services.AdminActionService;
+import com.goalglo.services.BulkImportJobService;
 import com.goalglo.services.ServiceService;
 import com.goalglo.services.TimeSlotService;
 import com.goalglo.services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,15 +25,18 @@ public class AdminActionController {
    private final TimeSlotService timeSlotService;
    private final ServiceService serviceService;
    private final UserService userService;
+   private final BulkImportJobService bulkImportJobService;
 
 
 
    @Autowired
-   public AdminActionController(AdminActionService adminActionService, TimeSlotService timeSlotService, ServiceService serviceService, UserService userService) {
+   public AdminActionController(AdminActionService adminActionService, TimeSlotService timeSlotService, ServiceService serviceService, UserService userService,
+                                BulkImportJobService bulkImportJobService) {
       this.adminActionService = adminActionService;
       this.timeSlotService = timeSlotService;
       this.userService = userService;
       this.serviceService = serviceService;
+      this.bulkImportJobService = bulkImportJobService;
 
    }
 
@@ -152,9 +159,40 @@ public class AdminActionController {
     */
    @PostMapping("/service-time/bulk-import")
    public ResponseEntity<?> servicesAndTimesBulkImport(@RequestBody BulkImportDTO bulkImportDTO) {
-      serviceService.bulkCreateServices(bulkImportDTO.getServices());
-      timeSlotService.bulkCreateTimeSlots(bulkImportDTO.getTimeSlots());
-      return ResponseEntity.ok("Bulk import completed successfully.");
+      int services = serviceService.bulkCreateServices(bulkImportDTO.getServices());
+      int timeSlots = timeSlotService.bulkCreateTimeSlots(bulkImportDTO.getTimeSlots());
+      return ResponseEntity.ok("Bulk import completed successfully: " + services + " services and " + timeSlots + " time slots.");
+   }
+
+   /**
+    * Starts a streaming bulk import of services and time slots from an NDJSON or CSV body.
+    * Each row carries a {@code type} of {@code service} or {@code timeSlot}; CSV input needs a header row.
+    *
+    * @param request The request whose body is the file to import.
+    * @return A ResponseEntity with HTTP status ACCEPTED containing the queued job, PAYLOAD_TOO_LARGE if the
+    * body exceeds {@code app.bulk-import.max-upload-size}, or TOO_MANY_REQUESTS if too many imports are waiting.
+    * @throws IOException If the upload cannot be read.
+    */
+   @PostMapping(value = "/service-time/bulk-import/stream", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+   public ResponseEntity<ImportJobDTO> streamingBulkImport(HttpServletRequest request) throws IOException {
+      BulkImportJobService.Format format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+         ? BulkImportJobService.Format.NDJSON
+         : BulkImportJobService.Format.CSV;
+      ImportJobDTO job = bulkImportJobService.submit(request.getInputStream(), format);
+      return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+   }
+
+   /**
+    * Retrieves the progress and row errors of a streaming bulk import.
+    *
+    * @param jobId The ID returned when the import was started.
+    * @return A ResponseEntity containing the job, or NOT_FOUND if it is unknown or has expired.
+    */
+   @GetMapping("/service-time/bulk-import/{jobId}")
+   public ResponseEntity<ImportJobDTO> getBulkImportJob(@PathVariable UUID jobId) {
+      return bulkImportJobService.findJob(jobId)
+         .map(job -> new ResponseEntity<>(job, HttpStatus.OK))
+         .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
    }
 
 }
\ No newline at end of file
@@ -2,15 +2,18 @@ package com.goalglo.controllers;
 
 import com.goalglo.common.ResourceNotFoundException;
 import com.goalglo.dto.AppointmentDTO;
+import com.goalglo.dto.CursorPageDTO;
 import com.goalglo.dto.TimeSlotDTO;
 import com.goalglo.services.AppointmentService;
 import com.goalglo.services.TimeSlotService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,6 +21,8 @@ import java.util.UUID;
 @RequestMapping("/api/appointments")
 public class AppointmentController {
 
+   private static final int MAX_PAGE_SIZE = 200;
+
    private final AppointmentService appointmentService;
    private final TimeSlotService timeSlotService;
 
@@ -46,15 +51,34 @@ public class AppointmentController {
    }
 
    /**
-    * Retrieves all appointments.
+    * Retrieves appointments for the admin listing, newest first, one page at a time.
     *
-    * @return A ResponseEntity containing a list of appointment DTOs and HTTP
-    * status OK.
+    * @param status    Only include appointments with this status.
+    * @param serviceId Only include appointments for this service.
+    * @param from      Only include appointments starting at or after this time.
+    * @param to        Only include appointments starting before this time.
+    * @param cursor    The nextCursor of the previous page; omit for the first page.
+    * @param size      The page size, between 1 and 200.
+    * @return A ResponseEntity containing the page of appointment DTOs and HTTP
+    * status OK, or BAD_REQUEST if the cursor or size is invalid.
     */
    @GetMapping("/all")
-   public ResponseEntity<List<AppointmentDTO>> getAllAppointments() {
-      List<AppointmentDTO> appointments = appointmentService.findAllAppointments();
-      return new ResponseEntity<>(appointments, HttpStatus.OK);
+   public ResponseEntity<CursorPageDTO<AppointmentDTO>> getAllAppointments(
+      @RequestParam(required = false) String status,
+      @RequestParam(required = false) UUID serviceId,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int size) {
+      if (size < 1 || size > MAX_PAGE_SIZE) {
+         return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+      }
+      try {
+         CursorPageDTO<AppointmentDTO> page = appointmentService.findAppointmentsPage(status, serviceId, from, to, cursor, size);
+         return new ResponseEntity<>(page, HttpStatus.OK);
+      } catch (IllegalArgumentException e) {
+         return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+      }
    }
 
    /**
@@ -137,14 +161,25 @@ public class AppointmentController {
    }
 
    /**
-    * Retrieves all available time slots.
+    * Retrieves available time slots, optionally limited to a start time range and paged.
     *
+    * @param from The earliest start time to include.
+    * @param to   The start time to stop before.
+    * @param page The zero-based page number.
+    * @param size The page size; all matching slots are returned when omitted.
     * @return A ResponseEntity containing a list of available TimeSlotDTOs and HTTP
     *         status OK.
     */
    @GetMapping("/slots/available")
-   public ResponseEntity<List<TimeSlotDTO>> getAvailableSlots() {
-      List<TimeSlotDTO> availableSlots = timeSlotService.getAvailableSlots();
+   public ResponseEntity<List<TimeSlotDTO>> getAvailableSlots(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(required = false) Integer size) {
+      if (page < 0 || (size != null && size < 1)) {
+         return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+      }
+      List<TimeSlotDTO> availableSlots = timeSlotService.getAvailableSlots(from, to, page, size != null ? size : Integer.MAX_VALUE);
       return new ResponseEntity<>(availableSlots, HttpStatus.OK);
    }
 
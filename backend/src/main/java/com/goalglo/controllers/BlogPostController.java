@@ -1,10 +1,22 @@
 package com.goalglo.controllers;
 
+import com.goalglo.config.SecretConfig;
 import com.goalglo.dto.BlogPostDTO;
+import com.goalglo.dto.BlogPostSummaryDTO;
+import com.goalglo.dto.BlogSearchResultDTO;
+import com.goalglo.dto.CursorPageDTO;
+import com.goalglo.dto.ImageUploadCompletionDTO;
+import com.goalglo.dto.ImageUploadDTO;
+import com.goalglo.dto.ImageUploadRequestDTO;
+import com.goalglo.services.BlogFeedCache;
 import com.goalglo.services.BlogPostService;
+import com.goalglo.services.BlogSearch;
+import com.goalglo.services.BlogSlugIndex;
+import com.goalglo.util.SerializedResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -13,6 +25,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -22,17 +35,46 @@ import java.util.UUID;
 @RequestMapping("/api/blog-posts")
 public class BlogPostController {
 
+   private static final int MAX_PAGE_SIZE = 100;
+
+   /**
+    * Single posts may be stored by shared caches but are revalidated on every request, so an unpublished or
+    * deleted post stops being served straight away.
+    */
+   private static final CacheControl POST_CACHE_CONTROL = CacheControl.noCache().cachePublic();
+
+   /**
+    * Drafts must never be stored by a CDN or browser.
+    */
+   private static final CacheControl DRAFT_CACHE_CONTROL = CacheControl.noStore().cachePrivate();
+
    private final BlogPostService blogPostService;
+   private final BlogFeedCache blogFeedCache;
+   private final BlogSlugIndex blogSlugIndex;
+   private final BlogSearch blogSearch;
+   private final CacheControl feedCacheControl;
    Logger log = LoggerFactory.getLogger(BlogPostController.class);
 
    /**
     * Constructs a new BlogPostController with the specified BlogPostService.
     *
     * @param blogPostService the service for managing blog posts
+    * @param blogFeedCache   the cache serving the public blog read model
+    * @param blogSlugIndex   the index resolving slugs to blog post ids
+    * @param blogSearch      the full-text search over published blog posts
+    * @param secretConfig    the application configuration
     */
    @Autowired
-   public BlogPostController(BlogPostService blogPostService) {
+   public BlogPostController(BlogPostService blogPostService, BlogFeedCache blogFeedCache, BlogSlugIndex blogSlugIndex,
+                             BlogSearch blogSearch, SecretConfig secretConfig) {
       this.blogPostService = blogPostService;
+      this.blogFeedCache = blogFeedCache;
+      this.blogSlugIndex = blogSlugIndex;
+      this.blogSearch = blogSearch;
+      SecretConfig.BlogFeed blogFeed = secretConfig.getBlogFeed();
+      this.feedCacheControl = CacheControl.maxAge(blogFeed.getMaxAge())
+         .cachePublic()
+         .staleWhileRevalidate(blogFeed.getStaleWhileRevalidate());
    }
 
    /**
@@ -40,7 +82,7 @@ public class BlogPostController {
     *
     * @param blogPostDTO the blog post data transfer object
     * @return a ResponseEntity containing the created blog post DTO and HTTP status
-    *         CREATED
+    *         CREATED, or BAD_REQUEST if the image is too large to process
     */
    @PostMapping
    public ResponseEntity<BlogPostDTO> createBlogPost(
@@ -48,32 +90,76 @@ public class BlogPostController {
       Authentication authentication,
       @RequestPart(value = "image", required = false) MultipartFile image) throws IOException {
 
-      BlogPostDTO createdBlogPostDTO = blogPostService.createBlogPost(blogPostDTO, authentication, image);
-      return new ResponseEntity<>(createdBlogPostDTO, HttpStatus.CREATED);
+      try {
+         BlogPostDTO createdBlogPostDTO = blogPostService.createBlogPost(blogPostDTO, authentication, image);
+         return new ResponseEntity<>(createdBlogPostDTO, HttpStatus.CREATED);
+      } catch (IllegalArgumentException e) {
+         return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+      }
    }
 
    /**
     * Retrieves all published blog posts.
     *
     * @return a ResponseEntity containing a list of all published blog post DTOs
-    * and HTTP status OK
+    * and HTTP status OK, or NOT MODIFIED when the client's copy is current
     */
    @GetMapping("/published")
-   public ResponseEntity<List<BlogPostDTO>> getAllPublishedBlogPosts() {
-      List<BlogPostDTO> blogPosts = blogPostService.findAllPublishedBlogPosts();
-      return ResponseEntity.ok(blogPosts);
+   public ResponseEntity<byte[]> getAllPublishedBlogPosts() {
+      return toResponse(blogFeedCache.getPublishedFeed());
    }
 
    /**
-    * Retrieves the latest blog posts.
+    * Retrieves one page of published blog post summaries, newest first.
     *
-    * @return a ResponseEntity containing a list of the latest blog post DTOs
-    * and HTTP status OK
+    * @param cursor the nextCursor of the previous page; omit for the first page
+    * @param size   the page size, between 1 and 100
+    * @return a ResponseEntity containing the page of summaries and HTTP status OK,
+    * or BAD_REQUEST if the cursor or size is invalid
+    */
+   @GetMapping("/summaries")
+   public ResponseEntity<CursorPageDTO<BlogPostSummaryDTO>> getBlogPostSummaries(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "12") int size) {
+      if (size < 1 || size > MAX_PAGE_SIZE) {
+         return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+      }
+      try {
+         return ResponseEntity.ok(blogPostService.findPublishedSummaries(cursor, size));
+      } catch (IllegalArgumentException e) {
+         return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+      }
+   }
+
+   /**
+    * Searches published blog posts by title and content.
+    *
+    * @param q    the words to search for; {@code -word} excludes posts containing a word
+    * @param page the zero-based page number
+    * @param size the page size, between 1 and 100
+    * @return a ResponseEntity containing the matching posts, best first, with highlighted passages
+    * and HTTP status OK, or BAD_REQUEST if the query is blank or the page is invalid
+    */
+   @GetMapping("/search")
+   public ResponseEntity<List<BlogSearchResultDTO>> searchBlogPosts(
+      @RequestParam String q,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "10") int size) {
+      if (q.isBlank() || page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+         return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+      }
+      return ResponseEntity.ok(blogSearch.search(q.trim(), page, size));
+   }
+
+   /**
+    * Retrieves summaries of the latest blog posts.
+    *
+    * @return a ResponseEntity containing a list of the latest blog post summaries
+    * and HTTP status OK, or NOT MODIFIED when the client's copy is current
     */
    @GetMapping("/latest")
-   public ResponseEntity<List<BlogPostDTO>> getLatestBlogPosts() {
-      List<BlogPostDTO> latestPosts = blogPostService.findLatestBlogPosts();
-      return ResponseEntity.ok(latestPosts);
+   public ResponseEntity<byte[]> getLatestBlogPosts() {
+      return toResponse(blogFeedCache.getLatestFeed());
    }
    /**
     * Retrieves a blog post by its ID.
@@ -83,12 +169,30 @@ public class BlogPostController {
     *         or HTTP status NOT FOUND if the blog post does not exist
     */
    @GetMapping("/{id}")
-   public ResponseEntity<BlogPostDTO> getBlogPostById(@PathVariable UUID id) {
-      return blogPostService.findBlogPostById(id)
-         .map(blogPostDTO -> new ResponseEntity<>(blogPostDTO, HttpStatus.OK))
+   public ResponseEntity<byte[]> getBlogPostById(@PathVariable UUID id) {
+      return blogFeedCache.getPost(id)
+         .map(this::toPostResponse)
          .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
    }
 
+   /**
+    * Retrieves a blog post by its slug.
+    *
+    * @param slug the slug of the blog post
+    * @return a ResponseEntity containing the blog post DTO and HTTP status OK,
+    *         or HTTP status NOT FOUND if no blog post has the slug
+    */
+   @GetMapping("/by-slug/{slug}")
+   public ResponseEntity<byte[]> getBlogPostBySlug(@PathVariable String slug) {
+      Optional<BlogFeedCache.PostResponse> post = blogSlugIndex.findId(slug).flatMap(blogFeedCache::getPost);
+      if (post.isEmpty()) {
+         // The slug may still point at a post deleted on another replica
+         blogSlugIndex.evict(slug);
+         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+      }
+      return toPostResponse(post.get());
+   }
+
    /**
     * Retrieves all blog posts.
     *
@@ -96,9 +200,8 @@ public class BlogPostController {
     *         status OK
     */
    @GetMapping
-   public ResponseEntity<List<BlogPostDTO>> getAllBlogPosts() {
-      List<BlogPostDTO> blogPosts = blogPostService.findAllBlogPosts();
-      return new ResponseEntity<>(blogPosts, HttpStatus.OK);
+   public ResponseEntity<byte[]> getAllBlogPosts() {
+      return toResponse(blogFeedCache.getPublishedFeed());
    }
 
 
@@ -111,7 +214,7 @@ public class BlogPostController {
     * @param published the new published status of the blog post
     * @param image the new image of the blog post
     * @return a ResponseEntity containing the updated blog post DTO and HTTP status
-    *         OK
+    *         OK, or BAD_REQUEST if the image is too large to process
     */
    @PutMapping("/{id}")
    public ResponseEntity<BlogPostDTO> updateBlogPost(
@@ -120,9 +223,55 @@ public class BlogPostController {
       @RequestPart(value = "image", required = false) MultipartFile image,
       Authentication authentication) throws IOException {
 
-      BlogPostDTO updatedBlogPost = blogPostService.updateBlogPost(id, blogPostDTO, image, authentication);
-      return ResponseEntity.ok(updatedBlogPost);
+      try {
+         BlogPostDTO updatedBlogPost = blogPostService.updateBlogPost(id, blogPostDTO, image, authentication);
+         return ResponseEntity.ok(updatedBlogPost);
+      } catch (IllegalArgumentException e) {
+         return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+      }
+   }
+   /**
+    * Issues a pre-signed URL for uploading a blog post's image straight to S3.
+    *
+    * @param id the UUID of the blog post the image is for
+    * @param request the name, content type and size of the image
+    * @return a ResponseEntity containing the upload URL and HTTP status OK,
+    *         or BAD_REQUEST if the content type or size is not allowed
+    */
+   @PostMapping("/{id}/image-uploads")
+   public ResponseEntity<ImageUploadDTO> createImageUpload(
+      @PathVariable UUID id,
+      @RequestBody ImageUploadRequestDTO request,
+      Authentication authentication) {
+      try {
+         return ResponseEntity.ok(blogPostService.createImageUpload(id, request, authentication));
+      } catch (IllegalArgumentException e) {
+         log.warn("Rejected image upload for blog post {}: {}", id, e.getMessage());
+         return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+      }
+   }
+
+   /**
+    * Attaches an image uploaded to a pre-signed URL to its blog post.
+    *
+    * @param id the UUID of the blog post
+    * @param completion the key the image was uploaded under
+    * @return a ResponseEntity containing the updated blog post DTO and HTTP status OK,
+    *         or BAD_REQUEST if nothing acceptable was uploaded under the key
+    */
+   @PostMapping("/{id}/image-uploads/complete")
+   public ResponseEntity<BlogPostDTO> completeImageUpload(
+      @PathVariable UUID id,
+      @RequestBody ImageUploadCompletionDTO completion,
+      Authentication authentication) {
+      try {
+         return ResponseEntity.ok(blogPostService.completeImageUpload(id, completion.getKey(), authentication));
+      } catch (IllegalArgumentException e) {
+         log.warn("Could not complete image upload for blog post {}: {}", id, e.getMessage());
+         return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+      }
    }
+
    /**
     * Deletes a blog post by its ID.
     *
@@ -137,4 +286,14 @@ public class BlogPostController {
       return deleted ? new ResponseEntity<>(HttpStatus.NO_CONTENT) : new ResponseEntity<>(HttpStatus.NOT_FOUND);
    }
 
-}
\ No newline at end of file
+   /**
+    * Serves a cached body with its validators; a matching If-None-Match or If-Modified-Since gets 304.
+    */
+   private ResponseEntity<byte[]> toResponse(SerializedResponse response) {
+      return response.toResponseEntity(feedCacheControl);
+   }
+
+   private ResponseEntity<byte[]> toPostResponse(BlogFeedCache.PostResponse post) {
+      return post.response().toResponseEntity(post.published() ? POST_CACHE_CONTROL : DRAFT_CACHE_CONTROL);
+   }
+}
@@ -2,13 +2,17 @@ package com.goalglo.controllers;
 
 import com.goalglo.dto.PaymentDTO;
 import com.goalglo.services.PaymentService;
+import com.goalglo.services.StripeWebhookEventService;
+import com.stripe.exception.SignatureVerificationException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Scanner;
 import java.util.UUID;
 
@@ -17,10 +21,12 @@ import java.util.UUID;
 public class PaymentController {
 
    private final PaymentService paymentService;
+   private final StripeWebhookEventService stripeWebhookEventService;
 
    @Autowired
-   public PaymentController(PaymentService paymentService) {
+   public PaymentController(PaymentService paymentService, StripeWebhookEventService stripeWebhookEventService) {
       this.paymentService = paymentService;
+      this.stripeWebhookEventService = stripeWebhookEventService;
    }
 
    /**
@@ -57,10 +63,12 @@ public class PaymentController {
    }
 
    /**
-    * Endpoint to handle Stripe webhooks.
+    * Endpoint to handle Stripe webhooks. Verified events are stored and acknowledged straight away and applied
+    * in the background.
     *
     * @param request The HTTP request containing the webhook payload.
-    * @return ResponseEntity  The response confirming receipt of the webhook event.
+    * @return ResponseEntity  OK once the event is stored or if it was already stored, BAD_REQUEST if the
+    * signature is invalid, or INTERNAL_SERVER_ERROR if the event could not be stored, so that Stripe retries.
     */
    @PostMapping("/webhook")
    public ResponseEntity<String> handleStripeWebhook(HttpServletRequest request) {
@@ -72,7 +80,38 @@ public class PaymentController {
       }
       String sigHeader = request.getHeader("Stripe-Signature");
 
-      String response = paymentService.handleStripeWebhook(payload, sigHeader);
-      return new ResponseEntity<>(response, HttpStatus.OK);
+      try {
+         boolean stored = paymentService.handleStripeWebhook(payload, sigHeader);
+         return new ResponseEntity<>(stored ? "Webhook event received" : "Webhook event already received", HttpStatus.OK);
+      } catch (SignatureVerificationException e) {
+         return new ResponseEntity<>("Signature verification failed", HttpStatus.BAD_REQUEST);
+      } catch (Exception e) {
+         return new ResponseEntity<>("Error storing webhook event", HttpStatus.INTERNAL_SERVER_ERROR);
+      }
+   }
+
+   /**
+    * Endpoint to apply a stored Stripe webhook event again.
+    *
+    * @param eventId The Stripe event id.
+    * @return ResponseEntity  ACCEPTED if the event was queued, or NOT_FOUND if no such event is stored.
+    */
+   @PostMapping("/webhook-events/{eventId}/replay")
+   public ResponseEntity<Void> replayWebhookEvent(@PathVariable String eventId) {
+      return new ResponseEntity<>(stripeWebhookEventService.replay(eventId) ? HttpStatus.ACCEPTED : HttpStatus.NOT_FOUND);
+   }
+
+   /**
+    * Endpoint to apply again every stored Stripe webhook event that was abandoned after its last retry.
+    *
+    * @param from Only replay events received at or after this time.
+    * @param to   Only replay events received before this time.
+    * @return ResponseEntity  The number of events queued.
+    */
+   @PostMapping("/webhook-events/replay")
+   public ResponseEntity<Integer> replayFailedWebhookEvents(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+      return new ResponseEntity<>(stripeWebhookEventService.replayFailed(from, to), HttpStatus.ACCEPTED);
    }
 }
\ No newline at end of file
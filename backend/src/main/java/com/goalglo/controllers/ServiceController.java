@@ -1,8 +1,9 @@
 package com.goalglo.controllers;
 
-import com.goalglo.dto.ServiceDTO;
-import com.goalglo.services.ServiceService;
+import com.goalglo.services.ServiceCatalogueCache;
+import com.goalglo.util.SerializedResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,18 +11,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/services")
 public class ServiceController {
 
-   private final ServiceService serviceService;
+   private final ServiceCatalogueCache serviceCatalogueCache;
 
    @Autowired
-   public ServiceController(ServiceService serviceService) {
-      this.serviceService = serviceService;
+   public ServiceController(ServiceCatalogueCache serviceCatalogueCache) {
+      this.serviceCatalogueCache = serviceCatalogueCache;
    }
 
 
@@ -29,23 +29,27 @@ public class ServiceController {
     * Retrieves a service by its ID.
     *
     * @param id The UUID of the service.
-    * @return The service data if found.
+    * @return The service data if found, or 304 if the client's copy is current.
     */
    @GetMapping("/{id}")
-   public ResponseEntity<ServiceDTO> getServiceById(@PathVariable UUID id) {
-      return serviceService.findServiceById(id)
-         .map(serviceDTO -> new ResponseEntity<>(serviceDTO, HttpStatus.OK))
+   public ResponseEntity<byte[]> getServiceById(@PathVariable UUID id) {
+      return serviceCatalogueCache.getService(id)
+         .map(this::toResponse)
          .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
    }
 
    /**
     * Retrieves all services.
     *
-    * @return A list of all services.
+    * @return A list of all services, or 304 if the client's copy is current.
     */
    @GetMapping
-   public ResponseEntity<List<ServiceDTO>> getAllServices() {
-      List<ServiceDTO> services = serviceService.getAllServices();
-      return ResponseEntity.ok(services);
+   public ResponseEntity<byte[]> getAllServices() {
+      return toResponse(serviceCatalogueCache.getAllServices());
    }
-}
\ No newline at end of file
+
+   private ResponseEntity<byte[]> toResponse(SerializedResponse response) {
+      // no-cache: browsers keep the copy but revalidate it on every view
+      return response.toResponseEntity(CacheControl.noCache());
+   }
+}
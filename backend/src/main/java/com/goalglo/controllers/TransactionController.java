@@ -1,28 +1,55 @@
 package com.goalglo.controllers;
 
+import com.goalglo.dto.CursorPageDTO;
 import com.goalglo.dto.TransactionDTO;
+import com.goalglo.dto.TransactionSeriesPointDTO;
+import com.goalglo.entities.TransactionRollup;
+import com.goalglo.services.TransactionExportService;
+import com.goalglo.services.TransactionRollupService;
 import com.goalglo.services.TransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+  private static final int MAX_PAGE_SIZE = 200;
+
+  /**
+   * Properties the paged listings may be sorted by: only transactionDate, which idx_transactions_user_date_id
+   * serves in order. Other properties are rejected rather than passed through, since a sort on an unindexed or
+   * joined property makes every page a full sort of the user's transactions.
+   */
+  private static final Set<String> SORTABLE_PROPERTIES = Set.of("transactionDate");
+
   private final TransactionService transactionService;
+  private final TransactionRollupService transactionRollupService;
+  private final TransactionExportService transactionExportService;
 
   @Autowired
-  public TransactionController(TransactionService transactionService) {
+  public TransactionController(TransactionService transactionService, TransactionRollupService transactionRollupService,
+                               TransactionExportService transactionExportService) {
     this.transactionService = transactionService;
+    this.transactionRollupService = transactionRollupService;
+    this.transactionExportService = transactionExportService;
   }
 
   /**
@@ -30,10 +57,13 @@ public class TransactionController {
    *
    * @param authentication The authentication object to get the logged-in user.
    * @param pageable       The pagination information.
-   * @return A ResponseEntity containing a Page of TransactionDTO objects.
+   * @return A ResponseEntity containing a Page of TransactionDTO objects, or BAD_REQUEST if the sort is not allowed.
    */
   @GetMapping("/user")
   public ResponseEntity<Page<TransactionDTO>> getUserTransactions(Authentication authentication, Pageable pageable) {
+    if (!isSortable(pageable)) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
 
     Page<TransactionDTO> transactions = transactionService.getUserTransactions(authentication, pageable);
     return ResponseEntity.ok(transactions);
@@ -43,27 +73,136 @@ public class TransactionController {
    * Retrieves all transactions.
    *
    * @param pageable The pagination information.
-   * @return A ResponseEntity containing a Page of TransactionDTO objects.
+   * @return A ResponseEntity containing a Page of TransactionDTO objects, or BAD_REQUEST if the sort is not allowed.
    */
   @GetMapping("/all")
   public ResponseEntity<Page<TransactionDTO>> getAllTransactions(Pageable pageable) {
+    if (!isSortable(pageable)) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
     Page<TransactionDTO> transactions = transactionService.getAllTransactions(pageable);
     return ResponseEntity.ok(transactions);
   }
 
+  /**
+   * Retrieves the authenticated user's transactions, newest first, one page at a time. Deep pages cost the
+   * same as the first one, and no total is counted.
+   *
+   * @param authentication The authentication object to get the logged-in user.
+   * @param cursor         The nextCursor of the previous page; omit for the first page.
+   * @param size           The page size, between 1 and 200.
+   * @return A ResponseEntity containing the page of TransactionDTO objects, or BAD_REQUEST if the cursor or
+   * size is invalid.
+   */
+  @GetMapping("/user/feed")
+  public ResponseEntity<CursorPageDTO<TransactionDTO>> getUserTransactionFeed(
+      Authentication authentication,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int size) {
+    if (size < 1 || size > MAX_PAGE_SIZE) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+    try {
+      return ResponseEntity.ok(transactionService.getUserTransactionFeed(authentication, cursor, size));
+    } catch (IllegalArgumentException e) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+  }
+
   /**
    * Retrieves the most recent transactions for the authenticated user.
    *
    * @param authentication The authentication object to get the logged-in user.
-   * @param limit          The maximum number of transactions to retrieve.
+   * @param limit          The maximum number of transactions to retrieve, between 1 and 200.
    * @return A ResponseEntity containing a list of TransactionDTO objects.
    */
   @GetMapping("/recent")
   public ResponseEntity<List<TransactionDTO>> getRecentTransactions(
       Authentication authentication,
       @RequestParam(defaultValue = "10") int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
 
     List<TransactionDTO> recentTransactions = transactionService.getRecentTransactions(authentication, limit);
     return ResponseEntity.ok(recentTransactions);
   }
-}
\ No newline at end of file
+
+  /**
+   * Retrieves the authenticated user's income and expenses per day or month, for charts.
+   *
+   * @param authentication The authentication object to get the logged-in user.
+   * @param granularity    DAY or MONTH.
+   * @param from           The first date of the range (ISO format).
+   * @param to             The last date of the range, inclusive (ISO format).
+   * @return A ResponseEntity containing one point per bucket, or 400 if the range is invalid or too long.
+   */
+  @GetMapping("/series")
+  public ResponseEntity<List<TransactionSeriesPointDTO>> getTransactionSeries(
+      Authentication authentication,
+      @RequestParam(defaultValue = "DAY") TransactionRollup.Granularity granularity,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    try {
+      return ResponseEntity.ok(transactionRollupService.getSeries(authentication, granularity, from, to));
+    } catch (IllegalArgumentException e) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+  }
+
+  /**
+   * Downloads all of the authenticated user's transactions in date order, streamed as they are read.
+   *
+   * @param authentication The authentication object to get the logged-in user.
+   * @param format         CSV or NDJSON, in any case.
+   * @param gzip           Whether to gzip the file.
+   * @return A ResponseEntity streaming the file, or BAD_REQUEST if the format is unknown.
+   */
+  @GetMapping("/user/export")
+  public ResponseEntity<StreamingResponseBody> exportUserTransactions(
+      Authentication authentication,
+      @RequestParam(defaultValue = "CSV") String format,
+      @RequestParam(defaultValue = "false") boolean gzip) {
+    TransactionExportService.Format exportFormat;
+    try {
+      exportFormat = TransactionExportService.Format.parse(format);
+    } catch (IllegalArgumentException e) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+    return download("my-transactions", exportFormat, gzip,
+        transactionExportService.exportUserTransactions(authentication, exportFormat, gzip));
+  }
+
+  /**
+   * Downloads every transaction in date order, streamed as they are read.
+   *
+   * @param format CSV or NDJSON, in any case.
+   * @param gzip   Whether to gzip the file.
+   * @return A ResponseEntity streaming the file, or BAD_REQUEST if the format is unknown.
+   */
+  @GetMapping("/all/export")
+  public ResponseEntity<StreamingResponseBody> exportAllTransactions(
+      @RequestParam(defaultValue = "CSV") String format,
+      @RequestParam(defaultValue = "false") boolean gzip) {
+    TransactionExportService.Format exportFormat;
+    try {
+      exportFormat = TransactionExportService.Format.parse(format);
+    } catch (IllegalArgumentException e) {
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+    return download("transactions", exportFormat, gzip, transactionExportService.exportAllTransactions(exportFormat, gzip));
+  }
+
+  private static ResponseEntity<StreamingResponseBody> download(String name, TransactionExportService.Format format,
+                                                                boolean gzip, StreamingResponseBody body) {
+    String fileName = name + "-" + LocalDate.now() + "." + format.extension() + (gzip ? ".gz" : "");
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.contentType()))
+        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+        .body(body);
+  }
+
+  private static boolean isSortable(Pageable pageable) {
+    return pageable.getSort().stream().allMatch(order -> SORTABLE_PROPERTIES.contains(order.getProperty()));
+  }
+}
@@ -24,6 +24,7 @@ public class BlogPostDTO {
    private String author;
 
    private String imageUrl;
+   private String imageSrcset;
    private LocalDateTime createdAt;
    private LocalDateTime updatedAt;
 
@@ -37,6 +38,7 @@ public class BlogPostDTO {
       this.published = blogPost.isPublished();
       this.slug = blogPost.getSlug();
       this.imageUrl = blogPost.getImageUrl();
+      this.imageSrcset = blogPost.getImageSrcset();
       this.createdAt = blogPost.getCreatedAt();
       this.updatedAt = blogPost.getUpdatedAt();
    }
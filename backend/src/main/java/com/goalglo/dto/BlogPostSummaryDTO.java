@@ -0,0 +1,28 @@
+package com.goalglo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Blog post as shown in listings: everything a card needs, with a short excerpt instead of the full content.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlogPostSummaryDTO {
+
+   private UUID id;
+   private String title;
+   private String slug;
+   private String excerpt;
+   private String imageUrl;
+   private String imageSrcset;
+   private LocalDateTime publishedAt;
+   private String author;
+}
@@ -0,0 +1,30 @@
+package com.goalglo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A blog post matching a search, with the matching passage highlighted.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlogSearchResultDTO {
+
+   private UUID id;
+   private String title;
+   private String slug;
+   /**
+    * Plain-text passage of the post with matched words wrapped in {@code <mark>} tags.
+    */
+   private String headline;
+   private String imageUrl;
+   private LocalDateTime publishedAt;
+   private double rank;
+}
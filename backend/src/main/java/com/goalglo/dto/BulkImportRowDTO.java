@@ -0,0 +1,30 @@
+package com.goalglo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One row of a streaming bulk import, as read from an NDJSON line or a CSV record.
+ * Values are kept as text so that a malformed value is reported against its row instead of aborting the parse.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BulkImportRowDTO {
+
+   /**
+    * Either {@code service} or {@code timeSlot}.
+    */
+   private String type;
+
+   private String name;
+   private String description;
+   private String price;
+   private String duration;
+
+   private String startTime;
+   private String endTime;
+}
@@ -0,0 +1,23 @@
+package com.goalglo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * @param <T> The item type.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+   private List<T> items;
+
+   /**
+    * Opaque cursor to pass back for the next page, or {@code null} on the last page.
+    */
+   private String nextCursor;
+}
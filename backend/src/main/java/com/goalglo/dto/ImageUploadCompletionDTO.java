@@ -0,0 +1,18 @@
+package com.goalglo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Reports that an image was uploaded to a pre-signed URL.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageUploadCompletionDTO {
+
+   private String key;
+}
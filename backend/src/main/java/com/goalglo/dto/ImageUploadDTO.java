@@ -0,0 +1,27 @@
+package com.goalglo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A pre-signed URL the client PUTs an image to, bypassing the backend.
+ */
+@Getter
+@AllArgsConstructor
+public class ImageUploadDTO {
+
+   /**
+    * The S3 key the image is stored under; pass it back to complete the upload.
+    */
+   private String key;
+   private String uploadUrl;
+
+   /**
+    * Headers the PUT must carry with exactly these values, as they are part of the signature.
+    */
+   private Map<String, String> headers;
+   private Instant expiresAt;
+}
@@ -0,0 +1,24 @@
+package com.goalglo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An image the client wants to upload straight to S3.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageUploadRequestDTO {
+
+   private String fileName;
+   private String contentType;
+
+   /**
+    * Size of the file in bytes; the upload URL only accepts a body of exactly this size.
+    */
+   private long contentLength;
+}
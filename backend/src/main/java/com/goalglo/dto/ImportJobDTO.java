@@ -0,0 +1,38 @@
+package com.goalglo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Snapshot of a streaming bulk import job, returned when the job is submitted and when it is polled.
+ */
+@Getter
+@AllArgsConstructor
+public class ImportJobDTO {
+
+   private UUID id;
+   private Status status;
+   private long rowsRead;
+   private long servicesImported;
+   private long timeSlotsImported;
+   private long errorCount;
+
+   /**
+    * The first row errors, capped at {@code app.bulk-import.max-reported-errors}.
+    */
+   private List<RowError> errors;
+   private String failureReason;
+   private LocalDateTime submittedAt;
+   private LocalDateTime finishedAt;
+
+   public enum Status {
+      QUEUED, RUNNING, COMPLETED, FAILED
+   }
+
+   public record RowError(long line, String message) {
+   }
+}
@@ -25,6 +25,15 @@ public class ServiceDTO {
       this.duration = serviceEntity.getDuration();
    }
 
+   // Constructor used by the JPQL projection in ServiceRepository
+   public ServiceDTO(UUID id, String name, String description, BigDecimal price, Integer duration) {
+      this.id = id;
+      this.name = name;
+      this.description = description;
+      this.price = price;
+      this.duration = duration;
+   }
+
    // Default constructor
    public ServiceDTO() {
    }
@@ -1,6 +1,8 @@
 package com.goalglo.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -10,6 +12,8 @@ import java.util.UUID;
  * Data Transfer Object (DTO) for Transaction.
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class TransactionDTO {
   private UUID id;
   private UUID userId;
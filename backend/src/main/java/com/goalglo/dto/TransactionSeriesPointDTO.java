@@ -0,0 +1,21 @@
+package com.goalglo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) for one day or month of a user's transaction time series.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionSeriesPointDTO {
+  private LocalDate bucketStart;
+  private BigDecimal income;
+  private BigDecimal expenses;
+  private long transactionCount;
+}
@@ -24,7 +24,7 @@ public class AccountSummary {
   private UUID id;
 
   @OneToOne(fetch = FetchType.LAZY)
-  @JoinColumn(name = "user_id", nullable = false)
+  @JoinColumn(name = "user_id", nullable = false, unique = true)
   @ToString.Exclude
   private User user;
 
@@ -13,7 +13,10 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+   @Index(name = "idx_appointments_start_time_id", columnList = "start_time DESC, id DESC"),
+   @Index(name = "idx_appointments_status_start_time", columnList = "status, start_time DESC")
+})
 public class Appointment {
 
    @Id
@@ -16,9 +16,17 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
-@Table(name = "blogs")
+@Table(name = "blogs", indexes = {
+   @Index(name = "idx_blogs_published_created_at", columnList = "published, created_at DESC"),
+   @Index(name = "idx_blogs_published_published_at_id", columnList = "published, published_at DESC, id DESC")
+})
 public class BlogPost {
 
+   /**
+    * Number of characters of content shown as the excerpt in listings.
+    */
+   public static final int EXCERPT_LENGTH = 300;
+
    @Id
    @GeneratedValue
    private UUID id;
@@ -35,6 +43,12 @@ public class BlogPost {
    @Column(name = "image_url")
    private String imageUrl;
 
+   /**
+    * Resized variants of the image as an HTML srcset, e.g. {@code "https://.../a-480w.jpg 480w, ..."}.
+    */
+   @Column(name = "image_srcset", columnDefinition = "TEXT")
+   private String imageSrcset;
+
    @ManyToOne
    @JoinColumn(name = "author_id")
    private User author;
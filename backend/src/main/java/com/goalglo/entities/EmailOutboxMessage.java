@@ -0,0 +1,66 @@
+package com.goalglo.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Transactional email waiting to be delivered by the outbox dispatcher.
+ * Rows are written in the same database transaction as the business change that triggers the email.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "email_outbox", indexes = @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+public class EmailOutboxMessage {
+
+   @Id
+   @GeneratedValue
+   private UUID id;
+
+   @Column(nullable = false)
+   private String recipient;
+
+   @Column(nullable = false)
+   private String subject;
+
+   @Column(nullable = false, columnDefinition = "TEXT")
+   private String body;
+
+   @Column(nullable = false)
+   @Enumerated(EnumType.STRING)
+   private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+   @Column(nullable = false)
+   private int attempts;
+
+   @Column(name = "next_attempt_at", nullable = false)
+   private LocalDateTime nextAttemptAt;
+
+   @Column(name = "last_error", columnDefinition = "TEXT")
+   private String lastError;
+
+   @CreationTimestamp
+   @Column(name = "created_at", nullable = false, updatable = false)
+   private LocalDateTime createdAt;
+
+   @Column(name = "sent_at")
+   private LocalDateTime sentAt;
+
+   public EmailOutboxMessage(String recipient, String subject, String body) {
+      this.recipient = recipient;
+      this.subject = subject;
+      this.body = body;
+      this.nextAttemptAt = LocalDateTime.now();
+   }
+
+   public enum EmailOutboxStatus {
+      PENDING, SENDING, SENT, FAILED
+   }
+}
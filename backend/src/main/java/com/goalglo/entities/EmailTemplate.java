@@ -12,6 +12,7 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @Table(name = "email_templates")
+@EntityListeners(EmailTemplateListener.class)
 public class EmailTemplate {
 
    @Id
@@ -0,0 +1,31 @@
+package com.goalglo.entities;
+
+import com.goalglo.services.EmailTemplateService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts cached compiled templates when an {@link EmailTemplate} is changed through JPA.
+ */
+@Component
+public class EmailTemplateListener {
+
+   private final EmailTemplateService emailTemplateService;
+
+   // Lazy because the service depends on the repository, which needs the entity manager that creates this listener
+   @Autowired
+   public EmailTemplateListener(@Lazy EmailTemplateService emailTemplateService) {
+      this.emailTemplateService = emailTemplateService;
+   }
+
+   @PostPersist
+   @PostUpdate
+   @PostRemove
+   public void evict(EmailTemplate template) {
+      emailTemplateService.evict(template.getTemplateName());
+   }
+}
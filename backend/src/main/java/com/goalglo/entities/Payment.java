@@ -41,6 +41,16 @@ public class Payment {
    @Column(nullable = false, unique = true)
    private String stripePaymentId;
 
+   /**
+    * When Stripe created the newest webhook event applied to this payment, so an older event that is retried
+    * or replayed later cannot overwrite a newer status.
+    */
+   @Column(name = "stripe_event_created_at")
+   private LocalDateTime stripeEventCreatedAt;
+
+   @Column(name = "stripe_event_id")
+   private String stripeEventId;
+
    @CreationTimestamp
    private LocalDateTime createdAt;
 
@@ -0,0 +1,39 @@
+package com.goalglo.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Cluster-wide hit count of one rate limit key within one fixed window.
+ * Rows are written in bulk by JdbcRateLimitStore; the mapping exists so the schema is managed with the other tables.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "rate_limit_counters",
+   uniqueConstraints = @UniqueConstraint(name = "uk_rate_limit_counters_key_window", columnNames = {"bucket_key", "window_id"}),
+   indexes = @Index(name = "idx_rate_limit_counters_expires_at", columnList = "expires_at"))
+public class RateLimitCounter {
+
+   @Id
+   @GeneratedValue
+   private UUID id;
+
+   @Column(name = "bucket_key", nullable = false)
+   private String bucketKey;
+
+   @Column(name = "window_id", nullable = false)
+   private long windowId;
+
+   @Column(nullable = false)
+   private long hits;
+
+   @Column(name = "expires_at", nullable = false)
+   private LocalDateTime expiresAt;
+}
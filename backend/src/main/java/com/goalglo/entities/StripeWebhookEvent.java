@@ -0,0 +1,72 @@
+package com.goalglo.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Verified Stripe webhook event waiting to be applied, or already applied, by the webhook dispatcher.
+ * The unique event id makes redelivered events a no-op; the raw payload is kept so events can be replayed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "stripe_webhook_events",
+   uniqueConstraints = @UniqueConstraint(name = "uk_stripe_webhook_events_event_id", columnNames = "event_id"),
+   indexes = {
+      @Index(name = "idx_stripe_webhook_events_status_next_attempt", columnList = "status, next_attempt_at"),
+      @Index(name = "idx_stripe_webhook_events_ordering_key", columnList = "ordering_key, stripe_created_at")
+   })
+public class StripeWebhookEvent {
+
+   @Id
+   @GeneratedValue
+   private UUID id;
+
+   @Column(name = "event_id", nullable = false)
+   private String eventId;
+
+   @Column(name = "event_type", nullable = false)
+   private String eventType;
+
+   /**
+    * Events with the same key are applied one at a time in creation order: the PaymentIntent the event is
+    * about, or the event id for events that do not concern one.
+    */
+   @Column(name = "ordering_key", nullable = false)
+   private String orderingKey;
+
+   @Column(nullable = false, columnDefinition = "TEXT")
+   private String payload;
+
+   @Column(nullable = false)
+   @Enumerated(EnumType.STRING)
+   private StripeWebhookEventStatus status = StripeWebhookEventStatus.RECEIVED;
+
+   @Column(nullable = false)
+   private int attempts;
+
+   @Column(name = "next_attempt_at", nullable = false)
+   private LocalDateTime nextAttemptAt;
+
+   @Column(name = "last_error", columnDefinition = "TEXT")
+   private String lastError;
+
+   @Column(name = "stripe_created_at", nullable = false)
+   private LocalDateTime stripeCreatedAt;
+
+   @Column(name = "received_at", nullable = false)
+   private LocalDateTime receivedAt;
+
+   @Column(name = "processed_at")
+   private LocalDateTime processedAt;
+
+   public enum StripeWebhookEventStatus {
+      RECEIVED, PROCESSING, PROCESSED, FAILED
+   }
+}
@@ -17,8 +17,23 @@ import java.util.UUID;
 @ToString
 @RequiredArgsConstructor
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions",
+   indexes = {
+      @Index(name = "idx_transactions_user_date_id", columnList = "user_id, transaction_date DESC, id DESC"),
+      @Index(name = "idx_transactions_date_id", columnList = "transaction_date, id")
+   })
 public class Transaction {
+
+   /**
+    * Type of a transaction that adds to the user's income.
+    */
+   public static final String TYPE_INCOME = "income";
+
+   /**
+    * Type of a transaction that adds to the user's expenses, such as paying for a service.
+    */
+   public static final String TYPE_EXPENSE = "expense";
+
    @Id
    @GeneratedValue
    private UUID id;
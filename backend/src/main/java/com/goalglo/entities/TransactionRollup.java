@@ -0,0 +1,92 @@
+package com.goalglo.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Sum and count of one user's transactions of one type within one day or month.
+ * Rows are upserted by TransactionRollupService as transactions are recorded and rebuilt in bulk by its backfill;
+ * the mapping exists so the schema is managed with the other tables and the series can be read with JPQL.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "transaction_rollups",
+   uniqueConstraints = @UniqueConstraint(name = "uk_transaction_rollups_bucket",
+      columnNames = {"user_id", "granularity", "bucket_start", "type"}))
+public class TransactionRollup {
+
+   @Id
+   @GeneratedValue
+   private UUID id;
+
+   @ManyToOne(fetch = FetchType.LAZY)
+   @JoinColumn(name = "user_id", nullable = false)
+   private User user;
+
+   @Column(nullable = false)
+   @Enumerated(EnumType.STRING)
+   private Granularity granularity;
+
+   @Column(name = "bucket_start", nullable = false)
+   private LocalDate bucketStart;
+
+   @Column(nullable = false)
+   private String type;
+
+   @Column(nullable = false)
+   private BigDecimal total;
+
+   @Column(name = "transaction_count", nullable = false)
+   private long transactionCount;
+
+   @Column(name = "updated_at", nullable = false)
+   private LocalDateTime updatedAt;
+
+   public enum Granularity {
+      DAY("day"), MONTH("month");
+
+      private final String unit;
+
+      Granularity(String unit) {
+         this.unit = unit;
+      }
+
+      /**
+       * @return The PostgreSQL date_trunc unit of this granularity.
+       */
+      public String unit() {
+         return unit;
+      }
+
+      /**
+       * @return The first day of the bucket containing the given date.
+       */
+      public LocalDate bucketStart(LocalDate date) {
+         return this == DAY ? date : date.withDayOfMonth(1);
+      }
+
+      /**
+       * @return The first day of the bucket following the one starting on the given date.
+       */
+      public LocalDate nextBucket(LocalDate bucketStart) {
+         return this == DAY ? bucketStart.plusDays(1) : bucketStart.plusMonths(1);
+      }
+
+      /**
+       * @return The number of buckets from the one starting on {@code first} to the one starting on {@code last}, inclusive.
+       */
+      public long bucketsBetween(LocalDate first, LocalDate last) {
+         return (this == DAY ? ChronoUnit.DAYS : ChronoUnit.MONTHS).between(first, last) + 1;
+      }
+   }
+}
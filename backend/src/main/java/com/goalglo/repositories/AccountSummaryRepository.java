@@ -2,10 +2,74 @@ package com.goalglo.repositories;
 
 import com.goalglo.entities.AccountSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface AccountSummaryRepository extends JpaRepository<AccountSummary, UUID> {
   Optional<AccountSummary> findByUserId(UUID userId);
-}
\ No newline at end of file
+
+  /**
+   * Adds a transaction's amounts to a user's totals in place. The row lock taken by the update serialises
+   * concurrent deltas for the same user without reading the totals into the application first.
+   *
+   * @param userId   The ID of the user.
+   * @param income   The amount to add to the income total.
+   * @param expenses The amount to add to the expense total.
+   * @param now      The time to record as the last update.
+   * @return 1 if the summary was updated, 0 if the user has no summary yet.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query("UPDATE AccountSummary a SET a.totalIncome = a.totalIncome + :income, "
+      + "a.totalExpenses = a.totalExpenses + :expenses, "
+      + "a.totalBalance = a.totalBalance + :income - :expenses, a.updatedAt = :now "
+      + "WHERE a.user.id = :userId")
+  int applyDelta(@Param("userId") UUID userId, @Param("income") BigDecimal income,
+                 @Param("expenses") BigDecimal expenses, @Param("now") LocalDateTime now);
+
+  /**
+   * Sets a user's totals outright, e.g. after recomputing them from their transactions.
+   *
+   * @return 1 if the summary was updated, 0 if the user has no summary yet.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query("UPDATE AccountSummary a SET a.totalIncome = :income, a.totalExpenses = :expenses, "
+      + "a.totalBalance = :income - :expenses, a.updatedAt = :now WHERE a.user.id = :userId")
+  int overwriteTotals(@Param("userId") UUID userId, @Param("income") BigDecimal income,
+                      @Param("expenses") BigDecimal expenses, @Param("now") LocalDateTime now);
+
+  /**
+   * Creates an all-zero summary for a user unless one exists. Concurrent callers for the same user are
+   * resolved by the unique user_id constraint, so exactly one row is ever created.
+   *
+   * @return 1 if a summary was created, 0 if the user already had one.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO account_summaries "
+      + "(id, user_id, total_balance, total_income, total_expenses, created_at, updated_at) "
+      + "VALUES (:id, :userId, 0, 0, 0, :now, :now) ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+  int insertIfAbsent(@Param("id") UUID id, @Param("userId") UUID userId, @Param("now") LocalDateTime now);
+
+  String TOTALS_PROJECTION = "SELECT a.user.id AS userId, a.totalIncome AS income, a.totalExpenses AS expenses, "
+      + "a.totalBalance AS balance FROM AccountSummary a";
+
+  /**
+   * Reads every user's stored totals without loading the summary entities.
+   */
+  @Query(TOTALS_PROJECTION)
+  List<LedgerTotals> findAllTotals();
+
+  /**
+   * Reads one user's stored totals.
+   *
+   * @return The totals, or an empty Optional if the user has no summary yet.
+   */
+  @Query(TOTALS_PROJECTION + " WHERE a.user.id = :userId")
+  Optional<LedgerTotals> findTotalsByUserId(@Param("userId") UUID userId);
+}
@@ -1,17 +1,29 @@
 package com.goalglo.repositories;
 
+import com.goalglo.dto.AppointmentDTO;
 import com.goalglo.entities.Appointment;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface AppointmentRepository extends JpaRepository<Appointment, UUID> {
-   @Query("SELECT a FROM Appointment a JOIN FETCH a.timeSlot WHERE a.user.id = :userId")
-   List<Appointment> findByUserId(@Param("userId") UUID userId);
+public interface AppointmentRepository extends JpaRepository<Appointment, UUID>, AppointmentRepositoryCustom {
 
-   @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.timeSlot LEFT JOIN FETCH a.user LEFT JOIN FETCH a.service")
-   List<Appointment> findAllWithDetails();
-}
\ No newline at end of file
+   /**
+    * Selects only the columns AppointmentDTO needs, in the order of its all-args constructor, so read
+    * paths never hydrate the user (and its roles), time slot or service entities.
+    */
+   String DTO_PROJECTION = "SELECT new com.goalglo.dto.AppointmentDTO("
+      + "a.id, u.id, s.id, t.id, a.startTime, a.endTime, a.status, a.notes, "
+      + "u.firstName, u.lastName, u.email, u.phoneNumber, u.address, s.name, CONCAT(u.firstName, ' ', u.lastName)) "
+      + "FROM Appointment a JOIN a.user u JOIN a.timeSlot t LEFT JOIN a.service s";
+
+   @Query(DTO_PROJECTION + " WHERE u.id = :userId")
+   List<AppointmentDTO> findDTOsByUserId(@Param("userId") UUID userId);
+
+   @Query(DTO_PROJECTION + " WHERE a.id = :id")
+   Optional<AppointmentDTO> findDTOById(@Param("id") UUID id);
+}
@@ -0,0 +1,25 @@
+package com.goalglo.repositories;
+
+import com.goalglo.dto.AppointmentDTO;
+import com.goalglo.util.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface AppointmentRepositoryCustom {
+
+   /**
+    * Finds one page of appointments, newest start time first, as DTO projections.
+    * Seeks past the cursor instead of using an offset, so every page costs the same however deep it is.
+    *
+    * @param status    Only include appointments with this status, if not null.
+    * @param serviceId Only include appointments for this service, if not null.
+    * @param from      Only include appointments starting at or after this time, if not null.
+    * @param to        Only include appointments starting before this time, if not null.
+    * @param after     The position of the last appointment on the previous page, or null for the first page.
+    * @param limit     The maximum number of appointments to return.
+    * @return The matching appointments ordered by start time and id, descending.
+    */
+   List<AppointmentDTO> findPage(String status, UUID serviceId, LocalDateTime from, LocalDateTime to, KeysetCursor after, int limit);
+}
@@ -0,0 +1,53 @@
+package com.goalglo.repositories;
+
+import com.goalglo.dto.AppointmentDTO;
+import com.goalglo.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+class AppointmentRepositoryImpl implements AppointmentRepositoryCustom {
+
+   private static final String SELECT = AppointmentRepository.DTO_PROJECTION + " WHERE 1 = 1";
+
+   @PersistenceContext
+   private EntityManager entityManager;
+
+   @Override
+   public List<AppointmentDTO> findPage(String status, UUID serviceId, LocalDateTime from, LocalDateTime to, KeysetCursor after, int limit) {
+      StringBuilder jpql = new StringBuilder(SELECT);
+      Map<String, Object> parameters = new HashMap<>();
+      if (status != null) {
+         jpql.append(" AND a.status = :status");
+         parameters.put("status", status);
+      }
+      if (serviceId != null) {
+         jpql.append(" AND s.id = :serviceId");
+         parameters.put("serviceId", serviceId);
+      }
+      if (from != null) {
+         jpql.append(" AND a.startTime >= :from");
+         parameters.put("from", from);
+      }
+      if (to != null) {
+         jpql.append(" AND a.startTime < :to");
+         parameters.put("to", to);
+      }
+      if (after != null) {
+         jpql.append(" AND (a.startTime < :afterStart OR (a.startTime = :afterStart AND a.id < :afterId))");
+         parameters.put("afterStart", after.timestamp());
+         parameters.put("afterId", after.id());
+      }
+      jpql.append(" ORDER BY a.startTime DESC, a.id DESC");
+
+      TypedQuery<AppointmentDTO> query = entityManager.createQuery(jpql.toString(), AppointmentDTO.class);
+      parameters.forEach(query::setParameter);
+      return query.setMaxResults(limit).getResultList();
+   }
+}
@@ -1,10 +1,18 @@
 package com.goalglo.repositories;
 
+import com.goalglo.dto.BlogPostSummaryDTO;
 import com.goalglo.entities.BlogPost;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -12,6 +20,45 @@ import java.util.UUID;
  */
 @Repository
 public interface BlogPostRepository extends JpaRepository<BlogPost, UUID> {
+
+   /**
+    * Selects the BlogPostSummaryDTO columns; the excerpt is cut in SQL so the content column never leaves
+    * the database in full.
+    */
+   String SUMMARY_PROJECTION = "SELECT new com.goalglo.dto.BlogPostSummaryDTO("
+      + "b.id, b.title, b.slug, SUBSTRING(b.content, 1, " + BlogPost.EXCERPT_LENGTH + "), b.imageUrl, b.imageSrcset, b.publishedAt, a.firstName) "
+      + "FROM BlogPost b LEFT JOIN b.author a WHERE b.published = true";
+
+   /**
+    * Finds the first page of published post summaries, newest first.
+    *
+    * @param pageable The page size; the page number should be 0.
+    * @return The summaries ordered by publishedAt and id, descending.
+    */
+   @Query(SUMMARY_PROJECTION + " ORDER BY b.publishedAt DESC, b.id DESC")
+   List<BlogPostSummaryDTO> findPublishedSummaries(Pageable pageable);
+
+   /**
+    * Finds published post summaries strictly after a keyset position, newest first.
+    *
+    * @param publishedAt The publishedAt of the last summary on the previous page.
+    * @param id          The id of the last summary on the previous page.
+    * @param pageable    The page size; the page number should be 0.
+    * @return The summaries ordered by publishedAt and id, descending.
+    */
+   @Query(SUMMARY_PROJECTION + " AND (b.publishedAt < :publishedAt OR (b.publishedAt = :publishedAt AND b.id < :id))"
+      + " ORDER BY b.publishedAt DESC, b.id DESC")
+   List<BlogPostSummaryDTO> findPublishedSummariesAfter(@Param("publishedAt") LocalDateTime publishedAt, @Param("id") UUID id,
+                                                        Pageable pageable);
+
+   /**
+    * Finds the most recently created published post summaries.
+    *
+    * @param pageable The number of summaries to return.
+    * @return The summaries ordered by creation date, descending.
+    */
+   @Query(SUMMARY_PROJECTION + " ORDER BY b.createdAt DESC")
+   List<BlogPostSummaryDTO> findLatestSummaries(Pageable pageable);
    /**
     * Finds all blog posts by a specific author.
     *
@@ -28,6 +75,32 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, UUID> {
    List<BlogPost> findTop10ByPublishedTrueOrderByCreatedAtDesc();
 
 
+   /**
+    * Resolves a slug to its blog post id through the unique index on slug.
+    *
+    * @param slug The slug of the blog post.
+    * @return The id of the blog post, or an empty Optional if no post has the slug.
+    */
+   @Query("SELECT b.id FROM BlogPost b WHERE b.slug = :slug")
+   Optional<UUID> findIdBySlug(@Param("slug") String slug);
+
+   /**
+    * Finds when any blog post, published or not, was last edited. Unpublishing a post counts, as it moves the
+    * post's updatedAt.
+    *
+    * @return The newest updatedAt, or an empty Optional if there are no posts.
+    */
+   @Query("SELECT MAX(b.updatedAt) FROM BlogPost b")
+   Optional<LocalDateTime> findLastUpdatedAt();
+
+   /**
+    * Lists the slug and id of every blog post, without reading any other column.
+    *
+    * @return The slug of every blog post with its id.
+    */
+   @Query("SELECT b.id AS id, b.slug AS slug FROM BlogPost b")
+   List<SlugEntry> findAllSlugs();
+
    /**
     * Finds all blog posts by a specific author.
     *
@@ -66,4 +139,28 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, UUID> {
     */
    int deleteByAuthorId(UUID authorId);
 
-}
\ No newline at end of file
+   /**
+    * Puts back the image a blog post had before a background upload that failed, if the post still points at
+    * the failed URL, so the failure does not overwrite an image set by a later edit.
+    *
+    * @param id          The UUID of the blog post.
+    * @param url         The URL of the image that failed to upload.
+    * @param imageUrl    The URL of the previous image, or null if the post had none.
+    * @param imageSrcset The srcset of the previous image, or null if it had none.
+    * @return 1 if the image was reverted, 0 otherwise.
+    */
+   @Transactional
+   @Modifying(flushAutomatically = true, clearAutomatically = true)
+   @Query("UPDATE BlogPost b SET b.imageUrl = :imageUrl, b.imageSrcset = :imageSrcset WHERE b.id = :id AND b.imageUrl = :url")
+   int revertImageUrl(@Param("id") UUID id, @Param("url") String url, @Param("imageUrl") String imageUrl,
+                      @Param("imageSrcset") String imageSrcset);
+
+   /**
+    * Projection of a blog post onto its slug and id.
+    */
+   interface SlugEntry {
+      UUID getId();
+
+      String getSlug();
+   }
+}
@@ -0,0 +1,48 @@
+package com.goalglo.repositories;
+
+import com.goalglo.entities.EmailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, UUID> {
+
+   /**
+    * Locks the next batch of messages that are due for delivery, skipping rows already claimed by another replica.
+    * Messages stuck in SENDING become due again once their lease in next_attempt_at has passed.
+    *
+    * @param now   The current time.
+    * @param limit The maximum number of messages to claim.
+    * @return The due messages, oldest first.
+    */
+   @Query(value = "SELECT * FROM email_outbox WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now " +
+      "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+   List<EmailOutboxMessage> lockDueMessages(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+   /**
+    * Counts the messages in a given delivery state.
+    *
+    * @param status The delivery state.
+    * @return The number of messages in that state.
+    */
+   long countByStatus(EmailOutboxMessage.EmailOutboxStatus status);
+
+   /**
+    * Deletes messages in a given delivery state that were sent before a cutoff.
+    *
+    * @param status The delivery state.
+    * @param before The cutoff for sent_at.
+    * @return The number of messages deleted.
+    */
+   @Modifying
+   @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = :status AND m.sentAt < :before")
+   int deleteByStatusSentBefore(@Param("status") EmailOutboxMessage.EmailOutboxStatus status,
+                                @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,18 @@
+package com.goalglo.repositories;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Projection of a user's income, expense and balance totals, either summed from their transactions or read
+ * from their account summary.
+ */
+public interface LedgerTotals {
+   UUID getUserId();
+
+   BigDecimal getIncome();
+
+   BigDecimal getExpenses();
+
+   BigDecimal getBalance();
+}
@@ -2,12 +2,29 @@ package com.goalglo.repositories;
 
 import com.goalglo.entities.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, UUID> {
    Optional<Payment> findByStripePaymentId(String stripePaymentId);
+
+   /**
+    * Sets a payment's status unless it already has it. The row lock taken by the update makes concurrent
+    * calls for the same payment wait for each other; only the first one sees an updated row.
+    *
+    * @param id     The ID of the payment.
+    * @param status The new status.
+    * @param now    The time to record as the last update.
+    * @return 1 if the status was changed, 0 if the payment already had it or does not exist.
+    */
+   @Modifying(flushAutomatically = true, clearAutomatically = true)
+   @Query("UPDATE Payment p SET p.status = :status, p.updatedAt = :now WHERE p.id = :id AND p.status <> :status")
+   int updateStatusIfChanged(@Param("id") UUID id, @Param("status") String status, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
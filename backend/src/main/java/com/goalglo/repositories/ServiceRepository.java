@@ -1,9 +1,12 @@
 package com.goalglo.repositories;
 
+import com.goalglo.dto.ServiceDTO;
 import com.goalglo.entities.ServiceEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -11,4 +14,12 @@ import java.util.UUID;
  */
 @Repository
 public interface ServiceRepository extends JpaRepository<ServiceEntity, UUID> {
-}
\ No newline at end of file
+
+   /**
+    * Reads every service straight into a ServiceDTO without loading managed entities.
+    *
+    * @return All services as DTOs, ordered by name.
+    */
+   @Query("SELECT new com.goalglo.dto.ServiceDTO(s.id, s.name, s.description, s.price, s.duration) FROM ServiceEntity s ORDER BY s.name")
+   List<ServiceDTO> findAllDTOs();
+}
@@ -0,0 +1,105 @@
+package com.goalglo.repositories;
+
+import com.goalglo.entities.StripeWebhookEvent;
+import com.goalglo.entities.StripeWebhookEvent.StripeWebhookEventStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, UUID> {
+
+   /**
+    * Selects due events that are first in line for their ordering key: an event is held back while an earlier
+    * event with the same key is still waiting, being processed, or backing off after a failure. Abandoned (FAILED)
+    * events no longer hold their key back; if one is replayed after later events were applied,
+    * {@link com.goalglo.services.PaymentService#applyStripeEvent} recognises it as stale.
+    */
+   String DUE_HEAD_EVENTS = "SELECT * FROM stripe_webhook_events w "
+      + "WHERE w.status IN ('RECEIVED', 'PROCESSING') AND w.next_attempt_at <= :now "
+      + "AND NOT EXISTS (SELECT 1 FROM stripe_webhook_events e WHERE e.ordering_key = w.ordering_key "
+      + "AND e.status IN ('RECEIVED', 'PROCESSING') "
+      + "AND (e.stripe_created_at, e.received_at, e.id) < (w.stripe_created_at, w.received_at, w.id))";
+
+   /**
+    * Stores a verified event unless one with the same Stripe event id was stored before. Concurrent deliveries
+    * of the same event are resolved by the unique event_id constraint, so exactly one row is ever created.
+    *
+    * @return 1 if the event was stored, 0 if it is a duplicate.
+    */
+   @Modifying
+   @Query(value = "INSERT INTO stripe_webhook_events (id, event_id, event_type, ordering_key, payload, status, attempts, "
+      + "next_attempt_at, stripe_created_at, received_at) VALUES (:id, :eventId, :eventType, :orderingKey, :payload, "
+      + "'RECEIVED', 0, :now, :stripeCreatedAt, :now) ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+   int insertIfAbsent(@Param("id") UUID id, @Param("eventId") String eventId, @Param("eventType") String eventType,
+                      @Param("orderingKey") String orderingKey, @Param("payload") String payload,
+                      @Param("stripeCreatedAt") LocalDateTime stripeCreatedAt, @Param("now") LocalDateTime now);
+
+   /**
+    * Locks the next batch of due events, at most one per ordering key, skipping rows already claimed by another
+    * replica. Events stuck in PROCESSING become due again once their lease in next_attempt_at has passed.
+    *
+    * @param now   The current time.
+    * @param limit The maximum number of events to claim.
+    * @return The due events, oldest first.
+    */
+   @Query(value = DUE_HEAD_EVENTS + " ORDER BY w.next_attempt_at LIMIT :limit FOR UPDATE OF w SKIP LOCKED", nativeQuery = true)
+   List<StripeWebhookEvent> lockDueEvents(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+   /**
+    * Locks the next due event for one ordering key, if it is first in line.
+    *
+    * @param orderingKey The ordering key.
+    * @param now         The current time.
+    * @return The event, or an empty Optional if none is due.
+    */
+   @Query(value = DUE_HEAD_EVENTS + " AND w.ordering_key = :orderingKey LIMIT 1 FOR UPDATE OF w SKIP LOCKED",
+      nativeQuery = true)
+   Optional<StripeWebhookEvent> lockNextDueEvent(@Param("orderingKey") String orderingKey, @Param("now") LocalDateTime now);
+
+   long countByStatus(StripeWebhookEventStatus status);
+
+   /**
+    * Finds when the oldest event in one of the given states was received.
+    *
+    * @return The time, or null if there is no such event.
+    */
+   @Query("SELECT MIN(e.receivedAt) FROM StripeWebhookEvent e WHERE e.status IN :statuses")
+   LocalDateTime findOldestReceivedAt(@Param("statuses") Collection<StripeWebhookEventStatus> statuses);
+
+   /**
+    * Queues one stored event to be applied again, whatever its state.
+    *
+    * @return 1 if the event was queued, 0 if no event has this id.
+    */
+   @Modifying
+   @Query("UPDATE StripeWebhookEvent e SET e.status = :received, e.attempts = 0, e.nextAttemptAt = :now, "
+      + "e.lastError = null, e.processedAt = null WHERE e.eventId = :eventId")
+   int requeueByEventId(@Param("eventId") String eventId, @Param("received") StripeWebhookEventStatus received,
+                        @Param("now") LocalDateTime now);
+
+   /**
+    * Queues every event in one state that was received in a time range to be applied again.
+    *
+    * @return The number of events queued.
+    */
+   @Modifying
+   @Query("UPDATE StripeWebhookEvent e SET e.status = :received, e.attempts = 0, e.nextAttemptAt = :now, "
+      + "e.lastError = null, e.processedAt = null "
+      + "WHERE e.status = :status AND e.receivedAt >= :from AND e.receivedAt < :to")
+   int requeueByStatus(@Param("status") StripeWebhookEventStatus status, @Param("from") LocalDateTime from,
+                       @Param("to") LocalDateTime to, @Param("received") StripeWebhookEventStatus received,
+                       @Param("now") LocalDateTime now);
+
+   @Modifying
+   @Query("DELETE FROM StripeWebhookEvent e WHERE e.status = :status AND e.processedAt < :before")
+   int deleteByStatusProcessedBefore(@Param("status") StripeWebhookEventStatus status, @Param("before") LocalDateTime before);
+}
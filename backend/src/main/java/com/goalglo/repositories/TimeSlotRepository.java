@@ -2,6 +2,9 @@ package com.goalglo.repositories;
 
 import com.goalglo.entities.TimeSlot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -12,4 +15,16 @@ import java.util.UUID;
 public interface TimeSlotRepository extends JpaRepository<TimeSlot, UUID> {
    List<TimeSlot> findByBookedFalseAndEndTimeAfterOrderByStartTimeAsc(LocalDateTime currentDateTime);
 
+   /**
+    * Marks a time slot as booked if, and only if, it is still free.
+    * The row lock taken by the update makes concurrent claims on the same slot wait for each other
+    * while claims on other slots proceed in parallel; at most one of them sees an updated row.
+    *
+    * @param id  The ID of the time slot.
+    * @param now The time to record as the last update.
+    * @return 1 if the slot was claimed, 0 if it is already booked or does not exist.
+    */
+   @Modifying(flushAutomatically = true, clearAutomatically = true)
+   @Query("UPDATE TimeSlot t SET t.booked = true, t.updatedAt = :now WHERE t.id = :id AND t.booked = false")
+   int claimIfAvailable(@Param("id") UUID id, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -1,14 +1,109 @@
 package com.goalglo.repositories;
 
+import com.goalglo.dto.TransactionDTO;
 import com.goalglo.entities.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
+  /**
+   * Reads the TransactionDTO columns directly, in the order of its all-args constructor. The payment and
+   * service are left-joined only for their ids so no associated entity is loaded.
+   */
+  String DTO_PROJECTION = "SELECT new com.goalglo.dto.TransactionDTO("
+      + "t.id, t.user.id, p.id, s.id, t.amount, t.type, t.description, t.transactionDate) "
+      + "FROM Transaction t LEFT JOIN t.payment p LEFT JOIN t.service s";
+
+  /**
+   * Sums each user's income and expense transactions; transactions of any other type are not counted.
+   */
+  String INCOME_SUM = "COALESCE(SUM(CASE WHEN t.type = '" + Transaction.TYPE_INCOME + "' THEN t.amount END), 0)";
+  String EXPENSE_SUM = "COALESCE(SUM(CASE WHEN t.type = '" + Transaction.TYPE_EXPENSE + "' THEN t.amount END), 0)";
+  String TOTALS_PROJECTION = "SELECT t.user.id AS userId, " + INCOME_SUM + " AS income, " + EXPENSE_SUM + " AS expenses, "
+      + INCOME_SUM + " - " + EXPENSE_SUM + " AS balance FROM Transaction t";
+
+  /**
+   * Rows the driver fetches per round trip when streaming; PostgreSQL only uses a cursor inside a transaction.
+   */
+  String EXPORT_FETCH_SIZE = "1000";
+
   Page<Transaction> findByUserId(UUID userId, Pageable pageable);
 
   Page<Transaction> findAll(Pageable pageable);
-}
\ No newline at end of file
+
+  @Query(value = DTO_PROJECTION + " WHERE t.user.id = :userId",
+      countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.user.id = :userId")
+  Page<TransactionDTO> findDTOsByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+  @Query(value = DTO_PROJECTION, countQuery = "SELECT COUNT(t) FROM Transaction t")
+  Page<TransactionDTO> findAllDTOs(Pageable pageable);
+
+  /**
+   * Finds a user's most recent transactions without counting them.
+   *
+   * @param userId   The ID of the user.
+   * @param pageable The page size; the page number should be 0.
+   * @return The transactions ordered by transactionDate and id, descending.
+   */
+  @Query(DTO_PROJECTION + " WHERE t.user.id = :userId ORDER BY t.transactionDate DESC, t.id DESC")
+  List<TransactionDTO> findLatestDTOsByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+  /**
+   * Finds a user's transactions strictly after a keyset position, newest first. Served by a range scan of
+   * idx_transactions_user_date_id, so every page costs the same however deep it is.
+   *
+   * @param userId          The ID of the user.
+   * @param transactionDate The transactionDate of the last transaction on the previous page.
+   * @param id              The id of the last transaction on the previous page.
+   * @param pageable        The page size; the page number should be 0.
+   * @return The transactions ordered by transactionDate and id, descending.
+   */
+  @Query(DTO_PROJECTION + " WHERE t.user.id = :userId AND (t.transactionDate < :transactionDate "
+      + "OR (t.transactionDate = :transactionDate AND t.id < :id)) ORDER BY t.transactionDate DESC, t.id DESC")
+  List<TransactionDTO> findDTOsByUserIdAfter(@Param("userId") UUID userId,
+                                             @Param("transactionDate") LocalDateTime transactionDate,
+                                             @Param("id") UUID id, Pageable pageable);
+
+  /**
+   * Streams every transaction in date order through a forward-only cursor, for exports. Must be consumed and
+   * closed inside a transaction. Rows are read in idx_transactions_date_id order, so the first row arrives
+   * without sorting the table.
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+  @Query(DTO_PROJECTION + " ORDER BY t.transactionDate, t.id")
+  Stream<TransactionDTO> streamAllDTOs();
+
+  /**
+   * Streams one user's transactions in date order through a forward-only cursor, for exports. Must be consumed
+   * and closed inside a transaction.
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+  @Query(DTO_PROJECTION + " WHERE t.user.id = :userId ORDER BY t.transactionDate, t.id")
+  Stream<TransactionDTO> streamDTOsByUserId(@Param("userId") UUID userId);
+
+  /**
+   * Recomputes every user's totals from their transactions in a single grouped query.
+   */
+  @Query(TOTALS_PROJECTION + " GROUP BY t.user.id")
+  List<LedgerTotals> sumTotalsByUser();
+
+  /**
+   * Recomputes one user's totals from their transactions.
+   *
+   * @return The totals, or an empty Optional if the user has no transactions.
+   */
+  @Query(TOTALS_PROJECTION + " WHERE t.user.id = :userId GROUP BY t.user.id")
+  Optional<LedgerTotals> sumTotalsForUser(@Param("userId") UUID userId);
+}
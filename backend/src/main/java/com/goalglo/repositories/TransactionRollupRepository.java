@@ -0,0 +1,94 @@
+package com.goalglo.repositories;
+
+import com.goalglo.dto.TransactionSeriesPointDTO;
+import com.goalglo.entities.Transaction;
+import com.goalglo.entities.TransactionRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface TransactionRollupRepository extends JpaRepository<TransactionRollup, UUID> {
+
+  /**
+   * Adds one transaction to its bucket, creating the bucket on the first transaction. Concurrent writers to the
+   * same bucket are serialised by the unique bucket constraint, so no increment is lost.
+   *
+   * @param id          The ID to give the bucket if it is created.
+   * @param granularity The name of the bucket's {@link TransactionRollup.Granularity}.
+   * @return 1, as the bucket is always either created or updated.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO transaction_rollups "
+      + "(id, user_id, granularity, bucket_start, type, total, transaction_count, updated_at) "
+      + "VALUES (:id, :userId, :granularity, :bucketStart, :type, :amount, 1, :now) "
+      + "ON CONFLICT (user_id, granularity, bucket_start, type) DO UPDATE SET "
+      + "total = transaction_rollups.total + EXCLUDED.total, "
+      + "transaction_count = transaction_rollups.transaction_count + 1, updated_at = EXCLUDED.updated_at",
+      nativeQuery = true)
+  int addToBucket(@Param("id") UUID id, @Param("userId") UUID userId, @Param("granularity") String granularity,
+                  @Param("bucketStart") LocalDate bucketStart, @Param("type") String type,
+                  @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+  /**
+   * Locks the given users against new transactions until the current transaction ends. Inserting a transaction
+   * takes a key-share lock on its user, which conflicts with this one, so a rebuild waits for in-flight
+   * transactions of these users to commit and blocks new ones until it has committed itself.
+   *
+   * @return The IDs of the users that were locked.
+   */
+  @Query(value = "SELECT id FROM users WHERE id IN (:userIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+  List<UUID> lockUsers(@Param("userIds") Collection<UUID> userIds);
+
+  @Modifying
+  @Query("DELETE FROM TransactionRollup r WHERE r.user.id IN :userIds")
+  int deleteByUserIds(@Param("userIds") Collection<UUID> userIds);
+
+  /**
+   * Recomputes the given users' buckets of one granularity from their transactions in a single grouped insert,
+   * without reading the transactions into the application.
+   *
+   * @param granularity The name of the {@link TransactionRollup.Granularity}.
+   * @param unit        Its date_trunc unit.
+   * @return The number of buckets written.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO transaction_rollups "
+      + "(id, user_id, granularity, bucket_start, type, total, transaction_count, updated_at) "
+      + "SELECT gen_random_uuid(), t.user_id, :granularity, t.bucket_start, t.type, SUM(t.amount), COUNT(*), :now "
+      + "FROM (SELECT user_id, type, amount, CAST(date_trunc(:unit, transaction_date) AS date) AS bucket_start "
+      + "FROM transactions WHERE user_id IN (:userIds)) t "
+      + "GROUP BY t.user_id, t.bucket_start, t.type", nativeQuery = true)
+  int rebuildBuckets(@Param("userIds") Collection<UUID> userIds, @Param("granularity") String granularity,
+                     @Param("unit") String unit, @Param("now") LocalDateTime now);
+
+  /**
+   * Reads the next chunk of user IDs in ID order, for walking all users in bounded chunks.
+   */
+  @Query("SELECT u.id FROM User u WHERE u.id > :after ORDER BY u.id")
+  List<UUID> findUserIdsAfter(@Param("after") UUID after, Pageable pageable);
+
+  @Query(value = "SELECT EXISTS (SELECT 1 FROM transaction_rollups)", nativeQuery = true)
+  boolean existsAny();
+
+  /**
+   * Reads one user's income and expense series from the rollups alone. Buckets without transactions are absent.
+   */
+  @Query("SELECT new com.goalglo.dto.TransactionSeriesPointDTO(r.bucketStart, "
+      + "COALESCE(SUM(CASE WHEN r.type = '" + Transaction.TYPE_INCOME + "' THEN r.total END), 0), "
+      + "COALESCE(SUM(CASE WHEN r.type = '" + Transaction.TYPE_EXPENSE + "' THEN r.total END), 0), "
+      + "SUM(r.transactionCount)) "
+      + "FROM TransactionRollup r WHERE r.user.id = :userId AND r.granularity = :granularity "
+      + "AND r.bucketStart BETWEEN :from AND :to GROUP BY r.bucketStart ORDER BY r.bucketStart")
+  List<TransactionSeriesPointDTO> findSeries(@Param("userId") UUID userId,
+                                             @Param("granularity") TransactionRollup.Granularity granularity,
+                                             @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,90 @@
+package com.goalglo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * {@link JwtDecoder} that remembers successfully verified tokens until they expire.
+ * <p>
+ * Entries are keyed by a SHA-256 digest of the raw token, so the cache never holds bearer credentials,
+ * and each entry is evicted at the token's {@code exp} claim. Tokens without an expiry and tokens that
+ * fail verification are never cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+   private final JwtDecoder delegate;
+   private final Clock clock;
+   private final Cache<String, Jwt> verifiedTokens;
+
+   public CachingJwtDecoder(JwtDecoder delegate, long maximumSize) {
+      this(delegate, maximumSize, Clock.systemUTC());
+   }
+
+   CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Clock clock) {
+      this.delegate = delegate;
+      this.clock = clock;
+      this.verifiedTokens = Caffeine.newBuilder()
+         .maximumSize(maximumSize)
+         .expireAfter(new ExpiresAtClaim())
+         .build();
+   }
+
+   @Override
+   public Jwt decode(String token) throws JwtException {
+      String digest = digest(token);
+      Jwt cached = verifiedTokens.getIfPresent(digest);
+      if (cached != null) {
+         return cached;
+      }
+
+      Jwt jwt = delegate.decode(token);
+      Instant expiresAt = jwt.getExpiresAt();
+      if (expiresAt != null && expiresAt.isAfter(clock.instant())) {
+         verifiedTokens.put(digest, jwt);
+      }
+      return jwt;
+   }
+
+   private static String digest(String token) {
+      try {
+         byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+         return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+      } catch (NoSuchAlgorithmException e) {
+         throw new IllegalStateException("SHA-256 is not available", e);
+      }
+   }
+
+   /**
+    * Expires each entry at the token's own {@code exp} claim.
+    */
+   private final class ExpiresAtClaim implements Expiry<String, Jwt> {
+
+      @Override
+      public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+         Duration remaining = Duration.between(clock.instant(), jwt.getExpiresAt());
+         return Math.max(0, remaining.toNanos());
+      }
+
+      @Override
+      public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+         return expireAfterCreate(key, jwt, currentTime);
+      }
+
+      @Override
+      public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+         return currentDuration;
+      }
+   }
+}
@@ -32,11 +32,16 @@ public class JwtConfig {
       return new NimbusJwtEncoder(immutableSecret);
    }
 
+   /**
+    * Decoder shared by JwtAuthenticationFilter and the OAuth2 resource server, so a token is verified
+    * and parsed once and then served from cache until it expires.
+    */
    @Bean
    public JwtDecoder jwtDecoder() {
-      return NimbusJwtDecoder.withSecretKey(new SecretKeySpec(secretConfig.getJwt().getSecret().getBytes(), "HmacSHA512"))
+      NimbusJwtDecoder nimbusJwtDecoder = NimbusJwtDecoder.withSecretKey(new SecretKeySpec(secretConfig.getJwt().getSecret().getBytes(), "HmacSHA512"))
          .macAlgorithm(MacAlgorithm.HS512)
          .build();
+      return new CachingJwtDecoder(nimbusJwtDecoder, secretConfig.getJwt().getCacheMaximumSize());
    }
 
 }
\ No newline at end of file
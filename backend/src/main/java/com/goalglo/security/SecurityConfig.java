@@ -1,8 +1,9 @@
 package com.goalglo.security;
 
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.goalglo.config.SecretConfig;
 import com.goalglo.repositories.UserRepository;
+import com.goalglo.security.ratelimit.RateLimitPolicyResolver;
+import com.goalglo.security.ratelimit.RateLimiter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -38,13 +39,16 @@ public class SecurityConfig {
 
    private final UserRepository userRepository;
    private final SecretConfig secretConfig;
-   private final LoadingCache<String, Integer> requestCountsPerIpAddress;
+   private final RateLimiter rateLimiter;
+   private final RateLimitPolicyResolver rateLimitPolicyResolver;
 
 
-   public SecurityConfig(UserRepository userRepository, SecretConfig secretConfig, LoadingCache<String, Integer> requestCountsPerIpAddress) {
+   public SecurityConfig(UserRepository userRepository, SecretConfig secretConfig, RateLimiter rateLimiter,
+                         RateLimitPolicyResolver rateLimitPolicyResolver) {
       this.userRepository = userRepository;
       this.secretConfig = secretConfig;
-      this.requestCountsPerIpAddress = requestCountsPerIpAddress;
+      this.rateLimiter = rateLimiter;
+      this.rateLimitPolicyResolver = rateLimitPolicyResolver;
 
    }
 
@@ -56,12 +60,21 @@ public class SecurityConfig {
          .authorizeHttpRequests(authz -> authz
             // Authenticated endpoints
             .requestMatchers("/api/users/profile", "/api/transactions/user", "/api/appointments",
-               "/api/transactions/recent")
+               "/api/transactions/recent", "/api/transactions/user/feed", "/api/transactions/user/export",
+               "/api/transactions/series", "/api/blog-posts/*/image-uploads/**")
             .authenticated()
 
             // Secured role endpoints
             .requestMatchers(HttpMethod.DELETE, "/api/appointments/all", "/api/transactions/all", "/api/admin-actions/**")
             .hasRole(secretConfig.getRoles().getSecuredRole())
+            .requestMatchers("/api/admin-actions/service-time/bulk-import/*")
+            .hasRole(secretConfig.getRoles().getSecuredRole())
+            .requestMatchers(HttpMethod.GET, "/api/transactions/all/export")
+            .hasRole(secretConfig.getRoles().getSecuredRole())
+            .requestMatchers("/api/payments/webhook-events/**")
+            .hasRole(secretConfig.getRoles().getSecuredRole())
+            .requestMatchers("/actuator/metrics/**")
+            .hasRole(secretConfig.getRoles().getSecuredRole())
 
             // Mixed role endpoints
             .requestMatchers("/user/**", "/api/transactions/**")
@@ -74,7 +87,7 @@ public class SecurityConfig {
                .jwtAuthenticationConverter(jwtAuthenticationConverter())))
          .addFilterBefore(new JwtAuthenticationFilter(jwtDecoder), UsernamePasswordAuthenticationFilter.class)
          .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-         .addFilterBefore(new SecurityRateLimitFilter(requestCountsPerIpAddress), UsernamePasswordAuthenticationFilter.class)
+         .addFilterBefore(new SecurityRateLimitFilter(rateLimiter, rateLimitPolicyResolver), UsernamePasswordAuthenticationFilter.class)
          .logout(logout -> logout
             .logoutUrl("/logout")
             .logoutSuccessUrl("/")
@@ -1,14 +1,20 @@
 package com.goalglo.security;
 
-import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.goalglo.security.ratelimit.RateLimitPolicy;
+import com.goalglo.security.ratelimit.RateLimitPolicyResolver;
+import com.goalglo.security.ratelimit.RateLimiter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
@@ -16,12 +22,13 @@ import java.io.IOException;
 public class SecurityRateLimitFilter extends OncePerRequestFilter {
 
    private static final Logger logger = LoggerFactory.getLogger(SecurityRateLimitFilter.class);
-   private static final int MAX_REQUESTS_PER_MINUTE = 60;
 
-   private final LoadingCache<String, Integer> requestCountsPerIpAddress;
+   private final RateLimiter rateLimiter;
+   private final RateLimitPolicyResolver policyResolver;
 
-   public SecurityRateLimitFilter(LoadingCache<String, Integer> requestCountsPerIpAddress) {
-      this.requestCountsPerIpAddress = requestCountsPerIpAddress;
+   public SecurityRateLimitFilter(RateLimiter rateLimiter, RateLimitPolicyResolver policyResolver) {
+      this.rateLimiter = rateLimiter;
+      this.policyResolver = policyResolver;
    }
 
    @Override
@@ -30,15 +37,21 @@ public class SecurityRateLimitFilter extends OncePerRequestFilter {
       @NonNull HttpServletResponse response,
       @NonNull FilterChain filterChain
    ) throws ServletException, IOException {
-      String clientIpAddress = getClientIP(request);
-      int requests = requestCountsPerIpAddress.get(clientIpAddress);
-      if (requests > MAX_REQUESTS_PER_MINUTE) {
-         logger.warn("Rate limit exceeded for IP: {}", clientIpAddress);
+      Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+      boolean authenticated = authentication != null && authentication.isAuthenticated()
+         && !(authentication instanceof AnonymousAuthenticationToken);
+
+      // Authenticated callers are limited per user, everyone else per client IP
+      String principal = authenticated ? "user:" + authentication.getName() : "ip:" + getClientIP(request);
+      RateLimitPolicy policy = policyResolver.resolve(request, authenticated);
+
+      if (!rateLimiter.tryAcquire(policy.getName() + "|" + principal, policy)) {
+         logger.warn("Rate limit exceeded for {} on policy {}", principal, policy.getName());
          response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+         response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, policy.getWindow().toSeconds())));
          response.getWriter().write("Too many requests");
          return;
       }
-      requestCountsPerIpAddress.put(clientIpAddress, requests + 1);
       filterChain.doFilter(request, response);
    }
 
@@ -50,4 +63,4 @@ public class SecurityRateLimitFilter extends OncePerRequestFilter {
       }
       return xfHeader.split(",")[0];
    }
-}
\ No newline at end of file
+}
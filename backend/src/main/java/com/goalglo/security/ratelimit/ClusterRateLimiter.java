@@ -0,0 +1,242 @@
+package com.goalglo.security.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limiter that enforces one limit across all backend replicas.
+ * <p>
+ * Requests are decided locally against the last known cluster-wide total plus the hits this replica
+ * has admitted since. Local deltas are pushed to the {@link RateLimitStore} in one batch per sync
+ * interval, which also pulls back the totals contributed by the other replicas. Buckets without new
+ * hits are only read, never upserted. Windows are aligned to wall-clock time so every replica agrees
+ * on bucket boundaries. If the store is unavailable the limiter keeps enforcing on local counts and
+ * retries the unsent deltas on the next sync.
+ * <p>
+ * At most {@code maximumKeys} buckets are tracked locally. When a new key arrives at the cap, idle
+ * buckets are evicted, expired ones first; their totals stay in the store and are pulled back on the
+ * next sync after the key is seen again.
+ */
+public class ClusterRateLimiter implements RateLimiter {
+
+   private static final Logger log = LoggerFactory.getLogger(ClusterRateLimiter.class);
+
+   private final RateLimitStore store;
+   private final long maximumKeys;
+   private final LongSupplier clock;
+   private final Map<RateLimitBucket, BucketState> buckets = new ConcurrentHashMap<>();
+
+   /**
+    * Creates a limiter backed by the system clock.
+    *
+    * @param store       The shared counter storage.
+    * @param maximumKeys The maximum number of buckets tracked before idle ones are evicted.
+    */
+   public ClusterRateLimiter(RateLimitStore store, long maximumKeys) {
+      this(store, maximumKeys, System::currentTimeMillis);
+   }
+
+   ClusterRateLimiter(RateLimitStore store, long maximumKeys, LongSupplier clock) {
+      this.store = store;
+      this.maximumKeys = maximumKeys;
+      this.clock = clock;
+   }
+
+   @Override
+   public boolean tryAcquire(String key, RateLimitPolicy policy) {
+      long windowMillis = policy.getWindow().toMillis();
+      long now = clock.getAsLong();
+      long window = now / windowMillis;
+
+      RateLimitBucket bucket = new RateLimitBucket(key, window, windowMillis);
+      BucketState current = buckets.get(bucket);
+      if (current == null) {
+         if (buckets.size() >= maximumKeys) {
+            evictIdle(now);
+         }
+         current = buckets.computeIfAbsent(bucket, b -> new BucketState());
+      }
+      BucketState previous = buckets.get(new RateLimitBucket(key, window - 1, windowMillis));
+
+      double overlap = 1.0d - (double) (now - window * windowMillis) / windowMillis;
+      long weightedPrevious = previous == null ? 0 : (long) (previous.total() * overlap);
+      return current.tryAcquire(policy.getLimit() - weightedPrevious);
+   }
+
+   /**
+    * Pushes the hits admitted since the last sync to the shared store and refreshes the cluster-wide totals.
+    */
+   @Scheduled(fixedDelayString = "${app.rate-limit.cluster.sync-interval-ms:1000}")
+   public void sync() {
+      long now = clock.getAsLong();
+      Map<RateLimitBucket, Long> deltas = new HashMap<>();
+      List<RateLimitBucket> unchanged = new ArrayList<>();
+      buckets.forEach((bucket, state) -> {
+         if (bucket.expiresAt().toEpochMilli() <= now && state.isIdle()) {
+            buckets.remove(bucket, state);
+            return;
+         }
+         long delta = state.drain();
+         if (delta > 0) {
+            deltas.put(bucket, delta);
+         } else {
+            unchanged.add(bucket);
+         }
+      });
+
+      refresh(unchanged);
+      if (deltas.isEmpty()) {
+         return;
+      }
+
+      try {
+         Map<RateLimitBucket, Long> totals = store.addAndGet(deltas);
+         deltas.forEach((bucket, delta) -> {
+            BucketState state = buckets.get(bucket);
+            Long total = totals.get(bucket);
+            if (state != null) {
+               if (total != null) {
+                  state.synced(total, delta);
+               } else {
+                  state.restore(delta);
+               }
+            }
+         });
+      } catch (RuntimeException e) {
+         log.warn("Rate limit sync failed, enforcing local counts until the store recovers: {}", e.getMessage());
+         deltas.forEach((bucket, delta) -> {
+            BucketState state = buckets.get(bucket);
+            if (state != null) {
+               state.restore(delta);
+            }
+         });
+      }
+   }
+
+   /**
+    * Pulls the totals other replicas have contributed to buckets that took no local hits.
+    *
+    * @param unchanged The buckets without a local delta.
+    */
+   private void refresh(List<RateLimitBucket> unchanged) {
+      if (unchanged.isEmpty()) {
+         return;
+      }
+      try {
+         store.get(unchanged).forEach((bucket, total) -> {
+            BucketState state = buckets.get(bucket);
+            if (state != null) {
+               state.refreshed(total);
+            }
+         });
+      } catch (RuntimeException e) {
+         log.warn("Rate limit refresh failed, enforcing local counts until the store recovers: {}", e.getMessage());
+      }
+   }
+
+   /**
+    * Makes room for a new bucket by dropping idle ones, expired buckets first and then any others.
+    * Buckets with hits not yet pushed to the store are never evicted.
+    *
+    * @param now The current time in epoch millis.
+    */
+   private void evictIdle(long now) {
+      buckets.forEach((bucket, state) -> {
+         if (bucket.expiresAt().toEpochMilli() <= now && state.isIdle()) {
+            buckets.remove(bucket, state);
+         }
+      });
+      if (buckets.size() < maximumKeys) {
+         return;
+      }
+      buckets.forEach((bucket, state) -> {
+         if (state.isIdle()) {
+            buckets.remove(bucket, state);
+         }
+      });
+   }
+
+   int trackedBuckets() {
+      return buckets.size();
+   }
+
+   /**
+    * Deletes shared buckets whose windows have passed.
+    */
+   @Scheduled(fixedDelayString = "${app.rate-limit.cluster.purge-interval-ms:60000}")
+   public void purgeExpired() {
+      try {
+         int purged = store.purgeExpired(Instant.ofEpochMilli(clock.getAsLong()));
+         log.debug("Purged {} expired rate limit buckets", purged);
+      } catch (RuntimeException e) {
+         log.warn("Rate limit purge failed: {}", e.getMessage());
+      }
+   }
+
+   /**
+    * Local view of one shared bucket.
+    * <p>
+    * {@code synced} is the cluster-wide total at the last sync, {@code inFlight} the hits currently
+    * being pushed and {@code pending} the hits admitted since; their sum is this replica's estimate.
+    */
+   static final class BucketState {
+
+      private final AtomicLong pending = new AtomicLong();
+      private final AtomicLong inFlight = new AtomicLong();
+      private volatile long synced;
+
+      boolean tryAcquire(long allowance) {
+         while (true) {
+            long local = pending.get();
+            if (synced + inFlight.get() + local >= allowance) {
+               return false;
+            }
+            if (pending.compareAndSet(local, local + 1)) {
+               return true;
+            }
+         }
+      }
+
+      long total() {
+         return synced + inFlight.get() + pending.get();
+      }
+
+      boolean isIdle() {
+         return pending.get() == 0 && inFlight.get() == 0;
+      }
+
+      long drain() {
+         long delta = pending.getAndSet(0);
+         inFlight.addAndGet(delta);
+         return delta;
+      }
+
+      void synced(long total, long delta) {
+         // Publish the new total before releasing the in-flight hits so the estimate never dips
+         synced = total;
+         inFlight.addAndGet(-delta);
+      }
+
+      void refreshed(long total) {
+         // Totals only grow within a window; never let a late read lower the estimate
+         if (total > synced) {
+            synced = total;
+         }
+      }
+
+      void restore(long delta) {
+         pending.addAndGet(delta);
+         inFlight.addAndGet(-delta);
+      }
+   }
+}
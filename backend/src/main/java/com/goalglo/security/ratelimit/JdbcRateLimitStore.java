@@ -0,0 +1,130 @@
+package com.goalglo.security.ratelimit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PostgreSQL-backed {@link RateLimitStore} using the application datasource.
+ * <p>
+ * A whole sync round is a single multi-row upsert of the buckets that took hits plus, at most, one
+ * read of the others, so each replica pays a couple of round trips per sync interval instead of one
+ * per request.
+ */
+public class JdbcRateLimitStore implements RateLimitStore {
+
+   private static final String UPSERT_SQL = """
+      INSERT INTO rate_limit_counters (id, bucket_key, window_id, hits, expires_at)
+      SELECT gen_random_uuid(), d.bucket_key, d.window_id, d.hits, d.expires_at
+      FROM unnest(?::text[], ?::bigint[], ?::bigint[], ?::timestamp[]) AS d(bucket_key, window_id, hits, expires_at)
+      ON CONFLICT (bucket_key, window_id) DO UPDATE SET hits = rate_limit_counters.hits + EXCLUDED.hits
+      RETURNING bucket_key, window_id, hits
+      """;
+
+   private static final String SELECT_SQL = """
+      SELECT c.bucket_key, c.window_id, c.hits
+      FROM rate_limit_counters c
+      JOIN unnest(?::text[], ?::bigint[]) AS b(bucket_key, window_id)
+        ON c.bucket_key = b.bucket_key AND c.window_id = b.window_id
+      """;
+
+   private static final String PURGE_SQL = "DELETE FROM rate_limit_counters WHERE expires_at < ?";
+
+   private static final Comparator<RateLimitBucket> LOCK_ORDER = Comparator
+      .comparing(RateLimitBucket::key)
+      .thenComparingLong(RateLimitBucket::window);
+
+   private final JdbcTemplate jdbcTemplate;
+
+   public JdbcRateLimitStore(JdbcTemplate jdbcTemplate) {
+      this.jdbcTemplate = jdbcTemplate;
+   }
+
+   @Override
+   public Map<RateLimitBucket, Long> addAndGet(Map<RateLimitBucket, Long> deltas) {
+      // Upsert in a stable order so concurrent syncs from several replicas cannot deadlock
+      List<RateLimitBucket> buckets = deltas.keySet().stream().sorted(LOCK_ORDER).toList();
+      int size = buckets.size();
+      String[] keys = new String[size];
+      Long[] windows = new Long[size];
+      Long[] hits = new Long[size];
+      Timestamp[] expiries = new Timestamp[size];
+      Map<String, RateLimitBucket> bucketsById = new HashMap<>(size * 2);
+      for (int i = 0; i < size; i++) {
+         RateLimitBucket bucket = buckets.get(i);
+         keys[i] = bucket.key();
+         windows[i] = bucket.window();
+         hits[i] = deltas.get(bucket);
+         expiries[i] = Timestamp.from(bucket.expiresAt());
+         bucketsById.put(bucketId(bucket.key(), bucket.window()), bucket);
+      }
+
+      Map<RateLimitBucket, Long> totals = new HashMap<>(size * 2);
+      jdbcTemplate.query(connection -> {
+         PreparedStatement statement = connection.prepareStatement(UPSERT_SQL);
+         statement.setArray(1, array(connection, "text", keys));
+         statement.setArray(2, array(connection, "bigint", windows));
+         statement.setArray(3, array(connection, "bigint", hits));
+         statement.setArray(4, array(connection, "timestamp", expiries));
+         return statement;
+      }, resultSet -> {
+         RateLimitBucket bucket = bucketsById.get(bucketId(resultSet.getString(1), resultSet.getLong(2)));
+         if (bucket != null) {
+            totals.put(bucket, resultSet.getLong(3));
+         }
+      });
+      return totals;
+   }
+
+   @Override
+   public Map<RateLimitBucket, Long> get(Collection<RateLimitBucket> buckets) {
+      int size = buckets.size();
+      String[] keys = new String[size];
+      Long[] windows = new Long[size];
+      Map<String, RateLimitBucket> bucketsById = new HashMap<>(size * 2);
+      int i = 0;
+      for (RateLimitBucket bucket : buckets) {
+         keys[i] = bucket.key();
+         windows[i] = bucket.window();
+         bucketsById.put(bucketId(bucket.key(), bucket.window()), bucket);
+         i++;
+      }
+
+      Map<RateLimitBucket, Long> totals = new HashMap<>(size * 2);
+      jdbcTemplate.query(connection -> {
+         PreparedStatement statement = connection.prepareStatement(SELECT_SQL);
+         statement.setArray(1, array(connection, "text", keys));
+         statement.setArray(2, array(connection, "bigint", windows));
+         return statement;
+      }, resultSet -> {
+         RateLimitBucket bucket = bucketsById.get(bucketId(resultSet.getString(1), resultSet.getLong(2)));
+         if (bucket != null) {
+            totals.put(bucket, resultSet.getLong(3));
+         }
+      });
+      return totals;
+   }
+
+   @Override
+   public int purgeExpired(Instant now) {
+      return jdbcTemplate.update(PURGE_SQL, Timestamp.from(now));
+   }
+
+   private static Array array(Connection connection, String type, Object[] values) throws SQLException {
+      return connection.createArrayOf(type, values);
+   }
+
+   private static String bucketId(String key, long window) {
+      return key + '#' + window;
+   }
+}
@@ -0,0 +1,22 @@
+package com.goalglo.security.ratelimit;
+
+import java.time.Instant;
+
+/**
+ * A rate limit key within one fixed, wall-clock aligned window, shared by all replicas.
+ *
+ * @param key          The limited identity including the policy name.
+ * @param window       The window number, i.e. epoch millis divided by the window length.
+ * @param windowMillis The window length in milliseconds.
+ */
+public record RateLimitBucket(String key, long window, long windowMillis) {
+
+   /**
+    * A bucket is still needed while it is the current or the previous window.
+    *
+    * @return The instant after which the bucket no longer influences any decision.
+    */
+   public Instant expiresAt() {
+      return Instant.ofEpochMilli((window + 2) * windowMillis);
+   }
+}
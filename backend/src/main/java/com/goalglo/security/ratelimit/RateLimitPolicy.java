@@ -0,0 +1,30 @@
+package com.goalglo.security.ratelimit;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Immutable description of how many requests are allowed within a sliding window.
+ */
+@Getter
+public final class RateLimitPolicy {
+
+   private final String name;
+   private final int limit;
+   private final Duration window;
+   private final long windowNanos;
+
+   public RateLimitPolicy(String name, int limit, Duration window) {
+      if (limit <= 0) {
+         throw new IllegalArgumentException("Rate limit must be positive for policy " + name);
+      }
+      if (window == null || window.isZero() || window.isNegative()) {
+         throw new IllegalArgumentException("Rate limit window must be positive for policy " + name);
+      }
+      this.name = name;
+      this.limit = limit;
+      this.window = window;
+      this.windowNanos = window.toNanos();
+   }
+}
@@ -0,0 +1,53 @@
+package com.goalglo.security.ratelimit;
+
+import com.goalglo.config.SecretConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+
+/**
+ * Chooses the rate limit policy for a request: the first configured route whose pattern and
+ * method match wins, otherwise the default policy for anonymous or authenticated callers applies.
+ */
+public class RateLimitPolicyResolver {
+
+   private final AntPathMatcher pathMatcher = new AntPathMatcher();
+   private final List<RoutePolicy> routes;
+   private final RateLimitPolicy anonymousPolicy;
+   private final RateLimitPolicy authenticatedPolicy;
+
+   public RateLimitPolicyResolver(SecretConfig.RateLimit config) {
+      this.anonymousPolicy = toPolicy("anonymous", config.getAnonymous());
+      this.authenticatedPolicy = toPolicy("authenticated", config.getAuthenticated());
+      this.routes = config.getRoutes().stream()
+         .map(route -> new RoutePolicy(route.getPattern(), route.getMethod(),
+            toPolicy("route:" + route.getPattern(), route)))
+         .toList();
+   }
+
+   /**
+    * Resolves the policy for a request.
+    *
+    * @param request       The incoming HTTP request.
+    * @param authenticated Whether the caller presented a valid token.
+    * @return The policy to enforce.
+    */
+   public RateLimitPolicy resolve(HttpServletRequest request, boolean authenticated) {
+      String path = request.getRequestURI();
+      for (RoutePolicy route : routes) {
+         if ((route.method() == null || route.method().equalsIgnoreCase(request.getMethod()))
+            && pathMatcher.match(route.pattern(), path)) {
+            return route.policy();
+         }
+      }
+      return authenticated ? authenticatedPolicy : anonymousPolicy;
+   }
+
+   private static RateLimitPolicy toPolicy(String name, SecretConfig.RateLimit.Policy policy) {
+      return new RateLimitPolicy(name, policy.getLimit(), policy.getWindow());
+   }
+
+   private record RoutePolicy(String pattern, String method, RateLimitPolicy policy) {
+   }
+}
@@ -0,0 +1,35 @@
+package com.goalglo.security.ratelimit;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Shared counter storage used by {@link ClusterRateLimiter} to aggregate hits across replicas.
+ */
+public interface RateLimitStore {
+
+   /**
+    * Atomically adds each delta to its shared bucket, creating missing buckets.
+    *
+    * @param deltas Local hits per bucket since the last sync.
+    * @return The cluster-wide hit count of every bucket after the deltas were applied.
+    */
+   Map<RateLimitBucket, Long> addAndGet(Map<RateLimitBucket, Long> deltas);
+
+   /**
+    * Reads the current totals without writing anything.
+    *
+    * @param buckets The buckets to read.
+    * @return The cluster-wide hit count of every bucket that exists in the store.
+    */
+   Map<RateLimitBucket, Long> get(Collection<RateLimitBucket> buckets);
+
+   /**
+    * Removes buckets that can no longer influence a decision.
+    *
+    * @param now The current time.
+    * @return The number of buckets removed.
+    */
+   int purgeExpired(Instant now);
+}
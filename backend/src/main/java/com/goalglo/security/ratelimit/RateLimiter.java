@@ -0,0 +1,17 @@
+package com.goalglo.security.ratelimit;
+
+/**
+ * Strategy for deciding whether a request identified by a key may proceed under a given policy.
+ * Implementations must be safe for concurrent use from all servlet threads.
+ */
+public interface RateLimiter {
+
+   /**
+    * Attempts to consume one permit for the given key.
+    *
+    * @param key    The identity being limited, e.g. a policy name combined with a client IP or username.
+    * @param policy The policy describing the permitted number of requests per window.
+    * @return true if the request is within the limit, false if it must be rejected.
+    */
+   boolean tryAcquire(String key, RateLimitPolicy policy);
+}
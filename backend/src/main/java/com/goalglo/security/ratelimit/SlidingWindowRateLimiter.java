@@ -0,0 +1,87 @@
+package com.goalglo.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process sliding-window counter rate limiter.
+ * <p>
+ * Each key owns a two-slot ring holding the request count of the current and previous fixed window.
+ * A slot packs the window number (high 32 bits) and the count (low 32 bits) into a single long, so
+ * rolling a window and counting a request are one compare-and-set with no locks and no boxing.
+ * The previous window is weighted by how much of it still overlaps the sliding window.
+ */
+public class SlidingWindowRateLimiter implements RateLimiter {
+
+   private final Cache<String, WindowCounter> counters;
+   private final LongSupplier nanoClock;
+   private final long origin;
+
+   /**
+    * Creates a limiter backed by the system nano clock.
+    *
+    * @param maximumKeys The maximum number of keys tracked before the least recently used are evicted.
+    * @param idleTimeout How long an untouched key is kept; must exceed the longest policy window.
+    */
+   public SlidingWindowRateLimiter(long maximumKeys, Duration idleTimeout) {
+      this(maximumKeys, idleTimeout, System::nanoTime);
+   }
+
+   SlidingWindowRateLimiter(long maximumKeys, Duration idleTimeout, LongSupplier nanoClock) {
+      this.counters = Caffeine.newBuilder()
+         .maximumSize(maximumKeys)
+         .expireAfterAccess(idleTimeout)
+         .build();
+      this.nanoClock = nanoClock;
+      this.origin = nanoClock.getAsLong();
+   }
+
+   @Override
+   public boolean tryAcquire(String key, RateLimitPolicy policy) {
+      WindowCounter counter = counters.get(key, k -> new WindowCounter());
+      return counter.tryAcquire(nanoClock.getAsLong() - origin, policy);
+   }
+
+   /**
+    * Two-slot ring of packed (window, count) pairs for a single key.
+    */
+   static final class WindowCounter {
+
+      private static final long LOW_BITS = 0xFFFFFFFFL;
+
+      private final AtomicLongArray slots = new AtomicLongArray(2);
+
+      boolean tryAcquire(long now, RateLimitPolicy policy) {
+         long windowNanos = policy.getWindowNanos();
+         long window = now / windowNanos;
+         int index = (int) (window & 1);
+
+         long previous = countIn(slots.get(index ^ 1), window - 1);
+         double overlap = 1.0d - (double) (now - window * windowNanos) / windowNanos;
+         long weightedPrevious = (long) (previous * overlap);
+
+         while (true) {
+            long packed = slots.get(index);
+            long current = countIn(packed, window);
+            if (weightedPrevious + current >= policy.getLimit()) {
+               return false;
+            }
+            if (slots.compareAndSet(index, packed, pack(window, current + 1))) {
+               return true;
+            }
+         }
+      }
+
+      private static long pack(long window, long count) {
+         return ((window & LOW_BITS) << 32) | count;
+      }
+
+      private static long countIn(long packed, long window) {
+         return (packed >>> 32) == (window & LOW_BITS) ? packed & LOW_BITS : 0;
+      }
+   }
+}
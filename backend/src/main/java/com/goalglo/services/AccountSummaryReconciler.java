@@ -0,0 +1,138 @@
+package com.goalglo.services;
+
+import com.goalglo.repositories.AccountSummaryRepository;
+import com.goalglo.repositories.LedgerTotals;
+import com.goalglo.repositories.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the incrementally maintained account summaries against the transactions they are built from.
+ * <p>
+ * Every run sums all transactions per user in one grouped query and compares the result with the stored
+ * totals. A user whose totals differ is recomputed and corrected in its own repeatable-read transaction,
+ * so a delta applied concurrently makes the correction fail and wait for the next run instead of being
+ * overwritten. Corrections are logged and counted in {@code ledger.summary.drift}; on a healthy ledger
+ * there are none.
+ */
+@Service
+public class AccountSummaryReconciler {
+
+   private static final Logger log = LoggerFactory.getLogger(AccountSummaryReconciler.class);
+
+   private final TransactionRepository transactionRepository;
+   private final AccountSummaryRepository accountSummaryRepository;
+   private final TransactionTemplate transactionTemplate;
+   private final Counter driftCounter;
+
+   @Autowired
+   public AccountSummaryReconciler(TransactionRepository transactionRepository, AccountSummaryRepository accountSummaryRepository,
+                                   PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+      this.transactionRepository = transactionRepository;
+      this.accountSummaryRepository = accountSummaryRepository;
+      this.transactionTemplate = new TransactionTemplate(transactionManager);
+      this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+      this.driftCounter = Counter.builder("ledger.summary.drift")
+         .description("Account summaries whose totals did not match their transactions")
+         .register(meterRegistry);
+   }
+
+   /**
+    * Compares every account summary with its transactions and corrects the ones that drifted.
+    *
+    * @return The number of summaries corrected.
+    */
+   @Scheduled(fixedDelayString = "${app.ledger.reconcile-interval-ms:3600000}",
+      initialDelayString = "${app.ledger.reconcile-interval-ms:3600000}")
+   public int reconcile() {
+      Map<UUID, LedgerTotals> expected = byUser(transactionRepository.sumTotalsByUser());
+      Map<UUID, LedgerTotals> stored = byUser(accountSummaryRepository.findAllTotals());
+
+      // Compared outside a snapshot, so a transaction landing between the two queries can look like drift;
+      // each suspect is checked again before anything is written
+      Set<UUID> suspects = new HashSet<>();
+      expected.forEach((userId, totals) -> {
+         if (!matches(totals, stored.get(userId))) {
+            suspects.add(userId);
+         }
+      });
+      stored.forEach((userId, totals) -> {
+         if (!expected.containsKey(userId) && !isZero(totals)) {
+            suspects.add(userId);
+         }
+      });
+
+      int corrected = 0;
+      for (UUID userId : suspects) {
+         try {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> correct(userId)))) {
+               corrected++;
+            }
+         } catch (ConcurrencyFailureException e) {
+            log.debug("Account summary of user {} changed while reconciling, checking again next run", userId);
+         }
+      }
+      log.info("Reconciled {} account summaries, corrected {}", expected.size(), corrected);
+      return corrected;
+   }
+
+   private boolean correct(UUID userId) {
+      Optional<LedgerTotals> expected = transactionRepository.sumTotalsForUser(userId);
+      BigDecimal income = expected.map(LedgerTotals::getIncome).orElse(BigDecimal.ZERO);
+      BigDecimal expenses = expected.map(LedgerTotals::getExpenses).orElse(BigDecimal.ZERO);
+
+      Optional<LedgerTotals> stored = accountSummaryRepository.findTotalsByUserId(userId);
+      if (stored.isPresent() ? matches(stored.get(), income, expenses) : income.signum() == 0 && expenses.signum() == 0) {
+         return false;
+      }
+
+      log.warn("Account summary of user {} drifted: stored income {}, expenses {} and balance {}; transactions sum to {} and {}",
+         userId, stored.map(LedgerTotals::getIncome).orElse(null), stored.map(LedgerTotals::getExpenses).orElse(null),
+         stored.map(LedgerTotals::getBalance).orElse(null), income, expenses);
+      driftCounter.increment();
+      LocalDateTime now = LocalDateTime.now();
+      if (stored.isEmpty()) {
+         accountSummaryRepository.insertIfAbsent(UUID.randomUUID(), userId, now);
+      }
+      accountSummaryRepository.overwriteTotals(userId, income, expenses, now);
+      return true;
+   }
+
+   private static Map<UUID, LedgerTotals> byUser(List<LedgerTotals> totals) {
+      return totals.stream().collect(Collectors.toMap(LedgerTotals::getUserId, Function.identity()));
+   }
+
+   private static boolean matches(LedgerTotals expected, LedgerTotals stored) {
+      return stored != null && matches(stored, expected.getIncome(), expected.getExpenses());
+   }
+
+   private static boolean matches(LedgerTotals stored, BigDecimal income, BigDecimal expenses) {
+      return stored.getIncome().compareTo(income) == 0
+         && stored.getExpenses().compareTo(expenses) == 0
+         && stored.getBalance().compareTo(income.subtract(expenses)) == 0;
+   }
+
+   private static boolean isZero(LedgerTotals totals) {
+      return totals.getIncome().signum() == 0 && totals.getExpenses().signum() == 0 && totals.getBalance().signum() == 0;
+   }
+}
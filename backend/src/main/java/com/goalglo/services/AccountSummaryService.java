@@ -2,14 +2,19 @@ package com.goalglo.services;
 
 import com.goalglo.dto.AccountSummaryDTO;
 import com.goalglo.entities.AccountSummary;
+import com.goalglo.entities.Transaction;
 import com.goalglo.entities.User;
 import com.goalglo.repositories.AccountSummaryRepository;
 import com.goalglo.tokens.JwtUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Service
 public class AccountSummaryService {
@@ -32,24 +37,41 @@ public class AccountSummaryService {
   public AccountSummaryDTO getAccountSummary(Authentication authentication) {
     User currentUser = jwtUtils.getCurrentUser(authentication).orElseThrow(() -> new RuntimeException("User not found"));
 
-    AccountSummary summary = accountSummaryRepository.findByUserId(currentUser.getId())
-       .orElseGet(() -> createDefaultAccountSummary(currentUser));
-    return convertToDTO(summary);
+    // The ledger keeps the row current, so this is a single indexed read. A user without
+    // transactions has no row yet and all-zero totals.
+    return accountSummaryRepository.findByUserId(currentUser.getId())
+       .map(this::convertToDTO)
+       .orElseGet(this::emptySummary);
   }
 
   /**
-   * Creates a default account summary for the given user.
+   * Adds a newly inserted transaction to its user's totals. Must run in the transaction that inserted it,
+   * so the transaction and the totals commit or roll back together.
    *
-   * @param user The user for whom the account summary is created.
-   * @return The created AccountSummary instance.
+   * @param transaction The transaction that was inserted.
    */
-  private AccountSummary createDefaultAccountSummary(User user) {
-    AccountSummary summary = new AccountSummary();
-    summary.setUser(user);
-    summary.setTotalBalance(BigDecimal.ZERO);
-    summary.setTotalIncome(BigDecimal.ZERO);
-    summary.setTotalExpenses(BigDecimal.ZERO);
-    return accountSummaryRepository.save(summary);
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void applyTransaction(Transaction transaction) {
+    BigDecimal income = Transaction.TYPE_INCOME.equals(transaction.getType()) ? transaction.getAmount() : BigDecimal.ZERO;
+    BigDecimal expenses = Transaction.TYPE_EXPENSE.equals(transaction.getType()) ? transaction.getAmount() : BigDecimal.ZERO;
+    if (income.signum() == 0 && expenses.signum() == 0) {
+      return;
+    }
+
+    UUID userId = transaction.getUser().getId();
+    LocalDateTime now = LocalDateTime.now();
+    if (accountSummaryRepository.applyDelta(userId, income, expenses, now) == 0) {
+      accountSummaryRepository.insertIfAbsent(UUID.randomUUID(), userId, now);
+      accountSummaryRepository.applyDelta(userId, income, expenses, now);
+    }
+  }
+
+  private AccountSummaryDTO emptySummary() {
+    AccountSummaryDTO dto = new AccountSummaryDTO();
+    dto.setTotalBalance(BigDecimal.ZERO);
+    dto.setTotalIncome(BigDecimal.ZERO);
+    dto.setTotalExpenses(BigDecimal.ZERO);
+    return dto;
   }
 
   /**
@@ -1,9 +1,10 @@
 package com.goalglo.services;
 
-import com.goalglo.aws.AwsSesService;
 import com.goalglo.common.ResourceNotFoundException;
+import com.goalglo.common.SlotUnavailableException;
 import com.goalglo.config.SecretConfig;
 import com.goalglo.dto.AppointmentDTO;
+import com.goalglo.dto.CursorPageDTO;
 import com.goalglo.entities.Appointment;
 import com.goalglo.entities.ServiceEntity;
 import com.goalglo.entities.TimeSlot;
@@ -11,15 +12,17 @@ import com.goalglo.entities.User;
 import com.goalglo.repositories.AppointmentRepository;
 import com.goalglo.repositories.ServiceRepository;
 import com.goalglo.tokens.JwtUtils;
+import com.goalglo.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class AppointmentService {
@@ -29,20 +32,20 @@ public class AppointmentService {
    private final UserService userService;
    private final ServiceRepository serviceRepository;
    private final JwtUtils jwtUtils;
-   private final AwsSesService awsSesService;
+   private final EmailOutboxService emailOutboxService;
    private final EmailTemplateService emailTemplateService;
    private final SecretConfig secretConfig;
 
 
    @Autowired
    public AppointmentService(AppointmentRepository appointmentRepository, TimeSlotService timeSlotService,
-                             UserService userService, ServiceRepository serviceRepository, JwtUtils jwtUtils, AwsSesService awsSesService, SecretConfig secretConfig, EmailTemplateService emailTemplateService) {
+                             UserService userService, ServiceRepository serviceRepository, JwtUtils jwtUtils, EmailOutboxService emailOutboxService, SecretConfig secretConfig, EmailTemplateService emailTemplateService) {
       this.appointmentRepository = appointmentRepository;
       this.timeSlotService = timeSlotService;
       this.userService = userService;
       this.serviceRepository = serviceRepository;
       this.jwtUtils = jwtUtils;
-      this.awsSesService = awsSesService;
+      this.emailOutboxService = emailOutboxService;
       this.secretConfig = secretConfig;
       this.emailTemplateService = emailTemplateService;
 
@@ -56,17 +59,15 @@ public class AppointmentService {
     * @param timeSlotId     The ID of the time slot to book.
     * @param authentication The authentication object containing the logged-in user's details.
     * @return The booked appointment details.
-    * @throws IllegalStateException If the time slot is already booked.
+    * @throws SlotUnavailableException If the time slot is already booked.
     */
+   @Transactional
    public AppointmentDTO bookAppointment(AppointmentDTO appointmentDTO, UUID timeSlotId,
                                          Authentication authentication) {
-      // Check if the time slot is available
-      TimeSlot timeSlot = timeSlotService.findTimeSlotById(timeSlotId)
-         .orElseThrow(() -> new ResourceNotFoundException("TimeSlot not found"));
+      // Claim the slot first: the conditional update lets exactly one concurrent booking through
+      // and everything below rolls back with it if the booking fails
+      TimeSlot timeSlot = timeSlotService.claimSlot(timeSlotId);
 
-      if (timeSlot.isBooked()) {
-         throw new IllegalStateException("Time slot is already booked");
-      }
       String username = (authentication != null) ? authentication.getName() : null;
 
       User user;
@@ -92,11 +93,10 @@ public class AppointmentService {
       }
       // Save the appointment
       appointment = appointmentRepository.save(appointment);
+      timeSlot.setAppointment(appointment);
 
       sendBookingConfirmationEmail(user, appointment);
 
-      timeSlotService.bookSlot(timeSlotId, appointment);
-
       return new AppointmentDTO(appointment);
    }
 
@@ -112,16 +112,15 @@ public class AppointmentService {
       String companyEmail = secretConfig.getContact().getCompanyEmail();
       String companyPhoneNumber = secretConfig.getContact().getCompanyPhoneNumber();
 
-      String subject = emailTemplateService.getSubjectByTemplateName(bookingConfirmationEmailTemplate);
-      String body = emailTemplateService.getBodyByTemplateName(bookingConfirmationEmailTemplate)
-         .replace("{service_name}", appointment.getService().getName())
-         .replace("{booking_date}", appointment.getStartTime().toLocalDate().toString())
-         .replace("{booking_time}", appointment.getStartTime().toLocalTime().toString())
-         .replace("{link_to_registration}", domain + "/register")
-         .replace("{company_email}", companyEmail)
-         .replace("{company_phone_number}", companyPhoneNumber);
+      EmailTemplateService.RenderedEmail email = emailTemplateService.render(bookingConfirmationEmailTemplate, Map.of(
+         "service_name", appointment.getService().getName(),
+         "booking_date", appointment.getStartTime().toLocalDate().toString(),
+         "booking_time", appointment.getStartTime().toLocalTime().toString(),
+         "link_to_registration", domain + "/register",
+         "company_email", companyEmail,
+         "company_phone_number", companyPhoneNumber));
 
-      awsSesService.sendEmail(user.getEmail(), subject, body);
+      emailOutboxService.enqueue(user.getEmail(), email.subject(), email.body());
    }
 
    /**
@@ -132,7 +131,7 @@ public class AppointmentService {
     *         if not.
     */
    public Optional<AppointmentDTO> findAppointmentById(UUID id) {
-      return appointmentRepository.findById(id).map(AppointmentDTO::new);
+      return appointmentRepository.findDTOById(id);
    }
 
    /**
@@ -143,9 +142,7 @@ public class AppointmentService {
     */
    public List<AppointmentDTO> findUserAppointments(Authentication authentication) {
 
-      return appointmentRepository.findByUserId(getCurrentUser(authentication).getId()).stream()
-         .map(this::convertToDTO)
-         .collect(Collectors.toList());
+      return appointmentRepository.findDTOsByUserId(getCurrentUser(authentication).getId());
    }
 
    /**
@@ -185,14 +182,28 @@ public class AppointmentService {
    }
 
    /**
-    * Retrieves all appointments.
+    * Retrieves one page of appointments for the admin listing, newest first.
     *
-    * @return A list of all appointments.
+    * @param status    Only include appointments with this status, if not null.
+    * @param serviceId Only include appointments for this service, if not null.
+    * @param from      Only include appointments starting at or after this time, if not null.
+    * @param to        Only include appointments starting before this time, if not null.
+    * @param cursor    The cursor returned with the previous page, or null for the first page.
+    * @param size      The page size.
+    * @return The page of appointments and the cursor for the next one.
+    * @throws IllegalArgumentException If the cursor is malformed.
     */
-   public List<AppointmentDTO> findAllAppointments() {
-      return appointmentRepository.findAllWithDetails().stream()
-         .map(this::convertToDTO)
-         .collect(Collectors.toList());
+   public CursorPageDTO<AppointmentDTO> findAppointmentsPage(String status, UUID serviceId, LocalDateTime from, LocalDateTime to,
+                                                            String cursor, int size) {
+      KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+      // Fetch one extra row to learn whether another page exists
+      List<AppointmentDTO> rows = appointmentRepository.findPage(status, serviceId, from, to, after, size + 1);
+      if (rows.size() <= size) {
+         return new CursorPageDTO<>(rows, null);
+      }
+      List<AppointmentDTO> page = rows.subList(0, size);
+      AppointmentDTO last = page.get(size - 1);
+      return new CursorPageDTO<>(page, new KeysetCursor(last.getStartTime(), last.getId()).encode());
    }
 
    /**
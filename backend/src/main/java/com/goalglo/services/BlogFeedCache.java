@@ -0,0 +1,131 @@
+package com.goalglo.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.goalglo.config.SecretConfig;
+import com.goalglo.dto.BlogPostDTO;
+import com.goalglo.entities.BlogPost;
+import com.goalglo.repositories.BlogPostRepository;
+import com.goalglo.util.SerializedResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read model for the public blog: the published feed, the latest posts and individual published posts, each
+ * kept as a pre-serialised JSON body with its ETag and Last-Modified date.
+ * Feeds are evicted whenever any post changes; a post entry only when that post changes. Drafts are served
+ * but never cached.
+ */
+@Service
+public class BlogFeedCache {
+
+   private static final String PUBLISHED_FEED = "published";
+   private static final String LATEST_FEED = "latest";
+   private static final int LATEST_FEED_SIZE = 10;
+
+   private final BlogPostRepository blogPostRepository;
+   private final ObjectMapper objectMapper;
+   private final Cache<String, SerializedResponse> entries;
+   private volatile Instant lastChange = Instant.EPOCH;
+
+   @Autowired
+   public BlogFeedCache(BlogPostRepository blogPostRepository, ObjectMapper objectMapper, SecretConfig secretConfig) {
+      this.blogPostRepository = blogPostRepository;
+      this.objectMapper = objectMapper;
+      this.entries = Caffeine.newBuilder()
+         .expireAfterWrite(secretConfig.getBlogFeed().getCacheTtl())
+         .build();
+   }
+
+   /**
+    * Returns all published blog posts.
+    *
+    * @return The serialised feed.
+    */
+   public SerializedResponse getPublishedFeed() {
+      return entries.get(PUBLISHED_FEED, key -> serialiseFeed(blogPostRepository.findByPublishedTrue()));
+   }
+
+   /**
+    * Returns summaries of the ten most recent published blog posts, for the homepage.
+    *
+    * @return The serialised feed.
+    */
+   public SerializedResponse getLatestFeed() {
+      return entries.get(LATEST_FEED, key -> serialise(blogPostRepository.findLatestSummaries(PageRequest.of(0, LATEST_FEED_SIZE))));
+   }
+
+   /**
+    * Returns a single blog post. Only published posts are cached; drafts and missing posts are read again on
+    * every call.
+    *
+    * @param id The UUID of the blog post.
+    * @return The serialised post, or an empty Optional if it does not exist.
+    */
+   public Optional<PostResponse> getPost(UUID id) {
+      PostResponse[] draft = new PostResponse[1];
+      SerializedResponse published = entries.get(id.toString(), key -> blogPostRepository.findById(id)
+         .map(post -> {
+            SerializedResponse response = SerializedResponse.of(objectMapper, new BlogPostDTO(post), lastModified(post));
+            if (post.isPublished()) {
+               return response;
+            }
+            draft[0] = new PostResponse(response, false);
+            return null;
+         })
+         .orElse(null));
+      return published != null ? Optional.of(new PostResponse(published, true)) : Optional.ofNullable(draft[0]);
+   }
+
+   /**
+    * Evicts the feeds and the changed post once the change has committed.
+    *
+    * @param event The change published by {@link BlogPostService}.
+    */
+   @TransactionalEventListener(fallbackExecution = true)
+   public void onBlogPostChanged(BlogPostChangedEvent event) {
+      lastChange = Instant.now();
+      entries.invalidateAll(List.of(PUBLISHED_FEED, LATEST_FEED, event.blogPostId().toString()));
+   }
+
+   private SerializedResponse serialiseFeed(List<BlogPost> posts) {
+      return serialise(posts.stream().map(BlogPostDTO::new).toList());
+   }
+
+   /**
+    * A feed is stamped with the newest post's updatedAt, or with the last change seen here if that is later,
+    * because deleting a post must still move Last-Modified forward. Rebuilding an unchanged feed keeps its
+    * date.
+    */
+   private SerializedResponse serialise(List<?> feed) {
+      Instant lastUpdated = blogPostRepository.findLastUpdatedAt()
+         .map(updatedAt -> updatedAt.atZone(ZoneId.systemDefault()).toInstant())
+         .orElse(Instant.EPOCH);
+      Instant changed = lastChange;
+      return SerializedResponse.of(objectMapper, feed, lastUpdated.isAfter(changed) ? lastUpdated : changed);
+   }
+
+   private Instant lastModified(BlogPost post) {
+      return post.getUpdatedAt() != null
+         ? post.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant()
+         : Instant.now();
+   }
+
+   /**
+    * A serialised blog post and whether it is published, which decides whether shared caches may keep it.
+    *
+    * @param response  The serialised post.
+    * @param published Whether the post is published.
+    */
+   public record PostResponse(SerializedResponse response, boolean published) {
+   }
+}
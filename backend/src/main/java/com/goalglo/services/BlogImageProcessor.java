@@ -0,0 +1,409 @@
+package com.goalglo.services;
+
+import com.goalglo.aws.AwsS3Service;
+import com.goalglo.aws.AwsS3Service.PendingUpload;
+import com.goalglo.config.SecretConfig;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Turns uploaded blog images into resized JPEG variants and uploads them to S3.
+ * <p>
+ * The upload is spooled to a temporary file and only its header is read on the request thread, which is
+ * enough to choose the variant widths and their URLs. A worker from a bounded pool then decodes the image
+ * once, scales it down step by step to each of {@code app.blog-images.widths} no larger than the original,
+ * and encodes every variant as a JPEG without the original's metadata, so camera details and locations are
+ * not published. Formats that cannot be re-encoded without loss, such as animated GIFs, are uploaded as they are.
+ */
+@Service
+public class BlogImageProcessor {
+
+   private static final Logger log = LoggerFactory.getLogger(BlogImageProcessor.class);
+
+   private static final Set<String> RESIZED_FORMATS = Set.of("jpeg", "png", "bmp");
+   private static final String JPEG_CONTENT_TYPE = "image/jpeg";
+   private static final int START_OF_IMAGE = 0xFFD8;
+   private static final int START_OF_SCAN = 0xFFDA;
+   private static final int APP1_MARKER = 0xFFE1;
+   private static final int ORIENTATION_TAG = 0x0112;
+
+   private final AwsS3Service awsS3Service;
+   private final SecretConfig.BlogImages config;
+   private final ThreadPoolExecutor executor;
+
+   @Autowired
+   public BlogImageProcessor(AwsS3Service awsS3Service, SecretConfig secretConfig) {
+      this.awsS3Service = awsS3Service;
+      this.config = secretConfig.getBlogImages();
+      // When every worker is busy and the queue is full, the request thread resizes its own image, which
+      // slows uploads down instead of letting decoded images pile up in memory
+      this.executor = new ThreadPoolExecutor(config.getWorkers(), config.getWorkers(), 0L, TimeUnit.MILLISECONDS,
+         new ArrayBlockingQueue<>(config.getQueueCapacity()), new ThreadPoolExecutor.CallerRunsPolicy());
+   }
+
+   /**
+    * Starts processing and uploading an image, and returns the URLs it will be available at straight away.
+    *
+    * @param image the uploaded image
+    * @return the URL of the largest variant, the srcset of all variants, and the completion of the uploads
+    * @throws IOException              if the image cannot be read
+    * @throws IllegalArgumentException if the image has more than {@code app.blog-images.max-pixels} pixels
+    */
+   public ProcessedImage process(MultipartFile image) throws IOException {
+      Path spooled = Files.createTempFile("blog-image-", ".upload");
+      try {
+         image.transferTo(spooled);
+         Optional<SourceImage> source = inspect(spooled);
+         if (source.isEmpty()) {
+            PendingUpload upload = awsS3Service.uploadFile(spooled, image.getOriginalFilename(), image.getContentType());
+            return new ProcessedImage(upload.url(), null, upload.completion());
+         }
+
+         List<Integer> widths = variantWidths(source.get().displayWidth());
+         String baseKey = awsS3Service.generateFileKey(stripExtension(image.getOriginalFilename()));
+         Map<Integer, String> keys = new LinkedHashMap<>();
+         widths.forEach(width -> keys.put(width, baseKey + "-" + width + "w.jpg"));
+
+         CompletableFuture<Void> completion = CompletableFuture
+            .supplyAsync(() -> encodeVariants(spooled, source.get(), widths), executor)
+            .thenCompose(variants -> CompletableFuture.allOf(variants.entrySet().stream()
+               .map(variant -> awsS3Service.uploadBytes(keys.get(variant.getKey()), JPEG_CONTENT_TYPE, variant.getValue()))
+               .toArray(CompletableFuture[]::new)));
+
+         String srcset = keys.entrySet().stream()
+            .map(entry -> awsS3Service.generatePublicUrl(entry.getValue()) + " " + entry.getKey() + "w")
+            .collect(Collectors.joining(", "));
+         String largest = awsS3Service.generatePublicUrl(keys.get(widths.get(widths.size() - 1)));
+         return new ProcessedImage(largest, srcset, completion);
+      } catch (IOException | RuntimeException e) {
+         Files.deleteIfExists(spooled);
+         throw e;
+      }
+   }
+
+   /**
+    * Lists every URL an image was stored under, so all of its variants can be deleted together.
+    *
+    * @param imageUrl    the URL of the image
+    * @param imageSrcset the srcset of its variants, or null if it has none
+    * @return the URLs of the image and its variants
+    */
+   public static List<String> imageUrls(String imageUrl, String imageSrcset) {
+      Set<String> urls = new TreeSet<>();
+      if (imageUrl != null) {
+         urls.add(imageUrl);
+      }
+      if (imageSrcset != null) {
+         for (String candidate : imageSrcset.split(",")) {
+            urls.add(candidate.trim().split("\\s+")[0]);
+         }
+      }
+      return new ArrayList<>(urls);
+   }
+
+   @PreDestroy
+   public void shutdown() throws InterruptedException {
+      executor.shutdown();
+      if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+         executor.shutdownNow();
+      }
+   }
+
+   /**
+    * Reads the size and orientation of an image from its header without decoding it.
+    *
+    * @return the image, or an empty Optional if it is not in a format that is resized
+    */
+   private Optional<SourceImage> inspect(Path file) throws IOException {
+      try (ImageInputStream in = new FileImageInputStream(file.toFile())) {
+         Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+         if (!readers.hasNext()) {
+            return Optional.empty();
+         }
+         ImageReader reader = readers.next();
+         try {
+            String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+            if (!RESIZED_FORMATS.contains(format)) {
+               return Optional.empty();
+            }
+            reader.setInput(in, true, true);
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+            if ((long) width * height > config.getMaxPixels()) {
+               throw new IllegalArgumentException("Image is larger than " + config.getMaxPixels() + " pixels");
+            }
+            int orientation = "jpeg".equals(format) ? readOrientation(file) : 1;
+            return Optional.of(new SourceImage(width, height, orientation));
+         } finally {
+            reader.dispose();
+         }
+      }
+   }
+
+   /**
+    * Returns the configured widths smaller than the image, plus the image's own width capped at the largest
+    * configured width. Images are never scaled up.
+    */
+   List<Integer> variantWidths(int sourceWidth) {
+      int largest = Math.min(sourceWidth, config.getWidths().stream().mapToInt(Integer::intValue).max().orElse(sourceWidth));
+      TreeSet<Integer> widths = new TreeSet<>();
+      config.getWidths().stream().filter(width -> width < largest).forEach(widths::add);
+      widths.add(largest);
+      return new ArrayList<>(widths);
+   }
+
+   private Map<Integer, byte[]> encodeVariants(Path file, SourceImage source, List<Integer> widths) {
+      try {
+         BufferedImage image = orient(decode(file, source, widths.get(widths.size() - 1)), source.orientation());
+         Map<Integer, byte[]> variants = new LinkedHashMap<>();
+         // Largest first, so each variant is scaled down from the previous one rather than from the original
+         for (int i = widths.size() - 1; i >= 0; i--) {
+            image = scale(image, widths.get(i));
+            variants.put(widths.get(i), encode(image));
+         }
+         return variants;
+      } catch (IOException e) {
+         log.error("Could not process blog image", e);
+         throw new UncheckedIOException(e);
+      } finally {
+         deleteTempFile(file);
+      }
+   }
+
+   /**
+    * Decodes the image, skipping rows and columns while it stays at least twice the largest variant,
+    * so a large photo never has to be held in memory at full resolution.
+    */
+   private BufferedImage decode(Path file, SourceImage source, int largestWidth) throws IOException {
+      try (ImageInputStream in = new FileImageInputStream(file.toFile())) {
+         ImageReader reader = ImageIO.getImageReaders(in).next();
+         try {
+            reader.setInput(in, true, true);
+            ImageReadParam param = reader.getDefaultReadParam();
+            int subsampling = Math.max(1, source.displayWidth() / (largestWidth * 2));
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            return reader.read(0, param);
+         } finally {
+            reader.dispose();
+         }
+      }
+   }
+
+   private byte[] encode(BufferedImage image) throws IOException {
+      ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(config.getQuality());
+      param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (ImageOutputStream ios = new MemoryCacheImageOutputStream(out)) {
+         writer.setOutput(ios);
+         // No metadata is passed on, so EXIF, XMP and comments of the original are dropped
+         writer.write(null, new IIOImage(image, null, null), param);
+      } finally {
+         writer.dispose();
+      }
+      return out.toByteArray();
+   }
+
+   /**
+    * Applies an EXIF orientation and flattens transparency onto white, since JPEG has no alpha channel.
+    * Only the rotations cameras write are applied; mirrored orientations are left as stored.
+    */
+   static BufferedImage orient(BufferedImage image, int orientation) {
+      boolean swap = orientation == 6 || orientation == 8;
+      int width = swap ? image.getHeight() : image.getWidth();
+      int height = swap ? image.getWidth() : image.getHeight();
+      BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      Graphics2D graphics = target.createGraphics();
+      try {
+         graphics.setColor(Color.WHITE);
+         graphics.fillRect(0, 0, width, height);
+         switch (orientation) {
+            case 3 -> {
+               graphics.translate(width, height);
+               graphics.rotate(Math.PI);
+            }
+            case 6 -> {
+               graphics.translate(width, 0);
+               graphics.rotate(Math.PI / 2);
+            }
+            case 8 -> {
+               graphics.translate(0, height);
+               graphics.rotate(-Math.PI / 2);
+            }
+            default -> {
+            }
+         }
+         graphics.drawImage(image, 0, 0, null);
+      } finally {
+         graphics.dispose();
+      }
+      return target;
+   }
+
+   /**
+    * Scales an image down to a width by halving it with bilinear filtering until one more halving would
+    * overshoot, then scaling the rest of the way. A single bilinear step over a large ratio would alias.
+    */
+   static BufferedImage scale(BufferedImage image, int width) {
+      BufferedImage current = image;
+      while (current.getWidth() / 2 >= width) {
+         current = draw(current, current.getWidth() / 2, Math.max(1, current.getHeight() / 2));
+      }
+      if (current.getWidth() != width) {
+         int height = Math.max(1, Math.round((float) current.getHeight() * width / current.getWidth()));
+         current = draw(current, width, height);
+      }
+      return current;
+   }
+
+   private static BufferedImage draw(BufferedImage source, int width, int height) {
+      BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      Graphics2D graphics = target.createGraphics();
+      try {
+         graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+         graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+         graphics.drawImage(source, 0, 0, width, height, null);
+      } finally {
+         graphics.dispose();
+      }
+      return target;
+   }
+
+   /**
+    * Finds the EXIF orientation by walking the JPEG's segments up to the image data. ImageIO's own JPEG
+    * metadata cannot be used, as it rejects files with an EXIF segment ahead of the JFIF one.
+    */
+   private static int readOrientation(Path file) throws IOException {
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+         if (in.readUnsignedShort() != START_OF_IMAGE) {
+            return 1;
+         }
+         while (true) {
+            int marker = in.readUnsignedShort();
+            if ((marker & 0xFF00) != 0xFF00 || marker == START_OF_SCAN) {
+               return 1;
+            }
+            int length = in.readUnsignedShort() - 2;
+            if (marker == APP1_MARKER) {
+               byte[] segment = new byte[length];
+               in.readFully(segment);
+               int orientation = parseExifOrientation(segment);
+               if (orientation != 0) {
+                  return orientation;
+               }
+            } else {
+               in.skipNBytes(length);
+            }
+         }
+      } catch (EOFException e) {
+         return 1;
+      }
+   }
+
+   /**
+    * Reads the orientation tag from the first IFD of an EXIF APP1 segment.
+    *
+    * @return the orientation, or 0 if the segment is not EXIF or has no orientation
+    */
+   static int parseExifOrientation(byte[] app1) {
+      if (app1.length < 14 || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f') {
+         return 0;
+      }
+      // The TIFF header follows "Exif\0\0"; offsets are relative to it
+      ByteBuffer tiff = ByteBuffer.wrap(app1, 6, app1.length - 6).slice();
+      tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+      int ifd = tiff.getInt(4);
+      if (ifd < 8 || ifd + 2 > tiff.limit()) {
+         return 0;
+      }
+      int entries = tiff.getShort(ifd) & 0xFFFF;
+      for (int i = 0; i < entries; i++) {
+         int entry = ifd + 2 + i * 12;
+         if (entry + 12 > tiff.limit()) {
+            break;
+         }
+         if ((tiff.getShort(entry) & 0xFFFF) == ORIENTATION_TAG) {
+            return tiff.getShort(entry + 8) & 0xFFFF;
+         }
+      }
+      return 0;
+   }
+
+   private static String stripExtension(String fileName) {
+      if (fileName == null) {
+         return null;
+      }
+      int dot = fileName.lastIndexOf('.');
+      return dot > 0 ? fileName.substring(0, dot) : fileName;
+   }
+
+   private static void deleteTempFile(Path path) {
+      try {
+         Files.deleteIfExists(path);
+      } catch (IOException e) {
+         log.warn("Could not delete temp file {}", path, e);
+      }
+   }
+
+   private record SourceImage(int width, int height, int orientation) {
+
+      int displayWidth() {
+         return orientation == 6 || orientation == 8 ? height : width;
+      }
+   }
+
+   /**
+    * An image whose variants have been named but may not have been uploaded yet.
+    *
+    * @param url        the URL of the largest variant, or of the original if it was not resized
+    * @param srcset     the URLs and widths of every variant, or null if the image was not resized
+    * @param completion completes when every variant is stored, or exceptionally if processing or an upload failed
+    */
+   public record ProcessedImage(String url, String srcset, CompletableFuture<Void> completion) {
+   }
+}
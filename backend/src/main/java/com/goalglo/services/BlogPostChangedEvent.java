@@ -0,0 +1,12 @@
+package com.goalglo.services;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link BlogPostService} whenever a blog post is created, updated or deleted.
+ *
+ * @param blogPostId The UUID of the changed blog post.
+ * @param slug       The slug of the post after the change, or null if the post was deleted.
+ */
+public record BlogPostChangedEvent(UUID blogPostId, String slug) {
+}
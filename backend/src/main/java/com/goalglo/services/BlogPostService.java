@@ -1,16 +1,27 @@
 package com.goalglo.services;
 
 import com.goalglo.aws.AwsS3Service;
+import com.goalglo.aws.AwsS3Service.PresignedUpload;
 import com.goalglo.config.SecretConfig;
 import com.goalglo.dto.BlogPostDTO;
+import com.goalglo.dto.BlogPostSummaryDTO;
+import com.goalglo.dto.CursorPageDTO;
+import com.goalglo.dto.ImageUploadDTO;
+import com.goalglo.dto.ImageUploadRequestDTO;
 import com.goalglo.entities.BlogPost;
 import com.goalglo.entities.User;
 import com.goalglo.repositories.BlogPostRepository;
+import com.goalglo.services.BlogImageProcessor.ProcessedImage;
 import com.goalglo.tokens.JwtUtils;
+import com.goalglo.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 
 import java.io.IOException;
 import java.util.List;
@@ -27,7 +38,9 @@ public class BlogPostService {
    private final BlogPostRepository blogPostRepository;
    private final SecretConfig secretConfig;
    private final AwsS3Service awsS3Service;
+   private final BlogImageProcessor blogImageProcessor;
    private final JwtUtils jwtUtils;
+   private final ApplicationEventPublisher eventPublisher;
 
    /**
     * Constructs a new BlogPostService with the specified BlogPostRepository.
@@ -36,11 +49,13 @@ public class BlogPostService {
     */
    @Autowired
    public BlogPostService(BlogPostRepository blogPostRepository, SecretConfig secretConfig, AwsS3Service awsS3Service,
-                          JwtUtils jwtUtils) {
+                          BlogImageProcessor blogImageProcessor, JwtUtils jwtUtils, ApplicationEventPublisher eventPublisher) {
       this.blogPostRepository = blogPostRepository;
       this.secretConfig = secretConfig;
       this.awsS3Service = awsS3Service;
+      this.blogImageProcessor = blogImageProcessor;
       this.jwtUtils = jwtUtils;
+      this.eventPublisher = eventPublisher;
 
    }
 
@@ -63,11 +78,17 @@ public class BlogPostService {
       blogPost.setPublished(getCurrentUser(authentication).getRoles().stream()
          .anyMatch(role -> secretConfig.getRoles().getSecuredRole().equals(role.getName())));
 
+      ProcessedImage upload = null;
       if (image != null && !image.isEmpty()) {
-         blogPost.setImageUrl(awsS3Service.uploadFile(image));
+         upload = blogImageProcessor.process(image);
+         blogPost.setImageUrl(upload.url());
+         blogPost.setImageSrcset(upload.srcset());
       }
 
-      return new BlogPostDTO(blogPostRepository.save(blogPost));
+      BlogPost savedBlogPost = saveWithImage(blogPost, upload);
+      publishChange(savedBlogPost.getId(), savedBlogPost.getSlug());
+      finishImageUpload(savedBlogPost, upload, null, null);
+      return new BlogPostDTO(savedBlogPost);
    }
 
 
@@ -93,32 +114,81 @@ public class BlogPostService {
     * @throws IOException if the image file cannot be read
     */
    public BlogPostDTO updateBlogPost(UUID id, BlogPostDTO blogPostDTO, MultipartFile image, Authentication authentication) throws IOException {
-      BlogPost existingBlogPost = blogPostRepository.findById(id)
-         .orElseThrow(() -> new RuntimeException("Blog post not found"));
-
-      User currentUser = getCurrentUser(authentication);
-
-      // Check if the current user is the author or has admin rights
-      if (!existingBlogPost.getAuthor().getId().equals(currentUser.getId()) &&
-         currentUser.getRoles().stream().noneMatch(role -> secretConfig.getRoles().getSecuredRole().equals(role.getName()))) {
-         throw new RuntimeException("You don't have permission to edit this blog post");
-      }
+      BlogPost existingBlogPost = findEditableBlogPost(id, authentication);
 
       existingBlogPost.setTitle(blogPostDTO.getTitle());
       existingBlogPost.setContent(blogPostDTO.getContent());
       existingBlogPost.setPublished(blogPostDTO.isPublished());
 
+      ProcessedImage upload = null;
+      String replacedImageUrl = existingBlogPost.getImageUrl();
+      String replacedImageSrcset = existingBlogPost.getImageSrcset();
       if (image != null && !image.isEmpty()) {
-         // Delete old image if it exists
-         if (existingBlogPost.getImageUrl() != null) {
-            awsS3Service.deleteS3Object(existingBlogPost.getImageUrl());
-         }
-         // Upload new image
-         String newImageUrl = awsS3Service.uploadFile(image);
-         existingBlogPost.setImageUrl(newImageUrl);
+         // Processed before anything is queued for deletion, so a rejected image leaves the current one in place
+         upload = blogImageProcessor.process(image);
+         existingBlogPost.setImageUrl(upload.url());
+         existingBlogPost.setImageSrcset(upload.srcset());
       }
 
-      BlogPost updatedBlogPost = blogPostRepository.save(existingBlogPost);
+      BlogPost updatedBlogPost = saveWithImage(existingBlogPost, upload);
+      publishChange(id, updatedBlogPost.getSlug());
+      finishImageUpload(updatedBlogPost, upload, replacedImageUrl, replacedImageSrcset);
+      return new BlogPostDTO(updatedBlogPost);
+   }
+
+   /**
+    * Issues a pre-signed URL for uploading a blog post's image straight to S3, so the image bytes never pass
+    * through the backend. The URL only accepts the declared content type and size.
+    *
+    * @param id             the UUID of the blog post the image is for
+    * @param request        the name, content type and size of the image
+    * @param authentication the authentication object containing the current user
+    * @return the URL to PUT the image to and the key to complete the upload with
+    * @throws IllegalArgumentException if the content type is not allowed or the size is out of range
+    */
+   public ImageUploadDTO createImageUpload(UUID id, ImageUploadRequestDTO request, Authentication authentication) {
+      findEditableBlogPost(id, authentication);
+      SecretConfig.BlogImages config = secretConfig.getBlogImages();
+      checkImageUpload(request.getContentType(), request.getContentLength());
+
+      String key = awsS3Service.generateFileKey(id, request.getFileName());
+      PresignedUpload presigned = awsS3Service.presignUpload(key, request.getContentType(), request.getContentLength(),
+         config.getUploadUrlTtl());
+      return new ImageUploadDTO(key, presigned.url(), presigned.headers(), presigned.expiresAt());
+   }
+
+   /**
+    * Attaches an image uploaded with {@link #createImageUpload} to its blog post, replacing any previous image.
+    *
+    * @param id             the UUID of the blog post
+    * @param key            the key returned by {@link #createImageUpload}
+    * @param authentication the authentication object containing the current user
+    * @return the updated blog post
+    * @throws IllegalArgumentException if the key is not this post's, or no acceptable object was uploaded under it
+    */
+   public BlogPostDTO completeImageUpload(UUID id, String key, Authentication authentication) {
+      BlogPost blogPost = findEditableBlogPost(id, authentication);
+      if (!awsS3Service.isOwnedBy(key, id)) {
+         throw new IllegalArgumentException("Upload does not belong to this blog post");
+      }
+      HeadObjectResponse uploaded = awsS3Service.findObject(key)
+         .orElseThrow(() -> new IllegalArgumentException("Upload not found"));
+      String imageUrl = awsS3Service.generatePublicUrl(key);
+      try {
+         // S3 enforced the signed type and size; checked again in case the object was written some other way
+         checkImageUpload(uploaded.contentType(), uploaded.contentLength());
+      } catch (IllegalArgumentException e) {
+         awsS3Service.scheduleDeletion(imageUrl);
+         throw e;
+      }
+
+      if (!imageUrl.equals(blogPost.getImageUrl())) {
+         scheduleImageDeletion(blogPost);
+         blogPost.setImageUrl(imageUrl);
+         blogPost.setImageSrcset(null);
+      }
+      BlogPost updatedBlogPost = blogPostRepository.save(blogPost);
+      publishChange(id, updatedBlogPost.getSlug());
       return new BlogPostDTO(updatedBlogPost);
    }
 
@@ -130,11 +200,14 @@ public class BlogPostService {
     *         found
     */
    public boolean deleteBlogPost(UUID id) {
-      if (blogPostRepository.existsById(id)) {
-         blogPostRepository.deleteById(id);
-         return true;
+      Optional<BlogPost> blogPost = blogPostRepository.findById(id);
+      if (blogPost.isEmpty()) {
+         return false;
       }
-      return false;
+      blogPostRepository.delete(blogPost.get());
+      scheduleImageDeletion(blogPost.get());
+      publishChange(id, null);
+      return true;
    }
 
    /**
@@ -171,6 +244,33 @@ public class BlogPostService {
          .collect(Collectors.toList());
    }
 
+   /**
+    * Retrieves one page of published blog post summaries, newest first.
+    * Summaries carry an excerpt instead of the content; the full post is fetched by id.
+    *
+    * @param cursor the nextCursor of the previous page, or null for the first page
+    * @param size   the page size
+    * @return the page of summaries and the cursor for the next one
+    * @throws IllegalArgumentException if the cursor is malformed
+    */
+   public CursorPageDTO<BlogPostSummaryDTO> findPublishedSummaries(String cursor, int size) {
+      // Fetch one extra row to learn whether another page exists
+      Pageable limit = PageRequest.of(0, size + 1);
+      List<BlogPostSummaryDTO> rows;
+      if (cursor == null) {
+         rows = blogPostRepository.findPublishedSummaries(limit);
+      } else {
+         KeysetCursor after = KeysetCursor.decode(cursor);
+         rows = blogPostRepository.findPublishedSummariesAfter(after.timestamp(), after.id(), limit);
+      }
+      if (rows.size() <= size) {
+         return new CursorPageDTO<>(rows, null);
+      }
+      List<BlogPostSummaryDTO> page = rows.subList(0, size);
+      BlogPostSummaryDTO last = page.get(size - 1);
+      return new CursorPageDTO<>(page, new KeysetCursor(last.getPublishedAt(), last.getId()).encode());
+   }
+
    /**
     * Retrieves the current user based on the authentication object.
     *
@@ -182,4 +282,83 @@ public class BlogPostService {
       return jwtUtils.getCurrentUser(authentication)
          .orElseThrow(() -> new RuntimeException("User not found"));
    }
-}
\ No newline at end of file
+
+   /**
+    * Tells the blog feed cache and the slug index which post changed. Listeners run after commit.
+    *
+    * @param blogPostId The UUID of the changed blog post.
+    * @param slug       The slug of the post, or null if it was deleted.
+    */
+   private void publishChange(UUID blogPostId, String slug) {
+      eventPublisher.publishEvent(new BlogPostChangedEvent(blogPostId, slug));
+   }
+
+   /**
+    * Loads a blog post the current user may edit: their own, or any post for an admin.
+    */
+   private BlogPost findEditableBlogPost(UUID id, Authentication authentication) {
+      BlogPost blogPost = blogPostRepository.findById(id)
+         .orElseThrow(() -> new RuntimeException("Blog post not found"));
+
+      User currentUser = getCurrentUser(authentication);
+
+      // Check if the current user is the author or has admin rights
+      if (!blogPost.getAuthor().getId().equals(currentUser.getId()) &&
+         currentUser.getRoles().stream().noneMatch(role -> secretConfig.getRoles().getSecuredRole().equals(role.getName()))) {
+         throw new RuntimeException("You don't have permission to edit this blog post");
+      }
+      return blogPost;
+   }
+
+   private void checkImageUpload(String contentType, Long contentLength) {
+      SecretConfig.BlogImages config = secretConfig.getBlogImages();
+      if (contentType == null || !config.getUploadContentTypes().contains(contentType)) {
+         throw new IllegalArgumentException("Unsupported image type: " + contentType);
+      }
+      if (contentLength == null || contentLength <= 0 || contentLength > config.getMaxUploadSize().toBytes()) {
+         throw new IllegalArgumentException("Image must be between 1 byte and " + config.getMaxUploadSize());
+      }
+   }
+
+   private void scheduleImageDeletion(BlogPost blogPost) {
+      BlogImageProcessor.imageUrls(blogPost.getImageUrl(), blogPost.getImageSrcset())
+         .forEach(awsS3Service::scheduleDeletion);
+   }
+
+   /**
+    * Saves a post whose new image is still uploading. If the save fails, nothing will point at the image, so its
+    * variants are queued for deletion once the upload has settled.
+    */
+   private BlogPost saveWithImage(BlogPost blogPost, ProcessedImage upload) {
+      try {
+         return blogPostRepository.save(blogPost);
+      } catch (RuntimeException e) {
+         if (upload != null) {
+            upload.completion().whenComplete((ignored, error) ->
+               BlogImageProcessor.imageUrls(upload.url(), upload.srcset()).forEach(awsS3Service::scheduleDeletion));
+         }
+         throw e;
+      }
+   }
+
+   /**
+    * Uploads finish after the post is saved. Once the new image is stored, the image it replaced is removed in
+    * the background, as nothing points at it any more; if the upload fails, the post goes back to the replaced
+    * image, or to no image, rather than pointing at an object that does not exist.
+    */
+   private void finishImageUpload(BlogPost blogPost, ProcessedImage upload, String replacedImageUrl,
+                                  String replacedImageSrcset) {
+      if (upload == null) {
+         return;
+      }
+      UUID id = blogPost.getId();
+      String slug = blogPost.getSlug();
+      upload.completion().whenComplete((ignored, error) -> {
+         if (error == null) {
+            BlogImageProcessor.imageUrls(replacedImageUrl, replacedImageSrcset).forEach(awsS3Service::scheduleDeletion);
+         } else if (blogPostRepository.revertImageUrl(id, upload.url(), replacedImageUrl, replacedImageSrcset) > 0) {
+            publishChange(id, slug);
+         }
+      });
+   }
+}
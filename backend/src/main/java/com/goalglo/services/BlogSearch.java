@@ -0,0 +1,22 @@
+package com.goalglo.services;
+
+import com.goalglo.dto.BlogSearchResultDTO;
+
+import java.util.List;
+
+/**
+ * Full-text search over published blog posts, best matches first.
+ * The engine is chosen with {@code app.blog-search.engine}: {@code postgres} (default) or {@code memory}.
+ */
+public interface BlogSearch {
+
+   /**
+    * Searches published posts for all words of a query.
+    *
+    * @param query The words to search for. Every word must match; {@code -word} excludes posts containing it.
+    * @param page  The zero-based page number.
+    * @param size  The page size.
+    * @return The matching posts ordered by rank, descending.
+    */
+   List<BlogSearchResultDTO> search(String query, int page, int size);
+}
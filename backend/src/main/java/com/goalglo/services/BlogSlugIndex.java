@@ -0,0 +1,103 @@
+package com.goalglo.services;
+
+import com.goalglo.repositories.BlogPostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory slug to id map used to resolve pretty blog URLs without a query.
+ * <p>
+ * The map is loaded at startup and kept current from {@link BlogPostChangedEvent}s. A miss, such as a post
+ * created on another replica, falls back to the unique slug index in the database; misses are not
+ * remembered, so a post created later is found straight away.
+ */
+@Service
+public class BlogSlugIndex {
+
+   private static final Logger log = LoggerFactory.getLogger(BlogSlugIndex.class);
+
+   private final BlogPostRepository blogPostRepository;
+   private final Map<String, UUID> idsBySlug = new ConcurrentHashMap<>();
+   private final Map<UUID, String> slugsById = new ConcurrentHashMap<>();
+
+   @Autowired
+   public BlogSlugIndex(BlogPostRepository blogPostRepository) {
+      this.blogPostRepository = blogPostRepository;
+   }
+
+   /**
+    * Resolves a slug to the id of its blog post.
+    *
+    * @param slug The slug of the blog post.
+    * @return The id of the blog post, or an empty Optional if no post has the slug.
+    */
+   public Optional<UUID> findId(String slug) {
+      UUID id = idsBySlug.get(slug);
+      if (id != null) {
+         return Optional.of(id);
+      }
+      Optional<UUID> loaded = blogPostRepository.findIdBySlug(slug);
+      loaded.ifPresent(found -> put(found, slug));
+      return loaded;
+   }
+
+   /**
+    * Forgets a slug whose post could not be loaded, for instance because it was deleted on another replica.
+    *
+    * @param slug The slug to forget.
+    */
+   public void evict(String slug) {
+      UUID id = idsBySlug.remove(slug);
+      if (id != null) {
+         slugsById.remove(id, slug);
+      }
+   }
+
+   /**
+    * Loads every slug from the database.
+    */
+   @EventListener(ApplicationReadyEvent.class)
+   public void warm() {
+      blogPostRepository.findAllSlugs().forEach(entry -> put(entry.getId(), entry.getSlug()));
+      log.debug("Blog slug index warmed with {} slugs", idsBySlug.size());
+   }
+
+   /**
+    * Applies a committed blog post change: a renamed post loses its old slug, a deleted post all of it.
+    *
+    * @param event The change published by {@link BlogPostService}.
+    */
+   @TransactionalEventListener(fallbackExecution = true)
+   public void onBlogPostChanged(BlogPostChangedEvent event) {
+      if (event.slug() == null) {
+         remove(event.blogPostId());
+      } else {
+         put(event.blogPostId(), event.slug());
+      }
+   }
+
+   private void put(UUID id, String slug) {
+      String previous = slugsById.put(id, slug);
+      if (previous != null && !previous.equals(slug)) {
+         idsBySlug.remove(previous, id);
+      }
+      idsBySlug.put(slug, id);
+   }
+
+   private void remove(UUID id) {
+      String slug = slugsById.remove(id);
+      if (slug != null) {
+         idsBySlug.remove(slug, id);
+      }
+   }
+}
@@ -0,0 +1,357 @@
+package com.goalglo.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.goalglo.common.ImportQueueFullException;
+import com.goalglo.common.PayloadTooLargeException;
+import com.goalglo.config.SecretConfig;
+import com.goalglo.dto.BulkImportRowDTO;
+import com.goalglo.dto.ImportJobDTO;
+import com.goalglo.dto.ServiceDTO;
+import com.goalglo.dto.TimeSlotDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs streaming bulk imports of services and time slots in the background.
+ * <p>
+ * The upload is spooled to a temporary file so the request can return a job id straight away. A
+ * worker then reads the file one row at a time, validates each row, and persists valid rows in
+ * chunks of {@code app.bulk-import.chunk-size}. Only one chunk of rows is held in memory, so heap
+ * use does not grow with the file, and reading is paced by how fast the chunks are written. Invalid
+ * rows are skipped and reported with their line number. Jobs live in memory on the replica that
+ * accepted the upload and are forgotten after {@code app.bulk-import.job-retention}.
+ * <p>
+ * At most {@code app.bulk-import.max-queued-jobs} uploads wait for a worker, each no larger than
+ * {@code app.bulk-import.max-upload-size}, so imports cannot fill the disk or the queue.
+ */
+@Service
+public class BulkImportJobService {
+
+   private static final Logger log = LoggerFactory.getLogger(BulkImportJobService.class);
+
+   private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+   private final ServiceService serviceService;
+   private final TimeSlotService timeSlotService;
+   private final ObjectReader jsonRowReader;
+   private final ObjectReader csvRowReader;
+   private final SecretConfig.BulkImport config;
+   private final ExecutorService executor;
+   private final Semaphore slots;
+   private final Cache<UUID, ImportJob> jobs;
+
+   @Autowired
+   public BulkImportJobService(ServiceService serviceService, TimeSlotService timeSlotService, ObjectMapper objectMapper, SecretConfig secretConfig) {
+      this.serviceService = serviceService;
+      this.timeSlotService = timeSlotService;
+      this.config = secretConfig.getBulkImport();
+      this.jsonRowReader = objectMapper.readerFor(BulkImportRowDTO.class);
+      this.csvRowReader = new CsvMapper().readerFor(BulkImportRowDTO.class).with(CsvSchema.emptySchema().withHeader());
+      this.executor = Executors.newFixedThreadPool(config.getMaxConcurrentJobs());
+      // One slot per running or waiting job, taken before the upload is spooled
+      this.slots = new Semaphore(config.getMaxConcurrentJobs() + config.getMaxQueuedJobs());
+      this.jobs = Caffeine.newBuilder()
+         .expireAfterWrite(config.getJobRetention())
+         .build();
+   }
+
+   /**
+    * Spools an upload to disk and queues it for import.
+    *
+    * @param body   The request body.
+    * @param format The format of the body.
+    * @return The queued job.
+    * @throws IOException              If the upload cannot be written to a temporary file.
+    * @throws ImportQueueFullException If the configured number of jobs is already running or waiting.
+    * @throws PayloadTooLargeException If the body is larger than {@code app.bulk-import.max-upload-size}.
+    */
+   public ImportJobDTO submit(InputStream body, Format format) throws IOException {
+      if (!slots.tryAcquire()) {
+         throw new ImportQueueFullException("Too many imports are waiting, try again later");
+      }
+      Path file;
+      try {
+         file = Files.createTempFile("goalglo-import-", format.extension);
+      } catch (IOException e) {
+         slots.release();
+         throw e;
+      }
+      try {
+         spool(body, file);
+      } catch (IOException | RuntimeException e) {
+         Files.deleteIfExists(file);
+         slots.release();
+         throw e;
+      }
+
+      ImportJob job = new ImportJob(config.getMaxReportedErrors());
+      jobs.put(job.id, job);
+      executor.execute(() -> {
+         try {
+            run(job, file, format);
+         } finally {
+            slots.release();
+         }
+      });
+      return job.toDTO();
+   }
+
+   /**
+    * Returns the current progress of an import job.
+    *
+    * @param jobId The ID of the job.
+    * @return The job, or an empty Optional if it is unknown or has expired.
+    */
+   public Optional<ImportJobDTO> findJob(UUID jobId) {
+      return Optional.ofNullable(jobs.getIfPresent(jobId)).map(ImportJob::toDTO);
+   }
+
+   /**
+    * Copies the body to the file, giving up as soon as it exceeds the maximum upload size.
+    */
+   private void spool(InputStream body, Path file) throws IOException {
+      long maxBytes = config.getMaxUploadSize().toBytes();
+      long copied = 0;
+      byte[] buffer = new byte[COPY_BUFFER_SIZE];
+      try (OutputStream out = Files.newOutputStream(file)) {
+         int read;
+         while ((read = body.read(buffer)) != -1) {
+            copied += read;
+            if (copied > maxBytes) {
+               throw new PayloadTooLargeException("Import must not exceed " + config.getMaxUploadSize());
+            }
+            out.write(buffer, 0, read);
+         }
+      }
+   }
+
+   void run(ImportJob job, Path file, Format format) {
+      job.status = ImportJobDTO.Status.RUNNING;
+      ChunkWriter writer = new ChunkWriter(job);
+      try (InputStream in = Files.newInputStream(file)) {
+         if (format == Format.CSV) {
+            readCsv(in, job, writer);
+         } else {
+            readNdjson(in, job, writer);
+         }
+         writer.flush();
+         job.finish(ImportJobDTO.Status.COMPLETED, null);
+         log.info("Import {} completed: {} services, {} time slots, {} rejected rows",
+            job.id, job.servicesImported, job.timeSlotsImported, job.errorCount);
+      } catch (Exception e) {
+         job.finish(ImportJobDTO.Status.FAILED, e.getMessage());
+         log.error("Import {} failed after {} rows", job.id, job.rowsRead, e);
+      } finally {
+         try {
+            Files.deleteIfExists(file);
+         } catch (IOException e) {
+            log.warn("Could not delete import file {}", file, e);
+         }
+      }
+   }
+
+   private void readNdjson(InputStream in, ImportJob job, ChunkWriter writer) throws IOException {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+      long lineNumber = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+         lineNumber++;
+         if (line.isBlank()) {
+            continue;
+         }
+         job.rowsRead.incrementAndGet();
+         try {
+            writer.accept(lineNumber, jsonRowReader.readValue(line));
+         } catch (JsonProcessingException e) {
+            job.rejectRow(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+         }
+      }
+   }
+
+   private void readCsv(InputStream in, ImportJob job, ChunkWriter writer) throws IOException {
+      try (MappingIterator<BulkImportRowDTO> rows = csvRowReader.readValues(in)) {
+         while (rows.hasNextValue()) {
+            job.rowsRead.incrementAndGet();
+            // The parser sits at the start of the record here; once the value is read it has moved past it
+            long lineNumber = rows.getCurrentLocation().getLineNr();
+            try {
+               writer.accept(lineNumber, rows.nextValue());
+            } catch (RuntimeJsonMappingException e) {
+               job.rejectRow(lineNumber, "Malformed CSV record: " + e.getMessage());
+            }
+         }
+      }
+   }
+
+   @PreDestroy
+   public void shutdown() throws InterruptedException {
+      executor.shutdown();
+      if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+         executor.shutdownNow();
+      }
+   }
+
+   public enum Format {
+      NDJSON(".ndjson"), CSV(".csv");
+
+      private final String extension;
+
+      Format(String extension) {
+         this.extension = extension;
+      }
+   }
+
+   /**
+    * Validates rows and buffers them until a chunk is full.
+    */
+   private final class ChunkWriter {
+
+      private final ImportJob job;
+      private final List<ServiceDTO> services = new ArrayList<>();
+      private final List<TimeSlotDTO> timeSlots = new ArrayList<>();
+
+      private ChunkWriter(ImportJob job) {
+         this.job = job;
+      }
+
+      private void accept(long line, BulkImportRowDTO row) {
+         try {
+            if ("service".equalsIgnoreCase(row.getType())) {
+               services.add(toService(row));
+            } else if ("timeSlot".equalsIgnoreCase(row.getType())) {
+               timeSlots.add(toTimeSlot(row));
+            } else {
+               throw new IllegalArgumentException("type must be 'service' or 'timeSlot'");
+            }
+         } catch (IllegalArgumentException | DateTimeParseException e) {
+            job.rejectRow(line, e.getMessage());
+            return;
+         }
+         if (services.size() >= config.getChunkSize() || timeSlots.size() >= config.getChunkSize()) {
+            flush();
+         }
+      }
+
+      private void flush() {
+         if (!services.isEmpty()) {
+            job.servicesImported.addAndGet(serviceService.bulkCreateServices(services));
+            services.clear();
+         }
+         if (!timeSlots.isEmpty()) {
+            job.timeSlotsImported.addAndGet(timeSlotService.bulkCreateTimeSlots(timeSlots));
+            timeSlots.clear();
+         }
+      }
+
+      private ServiceDTO toService(BulkImportRowDTO row) {
+         ServiceDTO service = new ServiceDTO();
+         service.setName(required(row.getName(), "name"));
+         service.setDescription(required(row.getDescription(), "description"));
+         BigDecimal price = new BigDecimal(required(row.getPrice(), "price").trim());
+         if (price.signum() < 0) {
+            throw new IllegalArgumentException("price must not be negative");
+         }
+         service.setPrice(price);
+         int duration = Integer.parseInt(required(row.getDuration(), "duration").trim());
+         if (duration <= 0) {
+            throw new IllegalArgumentException("duration must be positive");
+         }
+         service.setDuration(duration);
+         return service;
+      }
+
+      private TimeSlotDTO toTimeSlot(BulkImportRowDTO row) {
+         LocalDateTime startTime = LocalDateTime.parse(required(row.getStartTime(), "startTime").trim());
+         LocalDateTime endTime = LocalDateTime.parse(required(row.getEndTime(), "endTime").trim());
+         if (!endTime.isAfter(startTime)) {
+            throw new IllegalArgumentException("endTime must be after startTime");
+         }
+         return new TimeSlotDTO(null, startTime, endTime, false);
+      }
+
+      private String required(String value, String field) {
+         if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+         }
+         return value;
+      }
+   }
+
+   /**
+    * Mutable progress of one job. Counters are updated by the worker and read by polling requests.
+    */
+   static final class ImportJob {
+
+      private final UUID id = UUID.randomUUID();
+      private final LocalDateTime submittedAt = LocalDateTime.now();
+      private final int maxReportedErrors;
+      private final AtomicLong rowsRead = new AtomicLong();
+      private final AtomicLong servicesImported = new AtomicLong();
+      private final AtomicLong timeSlotsImported = new AtomicLong();
+      private final AtomicLong errorCount = new AtomicLong();
+      private final List<ImportJobDTO.RowError> errors = new ArrayList<>();
+      private volatile ImportJobDTO.Status status = ImportJobDTO.Status.QUEUED;
+      private volatile String failureReason;
+      private volatile LocalDateTime finishedAt;
+
+      ImportJob(int maxReportedErrors) {
+         this.maxReportedErrors = maxReportedErrors;
+      }
+
+      private void rejectRow(long line, String message) {
+         errorCount.incrementAndGet();
+         synchronized (errors) {
+            if (errors.size() < maxReportedErrors) {
+               errors.add(new ImportJobDTO.RowError(line, message));
+            }
+         }
+      }
+
+      private void finish(ImportJobDTO.Status status, String failureReason) {
+         this.failureReason = failureReason;
+         this.finishedAt = LocalDateTime.now();
+         this.status = status;
+      }
+
+      ImportJobDTO toDTO() {
+         List<ImportJobDTO.RowError> reportedErrors;
+         synchronized (errors) {
+            reportedErrors = List.copyOf(errors);
+         }
+         return new ImportJobDTO(id, status, rowsRead.get(), servicesImported.get(), timeSlotsImported.get(),
+            errorCount.get(), reportedErrors, failureReason, submittedAt, finishedAt);
+      }
+   }
+}
@@ -0,0 +1,140 @@
+package com.goalglo.services;
+
+import com.goalglo.aws.EmailSender;
+import com.goalglo.config.SecretConfig;
+import com.goalglo.entities.EmailOutboxMessage;
+import com.goalglo.security.ratelimit.RateLimitPolicy;
+import com.goalglo.security.ratelimit.RateLimiter;
+import com.goalglo.security.ratelimit.SlidingWindowRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the email outbox in the background.
+ * <p>
+ * Each poll claims due messages in batches and sends them on a bounded pool, paced so that this
+ * replica never exceeds the configured SES send rate. Failed sends are retried with exponential
+ * backoff by {@link EmailOutboxService#markFailed}.
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+   private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+   private static final String SEND_RATE_KEY = "ses";
+
+   private final EmailOutboxService emailOutboxService;
+   private final EmailSender emailSender;
+   private final SecretConfig.Email.Outbox outboxConfig;
+   private final RateLimiter sendRateLimiter;
+   private final RateLimitPolicy sendRatePolicy;
+   private final ExecutorService executor;
+   private final AtomicLong depth = new AtomicLong();
+   private final Timer sendTimer;
+   private final Counter retryCounter;
+   private final Counter failureCounter;
+
+   @Autowired
+   public EmailOutboxDispatcher(EmailOutboxService emailOutboxService, EmailSender emailSender, SecretConfig secretConfig, MeterRegistry meterRegistry) {
+      this.emailOutboxService = emailOutboxService;
+      this.emailSender = emailSender;
+      this.outboxConfig = secretConfig.getEmail().getOutbox();
+      this.sendRateLimiter = new SlidingWindowRateLimiter(1, Duration.ofMinutes(1));
+      this.sendRatePolicy = new RateLimitPolicy(SEND_RATE_KEY, outboxConfig.getMaxSendRate(), Duration.ofSeconds(1));
+      this.executor = Executors.newFixedThreadPool(outboxConfig.getMaxConcurrency());
+
+      meterRegistry.gauge("email.outbox.depth", depth);
+      this.sendTimer = Timer.builder("email.outbox.send")
+         .description("Time taken to hand an email to the sender")
+         .register(meterRegistry);
+      this.retryCounter = Counter.builder("email.outbox.retries").register(meterRegistry);
+      this.failureCounter = Counter.builder("email.outbox.failures")
+         .description("Emails abandoned after the maximum number of attempts")
+         .register(meterRegistry);
+   }
+
+   /**
+    * Sends one batch of due messages per tick. Anything left over is picked up on the next tick,
+    * so a backlog never holds the shared scheduler thread for longer than a single batch.
+    */
+   @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:1000}")
+   public void dispatch() {
+      depth.set(emailOutboxService.countPending());
+
+      List<EmailOutboxMessage> batch = emailOutboxService.claimDueMessages(outboxConfig.getBatchSize());
+      List<CompletableFuture<Void>> sends = new ArrayList<>(batch.size());
+      for (EmailOutboxMessage message : batch) {
+         awaitSendPermit();
+         sends.add(CompletableFuture.runAsync(() -> send(message), executor));
+      }
+      CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+   }
+
+   /**
+    * Deletes delivered messages once they are past the retention window.
+    */
+   @Scheduled(fixedDelayString = "${app.email.outbox.purge-interval-ms:3600000}",
+      initialDelayString = "${app.email.outbox.purge-interval-ms:3600000}")
+   public void purge() {
+      int deleted = emailOutboxService.purgeSent();
+      log.debug("Purged {} sent outbox emails", deleted);
+   }
+
+   /**
+    * Sends a single message and records the outcome.
+    *
+    * @param message The message to send.
+    */
+   private void send(EmailOutboxMessage message) {
+      try {
+         sendTimer.record(() -> emailSender.sendEmail(message.getRecipient(), message.getSubject(), message.getBody()));
+         emailOutboxService.markSent(message.getId());
+      } catch (Exception e) {
+         if (emailOutboxService.markFailed(message.getId(), e)) {
+            retryCounter.increment();
+            log.warn("Email {} to {} failed on attempt {}, will retry: {}", message.getId(), message.getRecipient(), message.getAttempts(), e.getMessage());
+         } else {
+            failureCounter.increment();
+            log.error("Email {} to {} failed after {} attempts", message.getId(), message.getRecipient(), message.getAttempts(), e);
+         }
+      }
+   }
+
+   /**
+    * Blocks until the send-rate limiter admits one more message.
+    */
+   private void awaitSendPermit() {
+      long pauseMillis = Math.max(1, 1000 / outboxConfig.getMaxSendRate());
+      while (!sendRateLimiter.tryAcquire(SEND_RATE_KEY, sendRatePolicy)) {
+         try {
+            Thread.sleep(pauseMillis);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+         }
+      }
+   }
+
+   @PreDestroy
+   public void shutdown() throws InterruptedException {
+      executor.shutdown();
+      if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+         executor.shutdownNow();
+      }
+   }
+}
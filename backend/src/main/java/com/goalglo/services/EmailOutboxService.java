@@ -0,0 +1,134 @@
+package com.goalglo.services;
+
+import com.goalglo.config.SecretConfig;
+import com.goalglo.entities.EmailOutboxMessage;
+import com.goalglo.entities.EmailOutboxMessage.EmailOutboxStatus;
+import com.goalglo.repositories.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class EmailOutboxService {
+
+   private static final int MAX_ERROR_LENGTH = 2000;
+
+   private final EmailOutboxRepository emailOutboxRepository;
+   private final SecretConfig.Email.Outbox outboxConfig;
+
+   @Autowired
+   public EmailOutboxService(EmailOutboxRepository emailOutboxRepository, SecretConfig secretConfig) {
+      this.emailOutboxRepository = emailOutboxRepository;
+      this.outboxConfig = secretConfig.getEmail().getOutbox();
+   }
+
+   /**
+    * Queues an email for delivery. Joins the caller's transaction, so the email is only sent if that transaction commits.
+    *
+    * @param to       The email address of the recipient.
+    * @param subject  The subject of the email.
+    * @param htmlBody The HTML body of the email.
+    */
+   @Transactional
+   public void enqueue(String to, String subject, String htmlBody) {
+      emailOutboxRepository.save(new EmailOutboxMessage(to, subject, htmlBody));
+   }
+
+   /**
+    * Claims the next batch of due messages and marks them as SENDING.
+    * The claim holds a lease: if the replica dies before reporting back, the messages become due again when it expires.
+    *
+    * @param limit The maximum number of messages to claim.
+    * @return The claimed messages.
+    */
+   @Transactional
+   public List<EmailOutboxMessage> claimDueMessages(int limit) {
+      LocalDateTime now = LocalDateTime.now();
+      List<EmailOutboxMessage> messages = emailOutboxRepository.lockDueMessages(now, limit);
+      for (EmailOutboxMessage message : messages) {
+         message.setStatus(EmailOutboxStatus.SENDING);
+         message.setAttempts(message.getAttempts() + 1);
+         message.setNextAttemptAt(now.plus(outboxConfig.getSendingLease()));
+      }
+      return emailOutboxRepository.saveAll(messages);
+   }
+
+   /**
+    * Records a successful delivery.
+    *
+    * @param id The ID of the delivered message.
+    */
+   @Transactional
+   public void markSent(UUID id) {
+      emailOutboxRepository.findById(id).ifPresent(message -> {
+         message.setStatus(EmailOutboxStatus.SENT);
+         message.setSentAt(LocalDateTime.now());
+         message.setLastError(null);
+      });
+   }
+
+   /**
+    * Records a failed delivery and schedules a retry with exponential backoff,
+    * or gives up once the configured number of attempts has been used.
+    *
+    * @param id    The ID of the message that failed.
+    * @param error The cause of the failure.
+    * @return {@code true} if the message will be retried, {@code false} if it is now FAILED.
+    */
+   @Transactional
+   public boolean markFailed(UUID id, Exception error) {
+      return emailOutboxRepository.findById(id).map(message -> {
+         message.setLastError(truncate(String.valueOf(error.getMessage())));
+         if (message.getAttempts() >= outboxConfig.getMaxAttempts()) {
+            message.setStatus(EmailOutboxStatus.FAILED);
+            return false;
+         }
+         message.setStatus(EmailOutboxStatus.PENDING);
+         message.setNextAttemptAt(LocalDateTime.now().plus(backoff(message.getAttempts())));
+         return true;
+      }).orElse(false);
+   }
+
+   /**
+    * Deletes delivered messages older than the configured retention.
+    *
+    * @return The number of messages deleted.
+    */
+   @Transactional
+   public int purgeSent() {
+      return emailOutboxRepository.deleteByStatusSentBefore(EmailOutboxStatus.SENT,
+         LocalDateTime.now().minus(outboxConfig.getRetention()));
+   }
+
+   /**
+    * Counts the messages still waiting to be delivered.
+    *
+    * @return The number of PENDING messages.
+    */
+   public long countPending() {
+      return emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING);
+   }
+
+   /**
+    * Computes the delay before the next attempt, doubling from the initial backoff and capped at the maximum.
+    *
+    * @param attempts The number of attempts made so far.
+    * @return The delay before the next attempt.
+    */
+   Duration backoff(int attempts) {
+      Duration initial = outboxConfig.getInitialBackoff();
+      Duration max = outboxConfig.getMaxBackoff();
+      int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+      Duration delay = initial.multipliedBy(1L << doublings);
+      return delay.compareTo(max) > 0 ? max : delay;
+   }
+
+   private String truncate(String value) {
+      return value.length() > MAX_ERROR_LENGTH ? value.substring(0, MAX_ERROR_LENGTH) : value;
+   }
+}
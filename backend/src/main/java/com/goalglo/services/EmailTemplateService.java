@@ -1,42 +1,63 @@
 package com.goalglo.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.goalglo.common.ResourceNotFoundException;
+import com.goalglo.config.SecretConfig;
 import com.goalglo.entities.EmailTemplate;
 import com.goalglo.repositories.EmailTemplateRepository;
+import com.goalglo.util.CompiledTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 @Service
 public class EmailTemplateService {
 
    private final EmailTemplateRepository emailTemplateRepository;
+   private final Cache<String, CompiledEmailTemplate> compiledTemplates;
 
    @Autowired
-   public EmailTemplateService(EmailTemplateRepository emailTemplateRepository) {
+   public EmailTemplateService(EmailTemplateRepository emailTemplateRepository, SecretConfig secretConfig) {
       this.emailTemplateRepository = emailTemplateRepository;
+      // Templates edited directly in the database are picked up once the entry expires
+      this.compiledTemplates = Caffeine.newBuilder()
+         .expireAfterWrite(secretConfig.getEmail().getTemplateCacheTtl())
+         .build();
    }
 
    /**
-    * Retrieves the subject of an email template by its name.
+    * Renders the subject and body of an email template.
+    * The template is loaded and compiled on first use and served from cache afterwards.
     *
     * @param templateName The name of the email template.
-    * @return The subject of the email template.
+    * @param variables    The values for the {@code {placeholder}} tokens in the template.
+    * @return The rendered subject and body.
     */
-   public String getSubjectByTemplateName(String templateName) {
-      EmailTemplate template = emailTemplateRepository.findByTemplateName(templateName)
-         .orElseThrow(() -> new ResourceNotFoundException("Email template not found"));
-      return template.getSubject();
+   public RenderedEmail render(String templateName, Map<String, String> variables) {
+      CompiledEmailTemplate template = compiledTemplates.get(templateName, this::loadTemplate);
+      return new RenderedEmail(template.subject().render(variables), template.body().render(variables));
    }
 
    /**
-    * Retrieves the body of an email template by its name.
+    * Drops a template from the cache so the next render reloads it.
     *
     * @param templateName The name of the email template.
-    * @return The body of the email template.
     */
-   public String getBodyByTemplateName(String templateName) {
+   public void evict(String templateName) {
+      compiledTemplates.invalidate(templateName);
+   }
+
+   private CompiledEmailTemplate loadTemplate(String templateName) {
       EmailTemplate template = emailTemplateRepository.findByTemplateName(templateName)
          .orElseThrow(() -> new ResourceNotFoundException("Email template not found"));
-      return template.getBody();
+      return new CompiledEmailTemplate(CompiledTemplate.compile(template.getSubject()), CompiledTemplate.compile(template.getBody()));
+   }
+
+   private record CompiledEmailTemplate(CompiledTemplate subject, CompiledTemplate body) {
+   }
+
+   public record RenderedEmail(String subject, String body) {
    }
-}
\ No newline at end of file
+}
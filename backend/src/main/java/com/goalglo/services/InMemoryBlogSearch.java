@@ -0,0 +1,186 @@
+package com.goalglo.services;
+
+import com.goalglo.dto.BlogSearchResultDTO;
+import com.goalglo.entities.BlogPost;
+import com.goalglo.repositories.BlogPostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * {@link BlogSearch} backed by an in-memory inverted index, for tests and databases without full-text search.
+ * <p>
+ * Ranking mirrors the PostgreSQL engine loosely: every query word must match, and a word in the title counts
+ * more than one in the body. Words are matched exactly, without stemming.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.blog-search", name = "engine", havingValue = "memory")
+public class InMemoryBlogSearch implements BlogSearch {
+
+   private static final Logger log = LoggerFactory.getLogger(InMemoryBlogSearch.class);
+   private static final Pattern TAGS = Pattern.compile("<[^>]+>");
+   private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+   private static final int TITLE_WEIGHT = 4;
+   private static final int HEADLINE_WORDS = 35;
+
+   private final BlogPostRepository blogPostRepository;
+   private final Map<UUID, IndexedPost> posts = new ConcurrentHashMap<>();
+   private final Map<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+
+   @Autowired
+   public InMemoryBlogSearch(BlogPostRepository blogPostRepository) {
+      this.blogPostRepository = blogPostRepository;
+   }
+
+   /**
+    * Indexes every published post.
+    */
+   @EventListener(ApplicationReadyEvent.class)
+   public void warm() {
+      blogPostRepository.findByPublishedTrue().forEach(this::index);
+      log.debug("In-memory blog search indexed {} posts", posts.size());
+   }
+
+   /**
+    * Re-indexes a post once its change has committed.
+    *
+    * @param event The change published by {@link BlogPostService}.
+    */
+   @TransactionalEventListener(fallbackExecution = true)
+   public void onBlogPostChanged(BlogPostChangedEvent event) {
+      blogPostRepository.findById(event.blogPostId())
+         .ifPresentOrElse(this::index, () -> remove(event.blogPostId()));
+   }
+
+   @Override
+   public List<BlogSearchResultDTO> search(String query, int page, int size) {
+      List<String> required = new ArrayList<>();
+      List<String> excluded = new ArrayList<>();
+      for (String word : query.toLowerCase(Locale.ROOT).split("\\s+")) {
+         boolean exclude = word.startsWith("-");
+         List<String> terms = tokenize(exclude ? word.substring(1) : word);
+         (exclude ? excluded : required).addAll(terms);
+      }
+      if (required.isEmpty()) {
+         return List.of();
+      }
+
+      // Start from the rarest word so the candidate set is as small as possible
+      List<Set<UUID>> matches = required.stream()
+         .map(term -> postings.getOrDefault(term, Set.of()))
+         .sorted(Comparator.comparingInt(Set::size))
+         .toList();
+      return matches.get(0).stream()
+         .filter(id -> matches.stream().allMatch(set -> set.contains(id)))
+         .filter(id -> excluded.stream().noneMatch(term -> postings.getOrDefault(term, Set.of()).contains(id)))
+         .map(posts::get)
+         .filter(Objects::nonNull)
+         .map(post -> new ScoredPost(post, post.score(required)))
+         .sorted(Comparator.comparingDouble(ScoredPost::rank).reversed().thenComparing(scored -> scored.post().id()))
+         .skip((long) page * size)
+         .limit(size)
+         .map(scored -> scored.post().toResult(required, scored.rank()))
+         .toList();
+   }
+
+   private synchronized void index(BlogPost blogPost) {
+      remove(blogPost.getId());
+      if (!blogPost.isPublished()) {
+         return;
+      }
+      String text = TAGS.matcher(blogPost.getContent() == null ? "" : blogPost.getContent()).replaceAll(" ").trim();
+      Map<String, Integer> frequencies = new HashMap<>();
+      tokenize(blogPost.getTitle()).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+      tokenize(text).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+
+      IndexedPost post = new IndexedPost(blogPost.getId(), blogPost.getTitle(), blogPost.getSlug(), blogPost.getImageUrl(),
+         blogPost.getPublishedAt(), text, frequencies, frequencies.values().stream().mapToInt(Integer::intValue).sum());
+      posts.put(post.id(), post);
+      frequencies.keySet().forEach(term -> postings.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(post.id()));
+   }
+
+   private synchronized void remove(UUID id) {
+      IndexedPost previous = posts.remove(id);
+      if (previous != null) {
+         previous.frequencies().keySet().forEach(term -> postings.computeIfPresent(term, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+         }));
+      }
+   }
+
+   private static List<String> tokenize(String text) {
+      if (text == null) {
+         return List.of();
+      }
+      return Arrays.stream(NON_WORD.split(text.toLowerCase(Locale.ROOT)))
+         .filter(term -> !term.isEmpty())
+         .toList();
+   }
+
+   private record ScoredPost(IndexedPost post, double rank) {
+   }
+
+   private record IndexedPost(UUID id, String title, String slug, String imageUrl, LocalDateTime publishedAt,
+                              String text, Map<String, Integer> frequencies, int length) {
+
+      /**
+       * Term frequency of the query words, normalised by post length like ts_rank's length normalisation.
+       */
+      double score(List<String> terms) {
+         double hits = terms.stream().mapToInt(term -> frequencies.getOrDefault(term, 0)).sum();
+         return hits / (1 + Math.log(1 + length));
+      }
+
+      BlogSearchResultDTO toResult(List<String> terms, double rank) {
+         return new BlogSearchResultDTO(id, title, slug, headline(terms), imageUrl, publishedAt, rank);
+      }
+
+      /**
+       * Returns the words around the first match with every matched word marked.
+       */
+      private String headline(List<String> terms) {
+         String[] words = text.split("\\s+");
+         int first = 0;
+         for (int i = 0; i < words.length; i++) {
+            if (matches(words[i], terms)) {
+               first = i;
+               break;
+            }
+         }
+         int from = Math.max(0, first - HEADLINE_WORDS / 3);
+         int to = Math.min(words.length, from + HEADLINE_WORDS);
+         StringBuilder headline = new StringBuilder();
+         for (int i = from; i < to; i++) {
+            if (i > from) {
+               headline.append(' ');
+            }
+            headline.append(matches(words[i], terms) ? "<mark>" + words[i] + "</mark>" : words[i]);
+         }
+         return headline.toString();
+      }
+
+      private static boolean matches(String word, List<String> terms) {
+         return tokenize(word).stream().anyMatch(terms::contains);
+      }
+   }
+}
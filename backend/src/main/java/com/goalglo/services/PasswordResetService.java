@@ -1,6 +1,5 @@
 package com.goalglo.services;
 
-import com.goalglo.aws.AwsSesService;
 import com.goalglo.common.ResourceNotFoundException;
 import com.goalglo.common.TokenCommons;
 import com.goalglo.config.SecretConfig;
@@ -13,8 +12,10 @@ import com.goalglo.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 
 @Service
@@ -23,18 +24,18 @@ public class PasswordResetService {
    private final UserRepository userRepository;
    private final EmailVerificationTokenRepository emailVerificationTokenRepository;
    private final EmailTemplateService emailTemplateService;
-   private final AwsSesService awsSesService;
+   private final EmailOutboxService emailOutboxService;
    private final PasswordEncoder passwordEncoder;
    private final UuidTokenService uuidTokenService;
    private final SecretConfig secretConfig;
 
 
    @Autowired
-   public PasswordResetService(UserRepository userRepository, EmailVerificationTokenRepository emailVerificationTokenRepository, EmailTemplateService emailTemplateService, AwsSesService awsSesService, PasswordEncoder passwordEncoder, UuidTokenService uuidTokenService, SecretConfig secretConfig) {
+   public PasswordResetService(UserRepository userRepository, EmailVerificationTokenRepository emailVerificationTokenRepository, EmailTemplateService emailTemplateService, EmailOutboxService emailOutboxService, PasswordEncoder passwordEncoder, UuidTokenService uuidTokenService, SecretConfig secretConfig) {
       this.userRepository = userRepository;
       this.emailVerificationTokenRepository = emailVerificationTokenRepository;
       this.emailTemplateService = emailTemplateService;
-      this.awsSesService = awsSesService;
+      this.emailOutboxService = emailOutboxService;
       this.passwordEncoder = passwordEncoder;
       this.uuidTokenService = uuidTokenService;
       this.secretConfig = secretConfig;
@@ -45,6 +46,7 @@ public class PasswordResetService {
     *
     * @param passwordResetRequestDTO The DTO containing the user's email address.
     */
+   @Transactional
    public void initiatePasswordReset(PasswordResetRequestDTO passwordResetRequestDTO) {
       User user = userRepository.findByEmail(passwordResetRequestDTO.getEmail().toLowerCase().trim())
          .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -67,11 +69,10 @@ public class PasswordResetService {
       String passwordResetEmailTemplate = secretConfig.getEmail().getTemplates().getPasswordReset();
       String domain = secretConfig.getActiveDomain();
 
-      String subject = emailTemplateService.getSubjectByTemplateName(passwordResetEmailTemplate);
-      String body = emailTemplateService.getBodyByTemplateName(passwordResetEmailTemplate)
-         .replace("{reset_url}", domain + "/password-reset-confirm?token=" + token);
+      EmailTemplateService.RenderedEmail email = emailTemplateService.render(passwordResetEmailTemplate,
+         Map.of("reset_url", domain + "/password-reset-confirm?token=" + token));
 
-      awsSesService.sendEmail(user.getEmail(), subject, body);
+      emailOutboxService.enqueue(user.getEmail(), email.subject(), email.body());
    }
 
    /**
@@ -9,35 +9,56 @@ import com.goalglo.entities.Transaction;
 import com.goalglo.entities.User;
 import com.goalglo.hook.StripeWebhook;
 import com.goalglo.repositories.PaymentRepository;
-import com.goalglo.repositories.TransactionRepository;
 import com.stripe.Stripe;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
 import com.stripe.model.PaymentIntent;
+import com.stripe.net.ApiResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class PaymentService {
 
+   private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+
+   private static final String STATUS_COMPLETED = "COMPLETED";
+   private static final String STATUS_SUCCEEDED = "succeeded";
+   private static final String STATUS_FAILED = "failed";
+   private static final String STATUS_OTHER = "other";
+   private static final Set<String> TERMINAL_STATUSES = Set.of(STATUS_SUCCEEDED, STATUS_COMPLETED);
+
    private final PaymentRepository paymentRepository;
    private final StripeWebhook stripeWebhook;
    private final UserService userService;
    private final ServiceService serviceService;
    private final SecretConfig secretConfig;
-   private final TransactionRepository transactionRepository;
+   private final TransactionService transactionService;
+   private final StripeWebhookEventService stripeWebhookEventService;
+   private final TransactionTemplate transactionTemplate;
 
 
    @Autowired
-   public PaymentService(PaymentRepository paymentRepository, StripeWebhook stripeWebhook, UserService userService, ServiceService serviceService, SecretConfig secretConfig, TransactionRepository transactionRepository) {
+   public PaymentService(PaymentRepository paymentRepository, StripeWebhook stripeWebhook, UserService userService, ServiceService serviceService, SecretConfig secretConfig, TransactionService transactionService,
+                         StripeWebhookEventService stripeWebhookEventService, PlatformTransactionManager transactionManager) {
       this.paymentRepository = paymentRepository;
       this.stripeWebhook = stripeWebhook;
       this.userService = userService;
       this.serviceService = serviceService;
-      this.transactionRepository = transactionRepository;
+      this.transactionService = transactionService;
+      this.stripeWebhookEventService = stripeWebhookEventService;
+      this.transactionTemplate = new TransactionTemplate(transactionManager);
       this.secretConfig = secretConfig;
       Stripe.apiKey = secretConfig.getStripe().getApiKey();
    }
@@ -72,7 +93,9 @@ public class PaymentService {
    }
 
    /**
-    * Handles the payment confirmation after the payment is completed.
+    * Handles the payment confirmation after the payment is completed. Once Stripe has confirmed the payment,
+    * the status change and the expense are written in one transaction; confirming a completed payment again
+    * returns it without recording anything.
     *
     * @param paymentId The ID of the payment to confirm.
     * @return PaymentDTO     The confirmed payment details.
@@ -81,60 +104,90 @@ public class PaymentService {
    public PaymentDTO confirmPayment(UUID paymentId) throws Exception {
       Payment payment = paymentRepository.findById(paymentId)
          .orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
+      if (STATUS_COMPLETED.equals(payment.getStatus())) {
+         return new PaymentDTO(payment);
+      }
       // Confirm payment with Stripe using dynamic paymentMethodId
       stripeWebhook.confirmPaymentIntent(payment.getStripePaymentId(), payment.getPaymentMethod(), secretConfig.getActiveDomain() + "/paid/thanks");
 
-      payment.setStatus("COMPLETED");
-      payment = paymentRepository.save(payment);
+      return transactionTemplate.execute(status -> completePayment(paymentId));
+   }
 
-      // Create a new transaction record
+   /**
+    * Marks a payment as completed and records it as an expense. Only the call that changes the status records
+    * the expense, so a concurrent confirmation cannot record it twice.
+    */
+   private PaymentDTO completePayment(UUID paymentId) {
+      boolean completed = paymentRepository.updateStatusIfChanged(paymentId, STATUS_COMPLETED, LocalDateTime.now()) == 1;
+      Payment payment = paymentRepository.findById(paymentId)
+         .orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
+      if (!completed) {
+         return new PaymentDTO(payment);
+      }
+
+      // Record the payment as an expense; this also updates the user's account summary
       Transaction transaction = new Transaction();
+      transaction.setUser(payment.getUser());
       transaction.setPayment(payment);
       transaction.setService(payment.getService());
       transaction.setAmount(BigDecimal.valueOf(payment.getAmount()));
-      transactionRepository.save(transaction);
+      transaction.setType(Transaction.TYPE_EXPENSE);
+      transaction.setDescription(payment.getService() != null ? payment.getService().getName() : "Payment");
+      transactionService.recordTransaction(transaction);
 
       return new PaymentDTO(payment);
    }
 
    /**
-    * Handles Stripe webhook events to update payment status.
+    * Verifies a Stripe webhook delivery and stores the event for {@link StripeWebhookDispatcher} to apply.
+    * Only the signature check and one insert happen here, so Stripe gets its answer quickly; redeliveries of
+    * an event that is already stored are acknowledged without doing anything.
     *
     * @param payload   The webhook event payload received from Stripe.
     * @param sigHeader The Stripe signature header used for verifying the authenticity of the event.
-    * @return String   A confirmation message indicating the result of the webhook handling process.
+    * @return {@code true} if the event was new, {@code false} if it had been received before.
+    * @throws SignatureVerificationException If the signature verification fails.
+    */
+   public boolean handleStripeWebhook(String payload, String sigHeader) throws SignatureVerificationException {
+      String stripeEndpointSecret = secretConfig.getStripe().getEndpointSecret();
+
+      Event event = stripeWebhook.captureStripeEvent(payload, sigHeader, stripeEndpointSecret);
+      return stripeWebhookEventService.record(event, payload);
+   }
+
+   /**
+    * Applies a stored Stripe event. Applying the same event again leaves the payment unchanged, and an event
+    * older than the last one applied to its payment is skipped, so events can be retried and replayed in any
+    * order.
+    *
+    * @param payload The verified payload the event was stored with.
     */
-   public String handleStripeWebhook(String payload, String sigHeader) {
-
-      try {
-         String stripeEndpointSecret = secretConfig.getStripe().getEndpointSecret();
-
-         Event event = stripeWebhook.captureStripeEvent(payload, sigHeader, stripeEndpointSecret);
-
-         // Handle different event types
-         switch (event.getType()) {
-            case "payment_intent.succeeded":
-               handlePaymentEvent(event, "succeeded");
-               break;
-
-            case "payment_intent.payment_failed":
-               handlePaymentEvent(event, "failed");
-               break;
-
-            default:
-               handlePaymentEvent(event, "other");
-               break;
-         }
-         return "Webhook event received";
-      } catch (SignatureVerificationException e) {
-         return "Signature verification failed";
-      } catch (Exception e) {
-         return "Error processing webhook";
+   public void applyStripeEvent(String payload) {
+      Event event = ApiResource.GSON.fromJson(payload, Event.class);
+
+      // Handle different event types
+      switch (event.getType()) {
+         case "payment_intent.succeeded":
+            handlePaymentEvent(event, STATUS_SUCCEEDED);
+            break;
+
+         case "payment_intent.payment_failed":
+            handlePaymentEvent(event, STATUS_FAILED);
+            break;
+
+         default:
+            if (event.getType().startsWith("payment_intent.")) {
+               handlePaymentEvent(event, STATUS_OTHER);
+            }
+            break;
       }
    }
 
    /**
-    * Handles payment events from Stripe to update the payment status.
+    * Handles payment events from Stripe to update the payment status. Events created before the last one
+    * applied to the payment are stale and ignored. Stripe timestamps only have one second resolution, so
+    * events from the same second are also ordered by status: a succeeded or completed payment never
+    * changes again, and intermediate events never overwrite a failure.
     *
     * @param event  The Stripe event received.
     * @param status The status to update the payment to (e.g., "succeeded", "failed").
@@ -148,8 +201,38 @@ public class PaymentService {
       Payment payment = paymentRepository.findByStripePaymentId(paymentIntent.getId())
          .orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
 
+      LocalDateTime eventCreatedAt = event.getCreated() != null
+         ? LocalDateTime.ofInstant(Instant.ofEpochSecond(event.getCreated()), ZoneId.systemDefault())
+         : LocalDateTime.now();
+      if (payment.getStripeEventCreatedAt() != null && eventCreatedAt.isBefore(payment.getStripeEventCreatedAt())) {
+         log.info("Skipping stale Stripe event {} ({}) for payment {}; event {} is newer", event.getId(), event.getType(),
+            payment.getId(), payment.getStripeEventId());
+         return;
+      }
+      if (!canMoveTo(payment.getStatus(), status)) {
+         log.info("Ignoring Stripe event {} ({}) for payment {}; it is already {}", event.getId(), event.getType(),
+            payment.getId(), payment.getStatus());
+         return;
+      }
+
       payment.setStatus(status);
+      payment.setStripeEventCreatedAt(eventCreatedAt);
+      payment.setStripeEventId(event.getId());
       paymentRepository.save(payment);
    }
 
+   /**
+    * Decides whether a Stripe event may change a payment's status.
+    *
+    * @param current The payment's current status.
+    * @param next    The status the event maps to.
+    * @return Whether the status may be updated.
+    */
+   private static boolean canMoveTo(String current, String next) {
+      if (TERMINAL_STATUSES.contains(current)) {
+         return false;
+      }
+      return !(STATUS_OTHER.equals(next) && STATUS_FAILED.equals(current));
+   }
+
 }
\ No newline at end of file
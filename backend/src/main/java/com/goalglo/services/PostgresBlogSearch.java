@@ -0,0 +1,88 @@
+package com.goalglo.services;
+
+import com.goalglo.dto.BlogSearchResultDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link BlogSearch} backed by PostgreSQL full-text search.
+ * <p>
+ * {@code blogs.search_vector} is a stored generated tsvector over the title (weight A) and content (weight B)
+ * with a GIN index, so a search is an index lookup ranked with ts_rank rather than a LIKE scan. The column is
+ * not mapped on {@link com.goalglo.entities.BlogPost}; it is added here once Hibernate has created the table.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.blog-search", name = "engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresBlogSearch implements BlogSearch {
+
+   private static final Logger log = LoggerFactory.getLogger(PostgresBlogSearch.class);
+
+   private static final String[] SCHEMA_SQL = {
+      """
+      ALTER TABLE blogs ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+         setweight(to_tsvector('english', coalesce(title, '')), 'A')
+         || setweight(to_tsvector('english', coalesce(content, '')), 'B')) STORED
+      """,
+      "CREATE INDEX IF NOT EXISTS idx_blogs_search_vector ON blogs USING GIN (search_vector)"
+   };
+
+   // Ranks and pages in the inner query so ts_headline only runs on the rows returned. Tags are stripped
+   // before highlighting so a fragment never cuts through the post's HTML
+   private static final String SEARCH_SQL = """
+      SELECT b.id, b.title, b.slug, b.image_url, b.published_at, m.rank,
+             ts_headline('english', regexp_replace(b.content, '<[^>]+>', ' ', 'g'), m.q,
+                         'StartSel=<mark>, StopSel=</mark>, MaxWords=35, MinWords=15, MaxFragments=2') AS headline
+      FROM (
+         SELECT b.id, q, ts_rank(b.search_vector, q) AS rank
+         FROM blogs b, websearch_to_tsquery('english', ?) q
+         WHERE b.published = true AND b.search_vector @@ q
+         ORDER BY rank DESC, b.id
+         LIMIT ? OFFSET ?
+      ) m
+      JOIN blogs b ON b.id = m.id
+      ORDER BY m.rank DESC, b.id
+      """;
+
+   private final JdbcTemplate jdbcTemplate;
+
+   @Autowired
+   public PostgresBlogSearch(JdbcTemplate jdbcTemplate) {
+      this.jdbcTemplate = jdbcTemplate;
+   }
+
+   /**
+    * Adds the search column and its index if they are missing. Both statements are idempotent.
+    */
+   @EventListener(ApplicationReadyEvent.class)
+   public void ensureSchema() {
+      for (String sql : SCHEMA_SQL) {
+         jdbcTemplate.execute(sql);
+      }
+      log.debug("Blog full-text search column and index are in place");
+   }
+
+   @Override
+   public List<BlogSearchResultDTO> search(String query, int page, int size) {
+      return jdbcTemplate.query(SEARCH_SQL, (rs, rowNum) -> {
+         Timestamp publishedAt = rs.getTimestamp("published_at");
+         return new BlogSearchResultDTO(
+            rs.getObject("id", UUID.class),
+            rs.getString("title"),
+            rs.getString("slug"),
+            rs.getString("headline"),
+            rs.getString("image_url"),
+            publishedAt != null ? publishedAt.toLocalDateTime() : null,
+            rs.getDouble("rank"));
+      }, query, size, (long) page * size);
+   }
+}
@@ -0,0 +1,80 @@
+package com.goalglo.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.goalglo.config.SecretConfig;
+import com.goalglo.dto.ServiceDTO;
+import com.goalglo.repositories.ServiceRepository;
+import com.goalglo.util.SerializedResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-through cache for the public service catalogue.
+ * Entries hold the response body already serialised to JSON together with its validators, so a cache hit
+ * costs neither a query nor a serialisation. Entries are evicted when {@link ServiceService} reports a change.
+ */
+@Service
+public class ServiceCatalogueCache {
+
+   private static final String ALL_SERVICES = "all";
+
+   private final ServiceRepository serviceRepository;
+   private final ObjectMapper objectMapper;
+   private final Cache<String, SerializedResponse> entries;
+
+   @Autowired
+   public ServiceCatalogueCache(ServiceRepository serviceRepository, ObjectMapper objectMapper, SecretConfig secretConfig) {
+      this.serviceRepository = serviceRepository;
+      this.objectMapper = objectMapper;
+      this.entries = Caffeine.newBuilder()
+         .expireAfterWrite(secretConfig.getCatalogue().getCacheTtl())
+         .build();
+   }
+
+   /**
+    * Returns the serialised list of all services.
+    *
+    * @return The serialised service list.
+    */
+   public SerializedResponse getAllServices() {
+      return entries.get(ALL_SERVICES, key -> serialise(serviceRepository.findAllDTOs()));
+   }
+
+   /**
+    * Returns a single serialised service.
+    * Missing services are not cached, so a service created later is found straight away.
+    *
+    * @param id The UUID of the service.
+    * @return The serialised service, or an empty Optional if it does not exist.
+    */
+   public Optional<SerializedResponse> getService(UUID id) {
+      return Optional.ofNullable(entries.get(id.toString(), key -> serviceRepository.findById(id)
+         .map(ServiceDTO::new)
+         .map(this::serialise)
+         .orElse(null)));
+   }
+
+   /**
+    * Evicts the entries affected by a catalogue change once the change has committed.
+    *
+    * @param event The change published by {@link ServiceService}.
+    */
+   @TransactionalEventListener(fallbackExecution = true)
+   public void onCatalogueChanged(ServiceCatalogueChangedEvent event) {
+      entries.invalidate(ALL_SERVICES);
+      if (event.serviceId() != null) {
+         entries.invalidate(event.serviceId().toString());
+      }
+   }
+
+   private SerializedResponse serialise(Object value) {
+      return SerializedResponse.of(objectMapper, value, Instant.now());
+   }
+}
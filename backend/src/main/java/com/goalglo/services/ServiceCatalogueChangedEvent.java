@@ -0,0 +1,11 @@
+package com.goalglo.services;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link ServiceService} whenever the service catalogue is modified.
+ *
+ * @param serviceId The service that was created, updated or deleted, or null when several services changed at once.
+ */
+public record ServiceCatalogueChangedEvent(UUID serviceId) {
+}
@@ -3,22 +3,27 @@ package com.goalglo.services;
 import com.goalglo.dto.ServiceDTO;
 import com.goalglo.entities.ServiceEntity;
 import com.goalglo.repositories.ServiceRepository;
+import com.goalglo.util.BatchInserter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class ServiceService {
 
    private final ServiceRepository serviceRepository;
+   private final BatchInserter batchInserter;
+   private final ApplicationEventPublisher eventPublisher;
 
    @Autowired
-   public ServiceService(ServiceRepository serviceRepository) {
+   public ServiceService(ServiceRepository serviceRepository, BatchInserter batchInserter, ApplicationEventPublisher eventPublisher) {
       this.serviceRepository = serviceRepository;
+      this.batchInserter = batchInserter;
+      this.eventPublisher = eventPublisher;
    }
 
    /**
@@ -28,8 +33,9 @@ public class ServiceService {
     * @return The created service entity.
     */
    public ServiceDTO createService(ServiceDTO serviceDTO) {
-      ServiceEntity serviceEntity = new ServiceEntity(serviceDTO);
-      return new ServiceDTO(serviceRepository.save(serviceEntity));
+      ServiceEntity serviceEntity = serviceRepository.save(new ServiceEntity(serviceDTO));
+      publishChange(serviceEntity.getId());
+      return new ServiceDTO(serviceEntity);
    }
    /**
     * Finds a service by its ID.
@@ -45,28 +51,13 @@ public class ServiceService {
    /**
     * Retrieves all services.
     *
-    * @return A list of all service entities.
+    * @return A list of all services.
     */
    public List<ServiceDTO> getAllServices() {
-      return serviceRepository.findAll().stream()
-         .map(this::convertToDTO)
-         .collect(Collectors.toList());
+      return serviceRepository.findAllDTOs();
    }
 
 
-   /**
-    * Converts a ServiceEntity to a ServiceDTO.
-    *
-    * @param serviceEntity The ServiceEntity to be converted.
-    * @return The converted ServiceDTO.
-    */
-   private ServiceDTO convertToDTO(ServiceEntity serviceEntity) {
-      ServiceDTO dto = new ServiceDTO();
-      dto.setId(serviceEntity.getId());
-      dto.setName(serviceEntity.getName());
-      dto.setDescription(serviceEntity.getDescription());
-      return dto;
-   }
    /**
     * Updates an existing service.
     *
@@ -80,7 +71,9 @@ public class ServiceService {
          service.setDescription(serviceDTO.getDescription());
          service.setPrice(serviceDTO.getPrice());
          service.setDuration(serviceDTO.getDuration());
-         return new ServiceDTO(serviceRepository.save(service));
+         ServiceDTO updated = new ServiceDTO(serviceRepository.save(service));
+         publishChange(id);
+         return updated;
       });
    }
 
@@ -94,6 +87,7 @@ public class ServiceService {
    public boolean deleteService(UUID id) {
       if (serviceRepository.existsById(id)) {
          serviceRepository.deleteById(id);
+         publishChange(id);
          return true;
       }
       return false;
@@ -102,16 +96,28 @@ public class ServiceService {
    /**
     * Creates multiple services from the provided list of service DTOs.
     *
+    * Rows are written with JDBC batching in chunked transactions.
+    *
     * @param services A list of ServiceDTO objects to be converted into Service entities and saved in the database.
+    * @return The number of services created.
     */
-   public void bulkCreateServices(List<ServiceDTO> services) {
-      for (ServiceDTO serviceDTO : services) {
-         ServiceEntity service = new ServiceEntity(serviceDTO);
-         serviceRepository.save(service);
-      }
+   public int bulkCreateServices(List<ServiceDTO> services) {
+      List<ServiceEntity> entities = services.stream().map(ServiceEntity::new).toList();
+      batchInserter.insertAll("services", entities, chunk -> publishChange(null));
+      return entities.size();
    }
 
    public Optional<ServiceEntity> findById(UUID serviceId) {
       return serviceRepository.findById(serviceId);
    }
+
+   /**
+    * Tells the catalogue cache which service changed. Listeners run after commit, so a rolled-back
+    * change never evicts anything.
+    *
+    * @param serviceId The UUID of the changed service, or null when several services changed.
+    */
+   private void publishChange(UUID serviceId) {
+      eventPublisher.publishEvent(new ServiceCatalogueChangedEvent(serviceId));
+   }
 }
\ No newline at end of file
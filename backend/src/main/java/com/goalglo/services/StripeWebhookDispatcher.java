@@ -0,0 +1,142 @@
+package com.goalglo.services;
+
+import com.goalglo.config.SecretConfig;
+import com.goalglo.entities.StripeWebhookEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies stored Stripe webhook events in the background.
+ * <p>
+ * Each poll claims the first due event of every ordering key, in batches, and works through the keys in
+ * parallel on a bounded pool. A worker that finishes an event claims the next one with the same key straight
+ * away, so the events of one PaymentIntent are applied one at a time in the order Stripe created them, while
+ * different PaymentIntents do not wait for each other. A failed event is retried with exponential backoff by
+ * {@link StripeWebhookEventService#markFailed} and holds back the later events of its key until it succeeds
+ * or is abandoned.
+ */
+@Service
+public class StripeWebhookDispatcher {
+
+   private static final Logger log = LoggerFactory.getLogger(StripeWebhookDispatcher.class);
+
+   private final StripeWebhookEventService stripeWebhookEventService;
+   private final PaymentService paymentService;
+   private final SecretConfig.Stripe.Webhooks webhooksConfig;
+   private final ExecutorService executor;
+   private final AtomicLong backlog = new AtomicLong();
+   private final AtomicLong oldestPendingAgeSeconds = new AtomicLong();
+   private final Timer lagTimer;
+   private final Counter retryCounter;
+   private final Counter failureCounter;
+
+   @Autowired
+   public StripeWebhookDispatcher(StripeWebhookEventService stripeWebhookEventService, PaymentService paymentService,
+                                  SecretConfig secretConfig, MeterRegistry meterRegistry) {
+      this.stripeWebhookEventService = stripeWebhookEventService;
+      this.paymentService = paymentService;
+      this.webhooksConfig = secretConfig.getStripe().getWebhooks();
+      this.executor = Executors.newFixedThreadPool(webhooksConfig.getMaxConcurrency());
+
+      meterRegistry.gauge("stripe.webhook.backlog", backlog);
+      meterRegistry.gauge("stripe.webhook.oldest.pending.age", oldestPendingAgeSeconds);
+      this.lagTimer = Timer.builder("stripe.webhook.lag")
+         .description("Time from receiving a webhook event to having applied it")
+         .register(meterRegistry);
+      this.retryCounter = Counter.builder("stripe.webhook.retries").register(meterRegistry);
+      this.failureCounter = Counter.builder("stripe.webhook.failures")
+         .description("Webhook events abandoned after the maximum number of attempts")
+         .register(meterRegistry);
+   }
+
+   /**
+    * Applies one batch of due ordering keys per tick. Anything left over is picked up on the next tick,
+    * so a backlog never holds the shared scheduler thread for longer than a single batch.
+    */
+   @Scheduled(fixedDelayString = "${app.stripe.webhooks.poll-interval-ms:500}")
+   public void dispatch() {
+      backlog.set(stripeWebhookEventService.countPending());
+      oldestPendingAgeSeconds.set(stripeWebhookEventService.oldestPendingReceivedAt()
+         .map(receivedAt -> Duration.between(receivedAt, LocalDateTime.now()).toSeconds())
+         .orElse(0L));
+
+      List<StripeWebhookEvent> batch = stripeWebhookEventService.claimDueEvents(webhooksConfig.getBatchSize());
+      List<CompletableFuture<Void>> keys = new ArrayList<>(batch.size());
+      for (StripeWebhookEvent event : batch) {
+         keys.add(CompletableFuture.runAsync(() -> processInOrder(event), executor));
+      }
+      CompletableFuture.allOf(keys.toArray(CompletableFuture[]::new)).join();
+   }
+
+   /**
+    * Deletes applied events once Stripe can no longer redeliver them.
+    */
+   @Scheduled(fixedDelayString = "${app.stripe.webhooks.purge-interval-ms:3600000}",
+      initialDelayString = "${app.stripe.webhooks.purge-interval-ms:3600000}")
+   public void purge() {
+      int deleted = stripeWebhookEventService.purgeProcessed();
+      log.debug("Purged {} applied Stripe webhook events", deleted);
+   }
+
+   /**
+    * Applies an event and then the following events with the same ordering key, stopping at the first failure.
+    *
+    * @param first The claimed event to start with.
+    */
+   void processInOrder(StripeWebhookEvent first) {
+      Optional<StripeWebhookEvent> next = Optional.of(first);
+      while (next.isPresent() && process(next.get())) {
+         next = stripeWebhookEventService.claimNextEvent(first.getOrderingKey());
+      }
+   }
+
+   /**
+    * Applies a single event and records the outcome.
+    *
+    * @param event The event to apply.
+    * @return {@code true} if the event was applied.
+    */
+   private boolean process(StripeWebhookEvent event) {
+      try {
+         paymentService.applyStripeEvent(event.getPayload());
+         stripeWebhookEventService.markProcessed(event.getId());
+         lagTimer.record(Duration.between(event.getReceivedAt(), LocalDateTime.now()));
+         return true;
+      } catch (Exception e) {
+         if (stripeWebhookEventService.markFailed(event.getId(), e)) {
+            retryCounter.increment();
+            log.warn("Stripe event {} ({}) failed on attempt {}, will retry: {}", event.getEventId(), event.getEventType(), event.getAttempts(), e.getMessage());
+         } else {
+            failureCounter.increment();
+            log.error("Stripe event {} ({}) failed after {} attempts", event.getEventId(), event.getEventType(), event.getAttempts(), e);
+         }
+         return false;
+      }
+   }
+
+   @PreDestroy
+   public void shutdown() throws InterruptedException {
+      executor.shutdown();
+      if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+         executor.shutdownNow();
+      }
+   }
+}
@@ -0,0 +1,244 @@
+package com.goalglo.services;
+
+import com.goalglo.config.SecretConfig;
+import com.goalglo.entities.StripeWebhookEvent;
+import com.goalglo.entities.StripeWebhookEvent.StripeWebhookEventStatus;
+import com.goalglo.repositories.StripeWebhookEventRepository;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.stripe.model.Event;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class StripeWebhookEventService {
+
+   private static final int MAX_ERROR_LENGTH = 2000;
+
+   private final StripeWebhookEventRepository stripeWebhookEventRepository;
+   private final SecretConfig.Stripe.Webhooks webhooksConfig;
+   private final Counter storedCounter;
+   private final Counter duplicateCounter;
+
+   @Autowired
+   public StripeWebhookEventService(StripeWebhookEventRepository stripeWebhookEventRepository, SecretConfig secretConfig,
+                                    MeterRegistry meterRegistry) {
+      this.stripeWebhookEventRepository = stripeWebhookEventRepository;
+      this.webhooksConfig = secretConfig.getStripe().getWebhooks();
+      this.storedCounter = Counter.builder("stripe.webhook.received").tag("result", "stored").register(meterRegistry);
+      this.duplicateCounter = Counter.builder("stripe.webhook.received").tag("result", "duplicate")
+         .description("Webhook deliveries of events that were already stored")
+         .register(meterRegistry);
+   }
+
+   /**
+    * Stores a verified event for the dispatcher to apply, unless it was stored before.
+    *
+    * @param event   The verified event.
+    * @param payload The raw payload it was parsed from.
+    * @return {@code true} if the event was stored, {@code false} if Stripe had already delivered it.
+    */
+   @Transactional
+   public boolean record(Event event, String payload) {
+      LocalDateTime stripeCreatedAt = event.getCreated() != null
+         ? LocalDateTime.ofInstant(Instant.ofEpochSecond(event.getCreated()), ZoneId.systemDefault())
+         : LocalDateTime.now();
+      boolean stored = stripeWebhookEventRepository.insertIfAbsent(UUID.randomUUID(), event.getId(), event.getType(),
+         orderingKey(event), payload, stripeCreatedAt, LocalDateTime.now()) == 1;
+      (stored ? storedCounter : duplicateCounter).increment();
+      return stored;
+   }
+
+   /**
+    * Claims the next batch of due events, at most one per ordering key, and marks them as PROCESSING.
+    * The claim holds a lease: if the replica dies before reporting back, the events become due again when it expires.
+    *
+    * @param limit The maximum number of events to claim.
+    * @return The claimed events.
+    */
+   @Transactional
+   public List<StripeWebhookEvent> claimDueEvents(int limit) {
+      LocalDateTime now = LocalDateTime.now();
+      List<StripeWebhookEvent> events = stripeWebhookEventRepository.lockDueEvents(now, limit);
+      events.forEach(event -> claim(event, now));
+      return stripeWebhookEventRepository.saveAll(events);
+   }
+
+   /**
+    * Claims the next due event with the given ordering key, if it is now first in line.
+    *
+    * @param orderingKey The ordering key of the event that was just applied.
+    * @return The claimed event, or an empty Optional if none is due.
+    */
+   @Transactional
+   public Optional<StripeWebhookEvent> claimNextEvent(String orderingKey) {
+      LocalDateTime now = LocalDateTime.now();
+      return stripeWebhookEventRepository.lockNextDueEvent(orderingKey, now)
+         .map(event -> stripeWebhookEventRepository.save(claim(event, now)));
+   }
+
+   /**
+    * Records that an event was applied.
+    *
+    * @param id The ID of the applied event.
+    */
+   @Transactional
+   public void markProcessed(UUID id) {
+      stripeWebhookEventRepository.findById(id).ifPresent(event -> {
+         event.setStatus(StripeWebhookEventStatus.PROCESSED);
+         event.setProcessedAt(LocalDateTime.now());
+         event.setLastError(null);
+      });
+   }
+
+   /**
+    * Records a failure to apply an event and schedules a retry with exponential backoff,
+    * or gives up once the configured number of attempts has been used.
+    *
+    * @param id    The ID of the event that failed.
+    * @param error The cause of the failure.
+    * @return {@code true} if the event will be retried, {@code false} if it is now FAILED.
+    */
+   @Transactional
+   public boolean markFailed(UUID id, Exception error) {
+      return stripeWebhookEventRepository.findById(id).map(event -> {
+         event.setLastError(truncate(String.valueOf(error.getMessage())));
+         if (event.getAttempts() >= webhooksConfig.getMaxAttempts()) {
+            event.setStatus(StripeWebhookEventStatus.FAILED);
+            return false;
+         }
+         event.setStatus(StripeWebhookEventStatus.RECEIVED);
+         event.setNextAttemptAt(LocalDateTime.now().plus(backoff(event.getAttempts())));
+         return true;
+      }).orElse(false);
+   }
+
+   /**
+    * Queues a stored event to be applied again, e.g. after fixing the cause of its failure. An event older than
+    * the last one applied to its payment is skipped when it comes round.
+    *
+    * @param eventId The Stripe event id.
+    * @return {@code true} if the event was queued, {@code false} if no such event is stored.
+    */
+   @Transactional
+   public boolean replay(String eventId) {
+      return stripeWebhookEventRepository.requeueByEventId(eventId, StripeWebhookEventStatus.RECEIVED, LocalDateTime.now()) == 1;
+   }
+
+   /**
+    * Queues every abandoned event received in a time range to be applied again.
+    *
+    * @param from The start of the range, inclusive.
+    * @param to   The end of the range, exclusive.
+    * @return The number of events queued.
+    */
+   @Transactional
+   public int replayFailed(LocalDateTime from, LocalDateTime to) {
+      return stripeWebhookEventRepository.requeueByStatus(StripeWebhookEventStatus.FAILED, from, to,
+         StripeWebhookEventStatus.RECEIVED, LocalDateTime.now());
+   }
+
+   /**
+    * Deletes applied events older than the configured retention.
+    *
+    * @return The number of events deleted.
+    */
+   @Transactional
+   public int purgeProcessed() {
+      return stripeWebhookEventRepository.deleteByStatusProcessedBefore(StripeWebhookEventStatus.PROCESSED,
+         LocalDateTime.now().minus(webhooksConfig.getRetention()));
+   }
+
+   /**
+    * Counts the events still waiting to be applied.
+    *
+    * @return The number of RECEIVED events.
+    */
+   public long countPending() {
+      return stripeWebhookEventRepository.countByStatus(StripeWebhookEventStatus.RECEIVED);
+   }
+
+   /**
+    * Finds when the oldest event that has not been applied yet was received.
+    *
+    * @return The time, or an empty Optional if there is no backlog.
+    */
+   public Optional<LocalDateTime> oldestPendingReceivedAt() {
+      return Optional.ofNullable(stripeWebhookEventRepository.findOldestReceivedAt(
+         EnumSet.of(StripeWebhookEventStatus.RECEIVED, StripeWebhookEventStatus.PROCESSING)));
+   }
+
+   /**
+    * Computes the delay before the next attempt, doubling from the initial backoff and capped at the maximum.
+    *
+    * @param attempts The number of attempts made so far.
+    * @return The delay before the next attempt.
+    */
+   Duration backoff(int attempts) {
+      Duration initial = webhooksConfig.getInitialBackoff();
+      Duration max = webhooksConfig.getMaxBackoff();
+      int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+      Duration delay = initial.multipliedBy(1L << doublings);
+      return delay.compareTo(max) > 0 ? max : delay;
+   }
+
+   /**
+    * Picks the key whose events must be applied in order: the PaymentIntent the event's object is or belongs to,
+    * falling back to the event itself.
+    *
+    * @param event The event.
+    * @return The ordering key.
+    */
+   static String orderingKey(Event event) {
+      String rawJson = event.getDataObjectDeserializer().getRawJson();
+      if (rawJson != null) {
+         JsonObject object = JsonParser.parseString(rawJson).getAsJsonObject();
+         JsonElement type = object.get("object");
+         if (type != null && "payment_intent".equals(type.getAsString())) {
+            return id(object.get("id"));
+         }
+         String paymentIntentId = id(object.get("payment_intent"));
+         if (paymentIntentId != null) {
+            return paymentIntentId;
+         }
+      }
+      return event.getId();
+   }
+
+   /**
+    * Reads an id that Stripe sends either as a string or, when expanded, as an object with an id.
+    */
+   private static String id(JsonElement element) {
+      if (element == null || element.isJsonNull()) {
+         return null;
+      }
+      if (element.isJsonObject()) {
+         return id(element.getAsJsonObject().get("id"));
+      }
+      return element.getAsString();
+   }
+
+   private StripeWebhookEvent claim(StripeWebhookEvent event, LocalDateTime now) {
+      event.setStatus(StripeWebhookEventStatus.PROCESSING);
+      event.setAttempts(event.getAttempts() + 1);
+      event.setNextAttemptAt(now.plus(webhooksConfig.getProcessingLease()));
+      return event;
+   }
+
+   private String truncate(String value) {
+      return value.length() > MAX_ERROR_LENGTH ? value.substring(0, MAX_ERROR_LENGTH) : value;
+   }
+}
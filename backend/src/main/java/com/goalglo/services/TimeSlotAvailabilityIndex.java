@@ -0,0 +1,144 @@
+package com.goalglo.services;
+
+import com.goalglo.dto.TimeSlotDTO;
+import com.goalglo.repositories.TimeSlotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory, time-ordered view of the free time slots that serves the public availability endpoint.
+ * <p>
+ * The database stays the source of truth: the index is loaded at startup, updated from
+ * {@link TimeSlotChangedEvent}s once the changing transaction commits, and reloaded periodically to
+ * pick up changes made by other replicas. A slot shown here that was just taken elsewhere is still
+ * protected by the atomic claim in {@link TimeSlotService#claimSlot}.
+ */
+@Service
+public class TimeSlotAvailabilityIndex {
+
+   private static final Logger log = LoggerFactory.getLogger(TimeSlotAvailabilityIndex.class);
+   private static final UUID LOWEST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+   private final TimeSlotRepository timeSlotRepository;
+   private final Clock clock;
+   private final ConcurrentSkipListMap<SlotKey, TimeSlotDTO> freeSlots = new ConcurrentSkipListMap<>();
+   private final Map<UUID, SlotKey> keysById = new ConcurrentHashMap<>();
+
+   @Autowired
+   public TimeSlotAvailabilityIndex(TimeSlotRepository timeSlotRepository) {
+      this(timeSlotRepository, Clock.systemDefaultZone());
+   }
+
+   TimeSlotAvailabilityIndex(TimeSlotRepository timeSlotRepository, Clock clock) {
+      this.timeSlotRepository = timeSlotRepository;
+      this.clock = clock;
+   }
+
+   /**
+    * Returns free slots that have not ended yet, ordered by start time.
+    *
+    * @param from The earliest start time to include, or {@code null} for no lower bound.
+    * @param to   The start time to stop before, or {@code null} for no upper bound.
+    * @param page The zero-based page number.
+    * @param size The page size.
+    * @return The requested page of free slots.
+    */
+   public List<TimeSlotDTO> findAvailable(LocalDateTime from, LocalDateTime to, int page, int size) {
+      LocalDateTime now = LocalDateTime.now(clock);
+      NavigableMap<SlotKey, TimeSlotDTO> range = freeSlots;
+      if (from != null) {
+         range = range.tailMap(new SlotKey(from, LOWEST_ID), true);
+      }
+      if (to != null) {
+         range = range.headMap(new SlotKey(to, LOWEST_ID), false);
+      }
+      return range.values().stream()
+         .filter(slot -> slot.getEndTime().isAfter(now))
+         .skip((long) page * size)
+         .limit(size)
+         .toList();
+   }
+
+   /**
+    * Applies a committed change to a time slot.
+    *
+    * @param event The change.
+    */
+   @TransactionalEventListener(fallbackExecution = true)
+   public void onTimeSlotChanged(TimeSlotChangedEvent event) {
+      apply(event.slot());
+   }
+
+   /**
+    * Reloads the index from the database, dropping slots that were booked or have ended.
+    */
+   @EventListener(ApplicationReadyEvent.class)
+   @Scheduled(fixedDelayString = "${app.availability-index.refresh-interval-ms:60000}",
+      initialDelayString = "${app.availability-index.refresh-interval-ms:60000}")
+   public void refresh() {
+      List<TimeSlotDTO> slots = timeSlotRepository.findByBookedFalseAndEndTimeAfterOrderByStartTimeAsc(LocalDateTime.now(clock))
+         .stream()
+         .map(TimeSlotDTO::new)
+         .toList();
+
+      Set<UUID> loaded = new HashSet<>(slots.size());
+      for (TimeSlotDTO slot : slots) {
+         loaded.add(slot.getId());
+         apply(slot);
+      }
+      // Remove stale entries one by one rather than clearing, so readers never see an empty index
+      keysById.keySet().stream()
+         .filter(id -> !loaded.contains(id))
+         .toList()
+         .forEach(this::remove);
+      log.debug("Availability index refreshed with {} free slots", loaded.size());
+   }
+
+   private void apply(TimeSlotDTO slot) {
+      boolean available = !slot.isBooked() && slot.getEndTime().isAfter(LocalDateTime.now(clock));
+      keysById.compute(slot.getId(), (id, previous) -> {
+         if (previous != null) {
+            freeSlots.remove(previous);
+         }
+         if (!available) {
+            return null;
+         }
+         SlotKey key = new SlotKey(slot.getStartTime(), id);
+         freeSlots.put(key, slot);
+         return key;
+      });
+   }
+
+   private void remove(UUID slotId) {
+      keysById.computeIfPresent(slotId, (id, key) -> {
+         freeSlots.remove(key);
+         return null;
+      });
+   }
+
+   private record SlotKey(LocalDateTime startTime, UUID id) implements Comparable<SlotKey> {
+
+      @Override
+      public int compareTo(SlotKey other) {
+         int byStart = startTime.compareTo(other.startTime);
+         return byStart != 0 ? byStart : id.compareTo(other.id);
+      }
+   }
+}
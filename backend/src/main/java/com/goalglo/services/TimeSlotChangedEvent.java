@@ -0,0 +1,11 @@
+package com.goalglo.services;
+
+import com.goalglo.dto.TimeSlotDTO;
+
+/**
+ * Published by {@link TimeSlotService} whenever a time slot is created, booked or released.
+ *
+ * @param slot The state of the slot after the change.
+ */
+public record TimeSlotChangedEvent(TimeSlotDTO slot) {
+}
@@ -1,40 +1,75 @@
 package com.goalglo.services;
 
 import com.goalglo.common.ResourceNotFoundException;
+import com.goalglo.common.SlotUnavailableException;
 import com.goalglo.dto.TimeSlotDTO;
 import com.goalglo.entities.Appointment;
 import com.goalglo.entities.TimeSlot;
 import com.goalglo.repositories.TimeSlotRepository;
+import com.goalglo.util.BatchInserter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class TimeSlotService {
 
    private final TimeSlotRepository timeSlotRepository;
+   private final TimeSlotAvailabilityIndex availabilityIndex;
+   private final ApplicationEventPublisher eventPublisher;
+   private final BatchInserter batchInserter;
 
    @Autowired
-   public TimeSlotService(TimeSlotRepository timeSlotRepository) {
+   public TimeSlotService(TimeSlotRepository timeSlotRepository, TimeSlotAvailabilityIndex availabilityIndex,
+                          ApplicationEventPublisher eventPublisher, BatchInserter batchInserter) {
       this.timeSlotRepository = timeSlotRepository;
+      this.availabilityIndex = availabilityIndex;
+      this.eventPublisher = eventPublisher;
+      this.batchInserter = batchInserter;
    }
 
    /**
-    * Retrieves all available time slots.
+    * Retrieves available time slots from the in-memory availability index.
     *
-    * @return List of available TimeSlotDTOs.
+    * @param from The earliest start time to include, or {@code null} for no lower bound.
+    * @param to   The start time to stop before, or {@code null} for no upper bound.
+    * @param page The zero-based page number.
+    * @param size The page size.
+    * @return List of available TimeSlotDTOs ordered by start time.
     */
-   public List<TimeSlotDTO> getAvailableSlots() {
-      return timeSlotRepository.findByBookedFalseAndEndTimeAfterOrderByStartTimeAsc(LocalDateTime.now())
-         .stream()
-         .map(TimeSlotDTO::new)
-         .collect(Collectors.toList());
+   public List<TimeSlotDTO> getAvailableSlots(LocalDateTime from, LocalDateTime to, int page, int size) {
+      return availabilityIndex.findAvailable(from, to, page, size);
+   }
+
+   /**
+    * Atomically claims a free time slot. Must run inside the transaction that creates the booking,
+    * so the claim is released again if the booking fails.
+    *
+    * @param slotId The UUID of the time slot to claim.
+    * @return The claimed time slot.
+    * @throws ResourceNotFoundException if the time slot is not found.
+    * @throws SlotUnavailableException  if the time slot is already booked.
+    */
+   @Transactional(propagation = Propagation.MANDATORY)
+   public TimeSlot claimSlot(UUID slotId) {
+      if (timeSlotRepository.claimIfAvailable(slotId, LocalDateTime.now()) == 0) {
+         if (!timeSlotRepository.existsById(slotId)) {
+            throw new ResourceNotFoundException("TimeSlot not found");
+         }
+         throw new SlotUnavailableException("Time slot is already booked");
+      }
+      TimeSlot slot = timeSlotRepository.findById(slotId)
+         .orElseThrow(() -> new ResourceNotFoundException("TimeSlot not found"));
+      publishChange(slot);
+      return slot;
    }
 
    /**
@@ -42,19 +77,12 @@ public class TimeSlotService {
     *
     * @param slotId      The UUID of the time slot to be booked.
     * @param appointment The appointment to associate with the booked time slot.
-    * @throws ResourceNotFoundException  if the time slot is not found.
+    * @throws ResourceNotFoundException if the time slot is not found.
+    * @throws SlotUnavailableException  if the time slot is already booked.
     */
+   @Transactional(propagation = Propagation.MANDATORY)
    public void bookSlot(UUID slotId, Appointment appointment) {
-      timeSlotRepository.findById(slotId).map(slot -> {
-         if (!slot.isBooked()) {
-            slot.setBooked(true);
-            slot.setAppointment(appointment);
-            timeSlotRepository.save(slot);
-            return new TimeSlotDTO(slot);
-         } else {
-            return ("This slot is already booked");
-         }
-      }).orElseThrow(() -> new ResourceNotFoundException("Slot not found"));
+      claimSlot(slotId).setAppointment(appointment);
    }
 
    /**
@@ -66,7 +94,7 @@ public class TimeSlotService {
       timeSlotRepository.findById(slotId).ifPresent(slot -> {
          slot.setBooked(false);
          slot.setAppointment(null);
-         timeSlotRepository.save(slot);
+         publishChange(timeSlotRepository.save(slot));
       });
    }
 
@@ -80,7 +108,7 @@ public class TimeSlotService {
       TimeSlot timeSlot = new TimeSlot();
       timeSlot.setStartTime(timeSlotDTO.getStartTime());
       timeSlot.setEndTime(timeSlotDTO.getEndTime());
-      return new TimeSlotDTO(timeSlotRepository.save(timeSlot));
+      return publishChange(timeSlotRepository.save(timeSlot));
    }
 
    /**
@@ -90,14 +118,17 @@ public class TimeSlotService {
     * @return List of created TimeSlotDTOs.
     */
    public List<TimeSlotDTO> createTimeSlotsBatch(List<TimeSlotDTO> timeSlotsDTOs) {
-      List<TimeSlot> slots = new ArrayList<>();
-      for (TimeSlotDTO dto : timeSlotsDTOs) {
-         TimeSlot slot = new TimeSlot();
-         slot.setStartTime(dto.getStartTime());
-         slot.setEndTime(dto.getEndTime());
-         slots.add(timeSlotRepository.save(slot));
-      }
-      return slots.stream().map(TimeSlotDTO::new).collect(Collectors.toList());
+      List<TimeSlot> slots = timeSlotsDTOs.stream()
+         .map(dto -> {
+            TimeSlot slot = new TimeSlot();
+            slot.setStartTime(dto.getStartTime());
+            slot.setEndTime(dto.getEndTime());
+            return slot;
+         })
+         .toList();
+      List<TimeSlotDTO> created = new ArrayList<>(slots.size());
+      batchInserter.insertAll("time slots", slots, chunk -> chunk.forEach(slot -> created.add(publishChange(slot))));
+      return created;
    }
 
 
@@ -107,13 +138,27 @@ public class TimeSlotService {
 
    /**
     * Creates multiple time slots from the provided list of time slot DTOs.
+    * Rows are written with JDBC batching in chunked transactions.
     *
     * @param timeSlots A list of TimeSlotDTO objects to be converted into TimeSlot entities and saved in the database.
+    * @return The number of time slots created.
     */
-   public void bulkCreateTimeSlots(List<TimeSlotDTO> timeSlots) {
-      for (TimeSlotDTO timeSlotDTO : timeSlots) {
-         TimeSlot timeSlot = new TimeSlot(timeSlotDTO);
-         timeSlotRepository.save(timeSlot);
-      }
+   public int bulkCreateTimeSlots(List<TimeSlotDTO> timeSlots) {
+      List<TimeSlot> slots = timeSlots.stream().map(TimeSlot::new).toList();
+      batchInserter.insertAll("time slots", slots, chunk -> chunk.forEach(this::publishChange));
+      return slots.size();
+   }
+
+   /**
+    * Notifies the availability index of a slot's new state. Inside a transaction the index is only
+    * updated after commit, so rolled-back bookings never show up.
+    *
+    * @param slot The changed time slot.
+    * @return The DTO that was published.
+    */
+   private TimeSlotDTO publishChange(TimeSlot slot) {
+      TimeSlotDTO dto = new TimeSlotDTO(slot);
+      eventPublisher.publishEvent(new TimeSlotChangedEvent(dto));
+      return dto;
    }
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.goalglo.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.goalglo.dto.TransactionDTO;
+import com.goalglo.entities.User;
+import com.goalglo.repositories.TransactionRepository;
+import com.goalglo.tokens.JwtUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes transactions out as CSV or newline-delimited JSON for download.
+ * <p>
+ * Rows are read with a single query through a forward-only cursor inside a read-only transaction, fetched
+ * {@value TransactionRepository#EXPORT_FETCH_SIZE} at a time, and written to the response as they arrive. Rows are
+ * projected straight into DTOs, so nothing accumulates in the persistence context and memory use does not grow
+ * with the size of the export.
+ */
+@Service
+public class TransactionExportService {
+
+   /**
+    * Column order of CSV exports.
+    */
+   private static final String[] CSV_COLUMNS = {
+      "id", "transactionDate", "type", "amount", "description", "userId", "paymentId", "serviceId"};
+
+   private static final int BUFFER_SIZE = 64 * 1024;
+
+   private final TransactionRepository transactionRepository;
+   private final JwtUtils jwtUtils;
+   private final TransactionTemplate readOnlyTransaction;
+   private final ObjectWriter csvWriter;
+   private final ObjectWriter ndjsonWriter;
+
+   @Autowired
+   public TransactionExportService(TransactionRepository transactionRepository, JwtUtils jwtUtils,
+                                   PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+      this.transactionRepository = transactionRepository;
+      this.jwtUtils = jwtUtils;
+      this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+      this.readOnlyTransaction.setReadOnly(true);
+      CsvMapper csvMapper = CsvMapper.builder()
+         .findAndAddModules()
+         .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+         .build();
+      // The output is closed only after the last row, so a failed export is not mistaken for a complete one
+      this.csvWriter = csvMapper.writer(csvMapper.schemaFor(TransactionDTO.class).sortedBy(CSV_COLUMNS).withHeader())
+         .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      this.ndjsonWriter = objectMapper.writerFor(TransactionDTO.class).withRootValueSeparator("\n")
+         .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+   }
+
+   public enum Format {
+      CSV("text/csv", "csv"), NDJSON("application/x-ndjson", "ndjson");
+
+      private final String contentType;
+      private final String extension;
+
+      Format(String contentType, String extension) {
+         this.contentType = contentType;
+         this.extension = extension;
+      }
+
+      public String contentType() {
+         return contentType;
+      }
+
+      public String extension() {
+         return extension;
+      }
+
+      /**
+       * Looks up a format by name, ignoring case, so {@code csv} and {@code CSV} both work.
+       *
+       * @param name The name of the format.
+       * @return The format.
+       * @throws IllegalArgumentException If no format has the name.
+       */
+      public static Format parse(String name) {
+         for (Format format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+               return format;
+            }
+         }
+         throw new IllegalArgumentException("Unknown export format: " + name);
+      }
+   }
+
+   /**
+    * Prepares an export of the authenticated user's transactions. The user is resolved on the calling thread;
+    * the rows are read when the returned body is written.
+    *
+    * @param authentication The authentication object to get the logged-in user.
+    * @param format         The output format.
+    * @param gzip           Whether to gzip the output.
+    * @return The response body.
+    */
+   public StreamingResponseBody exportUserTransactions(Authentication authentication, Format format, boolean gzip) {
+      User currentUser = jwtUtils.getCurrentUser(authentication).orElseThrow(() -> new RuntimeException("User not found"));
+      UUID userId = currentUser.getId();
+      return out -> export(() -> transactionRepository.streamDTOsByUserId(userId), format, gzip, out);
+   }
+
+   /**
+    * Prepares an export of every user's transactions.
+    *
+    * @param format The output format.
+    * @param gzip   Whether to gzip the output.
+    * @return The response body.
+    */
+   public StreamingResponseBody exportAllTransactions(Format format, boolean gzip) {
+      return out -> export(transactionRepository::streamAllDTOs, format, gzip, out);
+   }
+
+   void export(Supplier<Stream<TransactionDTO>> query, Format format, boolean gzip, OutputStream out) throws IOException {
+      OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : new BufferedOutputStream(out, BUFFER_SIZE);
+      try {
+         readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<TransactionDTO> rows = query.get();
+                 SequenceWriter writer = (format == Format.CSV ? csvWriter : ndjsonWriter).writeValues(target)) {
+               Iterator<TransactionDTO> iterator = rows.iterator();
+               while (iterator.hasNext()) {
+                  writer.write(iterator.next());
+               }
+            } catch (IOException e) {
+               // The client went away; rolling back releases the cursor
+               throw new UncheckedIOException(e);
+            }
+         });
+      } catch (UncheckedIOException e) {
+         throw e.getCause();
+      }
+      target.close();
+   }
+}
@@ -0,0 +1,176 @@
+package com.goalglo.services;
+
+import com.goalglo.config.SecretConfig;
+import com.goalglo.dto.TransactionSeriesPointDTO;
+import com.goalglo.entities.Transaction;
+import com.goalglo.entities.TransactionRollup;
+import com.goalglo.entities.TransactionRollup.Granularity;
+import com.goalglo.entities.User;
+import com.goalglo.repositories.TransactionRollupRepository;
+import com.goalglo.tokens.JwtUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps per-day and per-month totals of every user's transactions for dashboard charts.
+ * <p>
+ * Each recorded transaction is added to its day and month buckets with an upsert in the transaction that inserts
+ * it, so a series for any range reads at most one row per bucket and type instead of every transaction. Existing
+ * history is loaded by a backfill that walks users in chunks of {@code app.rollups.backfill-chunk-size} and
+ * rebuilds each chunk's buckets with grouped inserts in the database. The backfill runs in the background on
+ * startup while no rollups exist, or on every startup with {@code app.rollups.rebuild-on-startup}.
+ */
+@Service
+public class TransactionRollupService {
+
+   private static final Logger log = LoggerFactory.getLogger(TransactionRollupService.class);
+
+   private static final UUID FIRST_USER_ID = new UUID(0, 0);
+
+   private final TransactionRollupRepository rollupRepository;
+   private final JwtUtils jwtUtils;
+   private final TransactionTemplate transactionTemplate;
+   private final SecretConfig.Rollups config;
+   private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+   @Autowired
+   public TransactionRollupService(TransactionRollupRepository rollupRepository, JwtUtils jwtUtils,
+                                   PlatformTransactionManager transactionManager, SecretConfig secretConfig) {
+      this.rollupRepository = rollupRepository;
+      this.jwtUtils = jwtUtils;
+      this.transactionTemplate = new TransactionTemplate(transactionManager);
+      this.config = secretConfig.getRollups();
+   }
+
+   /**
+    * Adds a newly inserted transaction to its day and month buckets. Must run in the transaction that inserted
+    * it, so the transaction and its buckets commit or roll back together.
+    *
+    * @param transaction The transaction that was inserted.
+    */
+   @Transactional(propagation = Propagation.MANDATORY)
+   public void applyTransaction(Transaction transaction) {
+      LocalDate date = transaction.getTransactionDate().toLocalDate();
+      LocalDateTime now = LocalDateTime.now();
+      for (Granularity granularity : Granularity.values()) {
+         rollupRepository.addToBucket(UUID.randomUUID(), transaction.getUser().getId(), granularity.name(),
+            granularity.bucketStart(date), transaction.getType(), transaction.getAmount(), now);
+      }
+   }
+
+   /**
+    * Returns the authenticated user's income and expenses per bucket between two dates, read from the rollups
+    * only. Every bucket in the range is present, with zero totals where there were no transactions.
+    *
+    * @param authentication The authentication object to get the logged-in user.
+    * @param granularity    The bucket size.
+    * @param from           The first date of the range.
+    * @param to             The last date of the range, inclusive.
+    * @return One point per bucket, in date order.
+    * @throws IllegalArgumentException If the range is reversed or has more than
+    *                                  {@code app.rollups.max-series-points} buckets.
+    */
+   public List<TransactionSeriesPointDTO> getSeries(Authentication authentication, Granularity granularity,
+                                                    LocalDate from, LocalDate to) {
+      User currentUser = jwtUtils.getCurrentUser(authentication).orElseThrow(() -> new RuntimeException("User not found"));
+      LocalDate first = granularity.bucketStart(from);
+      LocalDate last = granularity.bucketStart(to);
+      if (last.isBefore(first)) {
+         throw new IllegalArgumentException("Series range ends before it starts");
+      }
+      if (granularity.bucketsBetween(first, last) > config.getMaxSeriesPoints()) {
+         throw new IllegalArgumentException("Series range has more than " + config.getMaxSeriesPoints() + " points");
+      }
+
+      List<TransactionSeriesPointDTO> stored = rollupRepository.findSeries(currentUser.getId(), granularity, first, last);
+      List<TransactionSeriesPointDTO> series = new ArrayList<>();
+      int next = 0;
+      for (LocalDate bucket = first; !bucket.isAfter(last); bucket = granularity.nextBucket(bucket)) {
+         if (next < stored.size() && stored.get(next).getBucketStart().equals(bucket)) {
+            series.add(stored.get(next++));
+         } else {
+            series.add(new TransactionSeriesPointDTO(bucket, BigDecimal.ZERO, BigDecimal.ZERO, 0));
+         }
+      }
+      return series;
+   }
+
+   /**
+    * Starts the backfill in the background when the rollups are empty or a rebuild was requested.
+    */
+   @EventListener(ApplicationReadyEvent.class)
+   public void backfillOnStartup() {
+      if (config.isRebuildOnStartup() || !rollupRepository.existsAny()) {
+         executor.execute(() -> {
+            try {
+               backfill();
+            } catch (RuntimeException e) {
+               log.error("Transaction rollup backfill failed", e);
+            }
+         });
+      }
+   }
+
+   /**
+    * Rebuilds every user's rollups from their transactions, one chunk of users per database transaction.
+    * <p>
+    * Each chunk locks its users first, which waits for their in-flight transactions to commit and holds back new
+    * ones until the chunk is rebuilt. Every transaction is therefore counted exactly once, either by the rebuild
+    * or by the upsert that follows its insert, and the backfill can run while the application takes traffic.
+    *
+    * @return The number of users whose rollups were rebuilt.
+    */
+   public int backfill() {
+      log.info("Rebuilding transaction rollups in chunks of {} users", config.getBackfillChunkSize());
+      UUID after = FIRST_USER_ID;
+      int users = 0;
+      while (!Thread.currentThread().isInterrupted()) {
+         List<UUID> chunk = rollupRepository.findUserIdsAfter(after, PageRequest.of(0, config.getBackfillChunkSize()));
+         if (chunk.isEmpty()) {
+            log.info("Rebuilt transaction rollups of {} users", users);
+            return users;
+         }
+         transactionTemplate.executeWithoutResult(status -> rebuild(chunk));
+         users += chunk.size();
+         after = chunk.get(chunk.size() - 1);
+      }
+      log.warn("Transaction rollup backfill interrupted after {} users", users);
+      return users;
+   }
+
+   private void rebuild(List<UUID> userIds) {
+      rollupRepository.lockUsers(userIds);
+      rollupRepository.deleteByUserIds(userIds);
+      LocalDateTime now = LocalDateTime.now();
+      for (Granularity granularity : Granularity.values()) {
+         rollupRepository.rebuildBuckets(userIds, granularity.name(), granularity.unit(), now);
+      }
+   }
+
+   @PreDestroy
+   public void shutdown() throws InterruptedException {
+      executor.shutdownNow();
+      executor.awaitTermination(30, TimeUnit.SECONDS);
+   }
+}
@@ -1,49 +1,98 @@
 package com.goalglo.services;
 
+import com.goalglo.dto.CursorPageDTO;
 import com.goalglo.dto.TransactionDTO;
 import com.goalglo.entities.Transaction;
 import com.goalglo.entities.User;
 import com.goalglo.repositories.TransactionRepository;
 import com.goalglo.tokens.JwtUtils;
+import com.goalglo.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class TransactionService {
 
   private final TransactionRepository transactionRepository;
+  private final AccountSummaryService accountSummaryService;
+  private final TransactionRollupService transactionRollupService;
   private final JwtUtils jwtUtils;
 
   @Autowired
-  public TransactionService(TransactionRepository transactionRepository, JwtUtils jwtUtils) {
+  public TransactionService(TransactionRepository transactionRepository, AccountSummaryService accountSummaryService,
+                            TransactionRollupService transactionRollupService, JwtUtils jwtUtils) {
     this.transactionRepository = transactionRepository;
+    this.accountSummaryService = accountSummaryService;
+    this.transactionRollupService = transactionRollupService;
     this.jwtUtils = jwtUtils;
   }
 
+  /**
+   * Records a transaction and adds it to the user's account summary and daily and monthly rollups in the same
+   * database transaction.
+   *
+   * @param transaction The new transaction.
+   * @return The saved transaction.
+   */
+  @Transactional
+  public Transaction recordTransaction(Transaction transaction) {
+    Transaction saved = transactionRepository.save(transaction);
+    accountSummaryService.applyTransaction(saved);
+    transactionRollupService.applyTransaction(saved);
+    return saved;
+  }
+
   /**
    * Get transactions for a specific user
    */
   public Page<TransactionDTO> getUserTransactions(Authentication authentication, Pageable pageable) {
     User currentUser = jwtUtils.getCurrentUser(authentication).orElseThrow(() -> new RuntimeException("User not found"));
 
-    return transactionRepository.findByUserId(currentUser.getId(), pageable)
-        .map(this::convertToDTO);
+    return transactionRepository.findDTOsByUserId(currentUser.getId(), pageable);
+  }
+
+  /**
+   * Retrieves one page of the authenticated user's transactions, newest first. Unlike
+   * {@link #getUserTransactions}, pages are found by seeking past the cursor and no total is counted.
+   *
+   * @param authentication The authentication object to get the logged-in user.
+   * @param cursor         The nextCursor of the previous page, or null for the first page.
+   * @param size           The page size.
+   * @return The page of transactions and the cursor for the next one.
+   * @throws IllegalArgumentException If the cursor is malformed.
+   */
+  public CursorPageDTO<TransactionDTO> getUserTransactionFeed(Authentication authentication, String cursor, int size) {
+    User currentUser = jwtUtils.getCurrentUser(authentication).orElseThrow(() -> new RuntimeException("User not found"));
+
+    // Fetch one extra row to learn whether another page exists
+    Pageable limit = PageRequest.of(0, size + 1);
+    List<TransactionDTO> rows;
+    if (cursor == null) {
+      rows = transactionRepository.findLatestDTOsByUserId(currentUser.getId(), limit);
+    } else {
+      KeysetCursor after = KeysetCursor.decode(cursor);
+      rows = transactionRepository.findDTOsByUserIdAfter(currentUser.getId(), after.timestamp(), after.id(), limit);
+    }
+    if (rows.size() <= size) {
+      return new CursorPageDTO<>(rows, null);
+    }
+    List<TransactionDTO> page = rows.subList(0, size);
+    TransactionDTO last = page.get(size - 1);
+    return new CursorPageDTO<>(page, new KeysetCursor(last.getTransactionDate(), last.getId()).encode());
   }
 
   /**
    * Get all transactions
    */
   public Page<TransactionDTO> getAllTransactions(Pageable pageable) {
-    return transactionRepository.findAll(pageable)
-        .map(this::convertToDTO);
+    return transactionRepository.findAllDTOs(pageable);
   }
 
   /**
@@ -51,27 +100,6 @@ public class TransactionService {
    */
   public List<TransactionDTO> getRecentTransactions(Authentication authentication, int limit) {
     User currentUser = jwtUtils.getCurrentUser(authentication).orElseThrow(() -> new RuntimeException("User not found"));
-    Pageable pageable = PageRequest.of(0, limit, Sort.by("transactionDate").descending());
-    return transactionRepository.findByUserId(currentUser.getId(), pageable)
-        .getContent()
-        .stream()
-        .map(this::convertToDTO)
-        .collect(Collectors.toList());
-  }
-
-  /**
-   * Convert a Transaction entity to a TransactionDTO
-   */
-  private TransactionDTO convertToDTO(Transaction transaction) {
-    TransactionDTO dto = new TransactionDTO();
-    dto.setId(transaction.getId());
-    dto.setUserId(transaction.getUser().getId());
-    dto.setPaymentId(transaction.getPayment() != null ? transaction.getPayment().getId() : null);
-    dto.setServiceId(transaction.getService() != null ? transaction.getService().getId() : null);
-    dto.setAmount(transaction.getAmount());
-    dto.setType(transaction.getType());
-    dto.setDescription(transaction.getDescription());
-    dto.setTransactionDate(transaction.getTransactionDate());
-    return dto;
+    return transactionRepository.findLatestDTOsByUserId(currentUser.getId(), PageRequest.of(0, limit));
   }
-}
\ No newline at end of file
+}
@@ -1,6 +1,5 @@
 package com.goalglo.services;
 
-import com.goalglo.aws.AwsSesService;
 import com.goalglo.common.ResourceNotFoundException;
 import com.goalglo.common.TokenCommons;
 import com.goalglo.config.SecretConfig;
@@ -18,8 +17,10 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Consumer;
@@ -33,7 +34,7 @@ public class UserService {
    private final BCryptPasswordEncoder passwordEncoder;
    private final EmailVerificationTokenRepository emailVerificationTokenRepository;
    private final EmailTemplateService emailTemplateService;
-   private final AwsSesService awsSesService;
+   private final EmailOutboxService emailOutboxService;
    private final UuidTokenService uuidTokenService;
    private final SecretConfig secretConfig;
    private final JwtTokenUtil jwtTokenUtil;
@@ -42,13 +43,13 @@ public class UserService {
    @Autowired
    public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder,
                       EmailVerificationTokenRepository emailVerificationTokenRepository, EmailTemplateService emailTemplateService,
-                      AwsSesService awsSesService, UuidTokenService uuidTokenService, SecretConfig secretConfig,
+                      EmailOutboxService emailOutboxService, UuidTokenService uuidTokenService, SecretConfig secretConfig,
                       JwtTokenUtil jwtTokenUtil, RoleRepository roleRepository) {
       this.userRepository = userRepository;
       this.passwordEncoder = passwordEncoder;
       this.emailVerificationTokenRepository = emailVerificationTokenRepository;
       this.emailTemplateService = emailTemplateService;
-      this.awsSesService = awsSesService;
+      this.emailOutboxService = emailOutboxService;
       this.uuidTokenService = uuidTokenService;
       this.secretConfig = secretConfig;
       this.jwtTokenUtil = jwtTokenUtil;
@@ -66,6 +67,7 @@ public class UserService {
     *             upgraded.
     *             Otherwise, a new account will be created.
     */
+   @Transactional
    public void registerUser(User user) {
 
       Role publicRole = roleRepository.findByName(secretConfig.getRoles().getPublicRole())
@@ -124,11 +126,10 @@ public class UserService {
       String emailVerificationTemplate = secretConfig.getEmail().getTemplates().getEmailVerification();
       String domain = secretConfig.getActiveDomain();
 
-      String subject = emailTemplateService.getSubjectByTemplateName(emailVerificationTemplate);
-      String body = emailTemplateService.getBodyByTemplateName(emailVerificationTemplate)
-         .replace("{verificationUrl}", domain + "/verify-email?token=" + token);
+      EmailTemplateService.RenderedEmail email = emailTemplateService.render(emailVerificationTemplate,
+         Map.of("verificationUrl", domain + "/verify-email?token=" + token));
 
-      awsSesService.sendEmail(user.getEmail(), subject, body);
+      emailOutboxService.enqueue(user.getEmail(), email.subject(), email.body());
    }
 
 
@@ -211,6 +212,7 @@ public class UserService {
     * @return An Optional containing the updated UserDTO if the user was found and
     *         updated, or an empty Optional if the user was not found.
     */
+   @Transactional
    public Optional<UserDTO> updateUser(UUID userId, User updatedUser) {
       return userRepository.findById(userId).map(user -> {
          boolean emailUpdated = updatedUser.getEmail() != null && !updatedUser.getEmail().equals(user.getEmail());
@@ -0,0 +1,63 @@
+package com.goalglo.util;
+
+import com.goalglo.config.SecretConfig;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Inserts large lists of new entities using Hibernate JDBC batching.
+ * <p>
+ * Entities are persisted in chunks of {@code app.bulk-import.chunk-size}, each in its own transaction,
+ * and the persistence context is flushed and cleared after every chunk so memory stays flat. With
+ * client-generated UUIDs and {@code hibernate.jdbc.batch_size} set, each flush is sent as a few batched
+ * statements instead of one round trip per row. If a chunk fails, the chunks before it stay committed.
+ */
+@Component
+public class BatchInserter {
+
+   private static final Logger log = LoggerFactory.getLogger(BatchInserter.class);
+
+   private final EntityManager entityManager;
+   private final TransactionTemplate transactionTemplate;
+   private final int chunkSize;
+
+   public BatchInserter(EntityManager entityManager, PlatformTransactionManager transactionManager, SecretConfig secretConfig) {
+      this.entityManager = entityManager;
+      this.transactionTemplate = new TransactionTemplate(transactionManager);
+      this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+      this.chunkSize = secretConfig.getBulkImport().getChunkSize();
+   }
+
+   /**
+    * Persists new entities chunk by chunk.
+    *
+    * @param label            A name for the entities, used in progress logs.
+    * @param entities         The new entities to insert.
+    * @param onChunkCommitted Called with each chunk after its transaction has committed.
+    * @param <T>              The entity type.
+    */
+   public <T> void insertAll(String label, List<T> entities, Consumer<List<T>> onChunkCommitted) {
+      int total = entities.size();
+      for (int from = 0; from < total; from += chunkSize) {
+         List<T> chunk = entities.subList(from, Math.min(from + chunkSize, total));
+         long start = System.nanoTime();
+         transactionTemplate.executeWithoutResult(status -> {
+            chunk.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+         });
+         onChunkCommitted.accept(chunk);
+         log.info("Imported {}/{} {} in {} ms", from + chunk.size(), total, label,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      }
+   }
+}
@@ -1,19 +1,50 @@
 package com.goalglo.util;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.goalglo.config.SecretConfig;
+import com.goalglo.security.ratelimit.ClusterRateLimiter;
+import com.goalglo.security.ratelimit.JdbcRateLimitStore;
+import com.goalglo.security.ratelimit.RateLimitPolicyResolver;
+import com.goalglo.security.ratelimit.RateLimiter;
+import com.goalglo.security.ratelimit.SlidingWindowRateLimiter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.stream.Stream;
 
 @Configuration
 public class CacheConfig {
 
+   private final SecretConfig secretConfig;
+
+   public CacheConfig(SecretConfig secretConfig) {
+      this.secretConfig = secretConfig;
+   }
+
+   @Bean
+   @ConditionalOnProperty(prefix = "app.rate-limit", name = "mode", havingValue = "local", matchIfMissing = true)
+   public RateLimiter rateLimiter() {
+      SecretConfig.RateLimit rateLimit = secretConfig.getRateLimit();
+      // Keep idle keys for two of the longest windows so the previous window is still weighted
+      Duration longestWindow = Stream.concat(
+            Stream.of(rateLimit.getAnonymous(), rateLimit.getAuthenticated()),
+            rateLimit.getRoutes().stream())
+         .map(SecretConfig.RateLimit.Policy::getWindow)
+         .max(Duration::compareTo)
+         .orElse(Duration.ofMinutes(1));
+      return new SlidingWindowRateLimiter(rateLimit.getMaximumKeys(), longestWindow.multipliedBy(2));
+   }
+
+   @Bean
+   @ConditionalOnProperty(prefix = "app.rate-limit", name = "mode", havingValue = "cluster")
+   public RateLimiter clusterRateLimiter(JdbcTemplate jdbcTemplate) {
+      return new ClusterRateLimiter(new JdbcRateLimitStore(jdbcTemplate), secretConfig.getRateLimit().getMaximumKeys());
+   }
+
    @Bean
-   public LoadingCache<String, Integer> requestCountsPerIpAddress() {
-      return Caffeine.newBuilder()
-         .expireAfterWrite(1, TimeUnit.MINUTES)
-         .build(key -> 0);
+   public RateLimitPolicyResolver rateLimitPolicyResolver() {
+      return new RateLimitPolicyResolver(secretConfig.getRateLimit());
    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+package com.goalglo.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A text template pre-parsed into literal segments and {@code {placeholder}} tokens.
+ * <p>
+ * Placeholder names may contain letters, digits, {@code _}, {@code -} and {@code .}; any other brace,
+ * such as a CSS rule in an HTML body, is kept as literal text. Placeholders without a value are
+ * rendered unchanged, so a template can be rendered with only the variables it needs.
+ */
+public final class CompiledTemplate {
+
+   private static final int MAX_PLACEHOLDER_LENGTH = 64;
+
+   // segments[i] is a literal when placeholders[i] is false, otherwise a placeholder name
+   private final String[] segments;
+   private final boolean[] placeholders;
+   private final int literalLength;
+
+   private CompiledTemplate(String[] segments, boolean[] placeholders, int literalLength) {
+      this.segments = segments;
+      this.placeholders = placeholders;
+      this.literalLength = literalLength;
+   }
+
+   /**
+    * Parses a template source.
+    *
+    * @param source The template text.
+    * @return The compiled template.
+    */
+   public static CompiledTemplate compile(String source) {
+      List<String> segments = new ArrayList<>();
+      List<Boolean> placeholders = new ArrayList<>();
+      int literalLength = 0;
+      int literalStart = 0;
+      int i = 0;
+      while (i < source.length()) {
+         int end = source.charAt(i) == '{' ? placeholderEnd(source, i) : -1;
+         if (end < 0) {
+            i++;
+            continue;
+         }
+         if (i > literalStart) {
+            segments.add(source.substring(literalStart, i));
+            placeholders.add(false);
+            literalLength += i - literalStart;
+         }
+         segments.add(source.substring(i + 1, end));
+         placeholders.add(true);
+         i = end + 1;
+         literalStart = i;
+      }
+      if (literalStart < source.length()) {
+         segments.add(source.substring(literalStart));
+         placeholders.add(false);
+         literalLength += source.length() - literalStart;
+      }
+
+      boolean[] flags = new boolean[placeholders.size()];
+      for (int j = 0; j < flags.length; j++) {
+         flags[j] = placeholders.get(j);
+      }
+      return new CompiledTemplate(segments.toArray(String[]::new), flags, literalLength);
+   }
+
+   /**
+    * Renders the template in a single pass into a buffer sized for the exact output length.
+    *
+    * @param variables The placeholder values, keyed by placeholder name.
+    * @return The rendered text.
+    */
+   public String render(Map<String, String> variables) {
+      int length = literalLength;
+      for (int i = 0; i < segments.length; i++) {
+         if (placeholders[i]) {
+            String value = variables.get(segments[i]);
+            length += value != null ? value.length() : segments[i].length() + 2;
+         }
+      }
+
+      StringBuilder out = new StringBuilder(length);
+      for (int i = 0; i < segments.length; i++) {
+         if (!placeholders[i]) {
+            out.append(segments[i]);
+            continue;
+         }
+         String value = variables.get(segments[i]);
+         if (value != null) {
+            out.append(value);
+         } else {
+            out.append('{').append(segments[i]).append('}');
+         }
+      }
+      return out.toString();
+   }
+
+   /**
+    * Returns the index of the closing brace of a placeholder starting at {@code open}, or -1 if the brace does not start one.
+    */
+   private static int placeholderEnd(String source, int open) {
+      int limit = Math.min(source.length(), open + MAX_PLACEHOLDER_LENGTH + 2);
+      for (int i = open + 1; i < limit; i++) {
+         char c = source.charAt(i);
+         if (c == '}') {
+            return i > open + 1 ? i : -1;
+         }
+         if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+            return -1;
+         }
+      }
+      return -1;
+   }
+}
@@ -0,0 +1,43 @@
+package com.goalglo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a listing ordered by a timestamp and then by id, encoded as an opaque URL-safe string.
+ *
+ * @param timestamp The timestamp of the last item on the previous page.
+ * @param id        The id of the last item on the previous page.
+ */
+public record KeysetCursor(LocalDateTime timestamp, UUID id) {
+
+   private static final char SEPARATOR = '|';
+
+   public String encode() {
+      String raw = timestamp.toString() + SEPARATOR + id;
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+   }
+
+   /**
+    * Decodes a cursor produced by {@link #encode()}.
+    *
+    * @param cursor The encoded cursor.
+    * @return The decoded cursor.
+    * @throws IllegalArgumentException If the cursor is malformed.
+    */
+   public static KeysetCursor decode(String cursor) {
+      try {
+         String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+         int separator = raw.indexOf(SEPARATOR);
+         if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+         }
+         return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+      } catch (DateTimeParseException e) {
+         throw new IllegalArgumentException("Invalid cursor", e);
+      }
+   }
+}
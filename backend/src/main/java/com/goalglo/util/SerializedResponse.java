@@ -0,0 +1,56 @@
+package com.goalglo.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * A JSON response body serialised once and kept with its validators, so cached reads skip both the
+ * query and Jackson.
+ *
+ * @param body         The JSON body.
+ * @param eTag         The strong ETag of the body, quoted.
+ * @param lastModified When the underlying data last changed, truncated to the second precision of HTTP dates.
+ */
+public record SerializedResponse(byte[] body, String eTag, Instant lastModified) {
+
+   /**
+    * Serialises a value with the application's ObjectMapper, so the bytes match what Spring MVC would write.
+    *
+    * @param objectMapper The mapper to serialise with.
+    * @param value        The response value.
+    * @param lastModified When the value last changed.
+    * @return The serialised response.
+    */
+   public static SerializedResponse of(ObjectMapper objectMapper, Object value, Instant lastModified) {
+      try {
+         byte[] body = objectMapper.writeValueAsBytes(value);
+         return new SerializedResponse(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"",
+            lastModified.truncatedTo(ChronoUnit.SECONDS));
+      } catch (JsonProcessingException e) {
+         throw new IllegalStateException("Failed to serialise " + value.getClass().getSimpleName(), e);
+      }
+   }
+
+   /**
+    * Builds a 200 response carrying the validators. Spring answers a matching If-None-Match or
+    * If-Modified-Since with 304 Not Modified and drops the body.
+    *
+    * @param cacheControl The Cache-Control directives to send.
+    * @return The response entity.
+    */
+   public ResponseEntity<byte[]> toResponseEntity(CacheControl cacheControl) {
+      return ResponseEntity.ok()
+         .contentType(MediaType.APPLICATION_JSON)
+         .cacheControl(cacheControl)
+         .eTag(eTag)
+         .lastModified(lastModified)
+         .body(body);
+   }
+}
@@ -0,0 +1,136 @@
+package com.goalglo.aws;
+
+import com.goalglo.config.SecretConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against a local S3-compatible stand-in such as MinIO, e.g.
+ * {@code docker run -p 9000:9000 minio/minio server /data} with {@code S3_ENDPOINT=http://localhost:9000}.
+ */
+@EnabledIfEnvironmentVariable(named = "S3_ENDPOINT", matches = ".+")
+class AwsS3ServiceTest {
+
+    private SecretConfig secretConfig;
+    private S3Client verifier;
+    private AwsS3Service awsS3Service;
+
+    @BeforeEach
+    void setUp() {
+        SecretConfig.Aws aws = new SecretConfig.Aws();
+        aws.setEndpoint(System.getenv("S3_ENDPOINT"));
+        aws.setAccessKeyId(env("S3_ACCESS_KEY_ID", "minioadmin"));
+        aws.setSecretAccessKey(env("S3_SECRET_ACCESS_KEY", "minioadmin"));
+        aws.setRegion("us-east-1");
+        aws.setBucketName("goalglo-test-" + UUID.randomUUID());
+        aws.setPathStyleAccess(true);
+        // Small parts so the test file goes through the multipart path
+        aws.getUpload().setMultipartThreshold(DataSize.ofMegabytes(5));
+        aws.getUpload().setPartSize(DataSize.ofMegabytes(5));
+        secretConfig = new SecretConfig();
+        secretConfig.setAws(aws);
+
+        verifier = S3Client.builder()
+            .endpointOverride(URI.create(aws.getEndpoint()))
+            .region(Region.of(aws.getRegion()))
+            .credentialsProvider(StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(aws.getAccessKeyId(), aws.getSecretAccessKey())))
+            .forcePathStyle(true)
+            .build();
+        verifier.createBucket(request -> request.bucket(aws.getBucketName()));
+
+        awsS3Service = new AwsS3Service(secretConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        awsS3Service.shutdown();
+        verifier.listObjectsV2Paginator(request -> request.bucket(secretConfig.getAwsBucketName())).contents()
+            .forEach(object -> verifier.deleteObject(request -> request.bucket(secretConfig.getAwsBucketName()).key(object.key())));
+        verifier.deleteBucket(request -> request.bucket(secretConfig.getAwsBucketName()));
+        verifier.close();
+    }
+
+    @Test
+    @DisplayName("Should upload a large file in parts and delete it from the background queue")
+    void shouldUploadInPartsAndDeleteLater() throws Exception {
+        byte[] content = new byte[12 * 1024 * 1024];
+        new Random(42).nextBytes(content);
+        MockMultipartFile file = new MockMultipartFile("image", "cover photo.jpg", "image/jpeg", content);
+
+        AwsS3Service.PendingUpload upload = awsS3Service.uploadFile(file);
+        upload.completion().join();
+
+        String key = upload.url().substring(upload.url().indexOf("blog-images/"));
+        assertThat(key).endsWith("-cover_photo.jpg");
+        HeadObjectResponse head = verifier.headObject(request -> request.bucket(secretConfig.getAwsBucketName()).key(key));
+        assertThat(head.contentLength()).isEqualTo(content.length);
+        assertThat(head.contentType()).isEqualTo("image/jpeg");
+
+        awsS3Service.scheduleDeletion(upload.url());
+        assertThat(verifier.headObject(request -> request.bucket(secretConfig.getAwsBucketName()).key(key))).isNotNull();
+        awsS3Service.deletePendingObjects();
+
+        assertThatThrownBy(() -> verifier.headObject(request -> request.bucket(secretConfig.getAwsBucketName()).key(key)))
+            .isInstanceOfSatisfying(S3Exception.class, e -> assertThat(e.statusCode()).isEqualTo(404));
+    }
+
+    @Test
+    @DisplayName("Should accept a PUT to a pre-signed URL only with the signed type and size")
+    void shouldEnforcePresignedConstraints() throws Exception {
+        UUID postId = UUID.randomUUID();
+        String key = awsS3Service.generateFileKey(postId, "photo.png");
+        byte[] content = new byte[1024];
+        AwsS3Service.PresignedUpload upload = awsS3Service.presignUpload(key, "image/png", content.length, Duration.ofMinutes(1));
+
+        assertThat(awsS3Service.isOwnedBy(key, postId)).isTrue();
+        assertThat(awsS3Service.isOwnedBy(key, UUID.randomUUID())).isFalse();
+        assertThat(upload.headers()).containsEntry("content-type", "image/png").doesNotContainKey("host");
+
+        HttpClient http = HttpClient.newHttpClient();
+        HttpResponse<String> tooLarge = http.send(put(upload, new byte[2048]), HttpResponse.BodyHandlers.ofString());
+        assertThat(tooLarge.statusCode()).isEqualTo(403);
+        assertThat(awsS3Service.findObject(key)).isEmpty();
+
+        HttpResponse<String> accepted = http.send(put(upload, content), HttpResponse.BodyHandlers.ofString());
+        assertThat(accepted.statusCode()).isEqualTo(200);
+        assertThat(awsS3Service.findObject(key)).hasValueSatisfying(head -> {
+            assertThat(head.contentLength()).isEqualTo(content.length);
+            assertThat(head.contentType()).isEqualTo("image/png");
+        });
+    }
+
+    private static HttpRequest put(AwsS3Service.PresignedUpload upload, byte[] body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(upload.url()))
+            .PUT(HttpRequest.BodyPublishers.ofByteArray(body));
+        upload.headers().forEach(request::header);
+        return request.build();
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,90 @@
+package com.goalglo.benchmarks;
+
+import com.goalglo.common.InstrumentationAspect;
+import com.goalglo.common.Instrumented;
+import com.goalglo.config.SecretConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of {@link InstrumentationAspect} compared with calling the target directly.
+ * The sampled variant captures arguments on every call, which only costs a random draw while
+ * DEBUG is off for the target.
+ * <p>
+ * Run the {@link #main(String[])} method after {@code mvn test-compile}, as for {@link RateLimiterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstrumentationBenchmark {
+
+   private final UUID id = UUID.randomUUID();
+
+   private Target direct;
+   private Target instrumented;
+   private Target sampled;
+
+   @Setup
+   public void setUp() {
+      direct = new Target();
+      instrumented = proxy(0.0d);
+      sampled = proxy(1.0d);
+   }
+
+   @Benchmark
+   public String direct() {
+      return direct.lookup(id, "user@example.com");
+   }
+
+   @Benchmark
+   public String instrumented() {
+      return instrumented.lookup(id, "user@example.com");
+   }
+
+   @Benchmark
+   public String instrumentedFullySampled() {
+      return sampled.lookup(id, "user@example.com");
+   }
+
+   private static Target proxy(double sampleRate) {
+      SecretConfig secretConfig = new SecretConfig();
+      secretConfig.getInstrumentation().setSampleRate(sampleRate);
+      AspectJProxyFactory factory = new AspectJProxyFactory(new Target());
+      factory.setProxyTargetClass(true);
+      factory.addAspect(new InstrumentationAspect(new SimpleMeterRegistry(), secretConfig));
+      return factory.getProxy();
+   }
+
+   @Instrumented
+   public static class Target {
+
+      public String lookup(UUID id, String email) {
+         return email;
+      }
+   }
+
+   public static void main(String[] args) throws RunnerException {
+      new Runner(new OptionsBuilder()
+         .include(InstrumentationBenchmark.class.getSimpleName())
+         .build()).run();
+   }
+}
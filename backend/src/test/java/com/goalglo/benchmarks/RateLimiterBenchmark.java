@@ -0,0 +1,76 @@
+package com.goalglo.benchmarks;
+
+import com.goalglo.security.ratelimit.RateLimitPolicy;
+import com.goalglo.security.ratelimit.SlidingWindowRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link SlidingWindowRateLimiter} with every core hitting it at once, both spread
+ * over many clients and concentrated on a single hot key.
+ * <p>
+ * Run with {@code mvn test-compile} followed by the {@link #main(String[])} method from the IDE,
+ * or {@code java -cp "target/test-classes:<test classpath>" org.openjdk.jmh.Main RateLimiterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class RateLimiterBenchmark {
+
+   private static final int CLIENTS = 1024;
+
+   private SlidingWindowRateLimiter rateLimiter;
+   private RateLimitPolicy policy;
+   private String[] keys;
+
+   @Setup
+   public void setUp() {
+      rateLimiter = new SlidingWindowRateLimiter(100_000, Duration.ofMinutes(2));
+      // Never reject, so every call exercises the full compare-and-set path
+      policy = new RateLimitPolicy("benchmark", Integer.MAX_VALUE, Duration.ofMinutes(1));
+      keys = new String[CLIENTS];
+      for (int i = 0; i < CLIENTS; i++) {
+         keys[i] = "benchmark|ip:10.0." + (i / 256) + "." + (i % 256);
+      }
+   }
+
+   @State(Scope.Thread)
+   public static class ClientCursor {
+      int next;
+   }
+
+   @Benchmark
+   public boolean manyClients(ClientCursor cursor) {
+      return rateLimiter.tryAcquire(keys[cursor.next++ & (CLIENTS - 1)], policy);
+   }
+
+   @Benchmark
+   public boolean singleHotClient() {
+      return rateLimiter.tryAcquire(keys[0], policy);
+   }
+
+   public static void main(String[] args) throws RunnerException {
+      new Runner(new OptionsBuilder()
+         .include(RateLimiterBenchmark.class.getSimpleName())
+         .build()).run();
+   }
+}
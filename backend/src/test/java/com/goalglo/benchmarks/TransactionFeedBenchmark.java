@@ -0,0 +1,177 @@
+package com.goalglo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of fetching page N of one heavy user's transaction history, comparing the OFFSET query plus
+ * COUNT(*) issued by the Page API with the keyset query behind the transaction feed. Both run against
+ * PostgreSQL with the same index as {@code idx_transactions_user_date_id}.
+ * <p>
+ * The first run loads 1M rows into a {@code bench_transactions} table, a quarter of them for the heavy
+ * user; later runs reuse it. Point it at a scratch database with {@code BENCHMARK_JDBC_URL} (and
+ * {@code BENCHMARK_JDBC_USER} / {@code BENCHMARK_JDBC_PASSWORD}), then run the {@link #main(String[])}
+ * method after {@code mvn test-compile}, as for {@link RateLimiterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionFeedBenchmark {
+
+   private static final int ROWS = 1_000_000;
+   private static final int USERS = 16;
+   private static final int PAGE_SIZE = 50;
+   private static final UUID HEAVY_USER = new UUID(0, 1);
+
+   private static final String COLUMNS = "SELECT id, user_id, amount, type, description, transaction_date FROM bench_transactions ";
+
+   /**
+    * Zero-based page number; the heavy user has 250,000 rows, or 5,000 pages.
+    */
+   @Param({"0", "100", "1000", "4900"})
+   public int page;
+
+   private Connection connection;
+   private PreparedStatement offsetQuery;
+   private PreparedStatement countQuery;
+   private PreparedStatement keysetQuery;
+   private Timestamp afterDate;
+   private UUID afterId;
+
+   @Setup(Level.Trial)
+   public void setUp() throws SQLException {
+      connection = DriverManager.getConnection(env("BENCHMARK_JDBC_URL", "jdbc:postgresql://localhost:5432/goalglo_bench"),
+         env("BENCHMARK_JDBC_USER", "postgres"), env("BENCHMARK_JDBC_PASSWORD", "postgres"));
+      populate();
+
+      offsetQuery = connection.prepareStatement(COLUMNS
+         + "WHERE user_id = ? ORDER BY transaction_date DESC, id DESC LIMIT ? OFFSET ?");
+      countQuery = connection.prepareStatement("SELECT COUNT(*) FROM bench_transactions WHERE user_id = ?");
+      keysetQuery = connection.prepareStatement(COLUMNS
+         + "WHERE user_id = ? AND (transaction_date < ? OR (transaction_date = ? AND id < ?)) "
+         + "ORDER BY transaction_date DESC, id DESC LIMIT ?");
+
+      // The cursor a client would hold after reading pages 0 to N - 1
+      if (page > 0) {
+         try (PreparedStatement cursor = connection.prepareStatement("SELECT transaction_date, id FROM bench_transactions "
+            + "WHERE user_id = ? ORDER BY transaction_date DESC, id DESC LIMIT 1 OFFSET ?")) {
+            cursor.setObject(1, HEAVY_USER);
+            cursor.setInt(2, page * PAGE_SIZE - 1);
+            try (ResultSet row = cursor.executeQuery()) {
+               row.next();
+               afterDate = row.getTimestamp(1);
+               afterId = row.getObject(2, UUID.class);
+            }
+         }
+      }
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() throws SQLException {
+      connection.close();
+   }
+
+   @Benchmark
+   public long offsetPage() throws SQLException {
+      offsetQuery.setObject(1, HEAVY_USER);
+      offsetQuery.setInt(2, PAGE_SIZE);
+      offsetQuery.setInt(3, page * PAGE_SIZE);
+      long consumed = consume(offsetQuery);
+      countQuery.setObject(1, HEAVY_USER);
+      try (ResultSet count = countQuery.executeQuery()) {
+         count.next();
+         return consumed + count.getLong(1);
+      }
+   }
+
+   @Benchmark
+   public long keysetPage() throws SQLException {
+      if (page == 0) {
+         offsetQuery.setObject(1, HEAVY_USER);
+         offsetQuery.setInt(2, PAGE_SIZE + 1);
+         offsetQuery.setInt(3, 0);
+         return consume(offsetQuery);
+      }
+      keysetQuery.setObject(1, HEAVY_USER);
+      keysetQuery.setTimestamp(2, afterDate);
+      keysetQuery.setTimestamp(3, afterDate);
+      keysetQuery.setObject(4, afterId);
+      // One extra row, as the feed fetches to learn whether another page exists
+      keysetQuery.setInt(5, PAGE_SIZE + 1);
+      return consume(keysetQuery);
+   }
+
+   private void populate() throws SQLException {
+      try (Statement statement = connection.createStatement()) {
+         statement.execute("CREATE TABLE IF NOT EXISTS bench_transactions (id uuid PRIMARY KEY, user_id uuid NOT NULL, "
+            + "amount numeric(38, 2) NOT NULL, type varchar(255) NOT NULL, description varchar(255), "
+            + "transaction_date timestamp NOT NULL)");
+         try (ResultSet existing = statement.executeQuery("SELECT COUNT(*) FROM bench_transactions")) {
+            existing.next();
+            if (existing.getLong(1) == ROWS) {
+               return;
+            }
+         }
+         statement.execute("TRUNCATE bench_transactions");
+         // Every fourth row belongs to the heavy user, the rest are spread over the others; dates cover two years
+         statement.execute("INSERT INTO bench_transactions "
+            + "SELECT gen_random_uuid(), "
+            + "CASE WHEN n % 4 = 0 THEN '" + HEAVY_USER + "'::uuid ELSE ('00000000-0000-0000-0000-' || lpad(to_hex(2 + n % "
+            + (USERS - 1) + "), 12, '0'))::uuid END, "
+            + "round((random() * 500)::numeric, 2), CASE WHEN n % 3 = 0 THEN 'income' ELSE 'expense' END, "
+            + "'Benchmark transaction ' || n, now() - (random() * interval '730 days') "
+            + "FROM generate_series(1, " + ROWS + ") AS n");
+         statement.execute("CREATE INDEX IF NOT EXISTS idx_bench_transactions_user_date_id "
+            + "ON bench_transactions (user_id, transaction_date DESC, id DESC)");
+         statement.execute("ANALYZE bench_transactions");
+      }
+   }
+
+   private static long consume(PreparedStatement query) throws SQLException {
+      long rows = 0;
+      try (ResultSet result = query.executeQuery()) {
+         while (result.next()) {
+            rows++;
+         }
+      }
+      return rows;
+   }
+
+   private static String env(String name, String defaultValue) {
+      String value = System.getenv(name);
+      return value == null || value.isBlank() ? defaultValue : value;
+   }
+
+   public static void main(String[] args) throws RunnerException {
+      new Runner(new OptionsBuilder()
+         .include(TransactionFeedBenchmark.class.getSimpleName())
+         .build()).run();
+   }
+}
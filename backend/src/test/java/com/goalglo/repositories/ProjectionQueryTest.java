@@ -0,0 +1,218 @@
+package com.goalglo.repositories;
+
+import com.goalglo.dto.AppointmentDTO;
+import com.goalglo.dto.BlogPostSummaryDTO;
+import com.goalglo.dto.ServiceDTO;
+import com.goalglo.dto.TransactionDTO;
+import com.goalglo.entities.Appointment;
+import com.goalglo.entities.BlogPost;
+import com.goalglo.entities.ServiceEntity;
+import com.goalglo.entities.TimeSlot;
+import com.goalglo.entities.Transaction;
+import com.goalglo.entities.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the read-side projections answer with a single statement and never hydrate entities.
+ */
+@DataJpaTest
+@ActiveProfiles("local")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProjectionQueryTest {
+
+    private static final int ROWS = 20;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    private Statistics statistics;
+    private User user;
+    private Appointment firstAppointment;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("jane@example.com");
+        user.setUsername("jane");
+        user.setPassword("secret");
+        user.setFirstName("Jane");
+        user.setLastName("Doe");
+        user.setPhoneNumber("555-0100");
+        entityManager.persist(user);
+
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 9, 0);
+        for (int i = 0; i < ROWS; i++) {
+            ServiceEntity service = new ServiceEntity();
+            service.setName("Service " + (char) ('A' + i));
+            service.setDescription("Description " + i);
+            service.setPrice(BigDecimal.valueOf(100 + i));
+            service.setDuration(60);
+            entityManager.persist(service);
+
+            TimeSlot timeSlot = new TimeSlot();
+            timeSlot.setStartTime(start.plusHours(i));
+            timeSlot.setEndTime(start.plusHours(i + 1));
+            timeSlot.setBooked(true);
+            entityManager.persist(timeSlot);
+
+            Appointment appointment = new Appointment();
+            appointment.setUser(user);
+            appointment.setTimeSlot(timeSlot);
+            appointment.setService(service);
+            entityManager.persist(appointment);
+            if (firstAppointment == null) {
+                firstAppointment = appointment;
+            }
+
+            Transaction transaction = new Transaction();
+            transaction.setUser(user);
+            transaction.setService(service);
+            transaction.setAmount(service.getPrice());
+            transaction.setType("PAYMENT");
+            transaction.setTransactionDate(start.plusHours(i));
+            entityManager.persist(transaction);
+
+            BlogPost post = new BlogPost();
+            post.setTitle("Post " + i);
+            post.setSlug("post-" + i);
+            post.setContent("x".repeat(BlogPost.EXCERPT_LENGTH * 10));
+            post.setAuthor(user);
+            post.setPublished(true);
+            post.setPublishedAt(start.plusDays(i));
+            entityManager.persist(post);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should list a user's appointments with one query and no entity loads")
+    void userAppointmentsUseOneQuery() {
+        List<AppointmentDTO> appointments = appointmentRepository.findDTOsByUserId(user.getId());
+
+        assertThat(appointments).hasSize(ROWS);
+        assertThat(appointments).allSatisfy(dto -> {
+            assertThat(dto.getUserName()).isEqualTo("Jane Doe");
+            assertThat(dto.getServiceName()).startsWith("Service ");
+        });
+        assertSingleQueryWithoutEntities();
+    }
+
+    @Test
+    @DisplayName("Should read a single appointment with one query")
+    void appointmentByIdUsesOneQuery() {
+        AppointmentDTO appointment = appointmentRepository.findDTOById(firstAppointment.getId()).orElseThrow();
+
+        assertThat(appointment.getEmail()).isEqualTo("jane@example.com");
+        assertThat(appointment.getStartTime()).isEqualTo(LocalDateTime.of(2024, 5, 1, 9, 0));
+        assertSingleQueryWithoutEntities();
+    }
+
+    @Test
+    @DisplayName("Should page a user's transactions without loading users, payments or services")
+    void userTransactionsUseOneQuery() {
+        Page<TransactionDTO> page = transactionRepository.findDTOsByUserId(user.getId(),
+            PageRequest.of(0, ROWS * 2, Sort.by("transactionDate").descending()));
+
+        assertThat(page.getContent()).hasSize(ROWS);
+        assertThat(page.getContent().get(0).getTransactionDate()).isEqualTo(LocalDateTime.of(2024, 5, 1, 9 + ROWS - 1, 0));
+        assertThat(page.getContent()).allSatisfy(dto -> {
+            assertThat(dto.getUserId()).isEqualTo(user.getId());
+            assertThat(dto.getServiceId()).isNotNull();
+            assertThat(dto.getPaymentId()).isNull();
+        });
+        // a short first page lets Spring Data skip the count query
+        assertSingleQueryWithoutEntities();
+    }
+
+    @Test
+    @DisplayName("Should seek through a user's transactions newest first with one query per page")
+    void userTransactionFeedUsesOneQueryPerPage() {
+        List<TransactionDTO> first = transactionRepository.findLatestDTOsByUserId(user.getId(), PageRequest.of(0, 5));
+
+        assertThat(first).extracting(TransactionDTO::getTransactionDate)
+            .containsExactly(hour(19), hour(18), hour(17), hour(16), hour(15));
+        assertSingleQueryWithoutEntities();
+
+        TransactionDTO last = first.get(first.size() - 1);
+        List<TransactionDTO> second = transactionRepository.findDTOsByUserIdAfter(user.getId(), last.getTransactionDate(),
+            last.getId(), PageRequest.of(0, 5));
+
+        assertThat(second).extracting(TransactionDTO::getTransactionDate)
+            .containsExactly(hour(14), hour(13), hour(12), hour(11), hour(10));
+    }
+
+    @Test
+    @DisplayName("Should list services with price and duration from one query")
+    void servicesUseOneQuery() {
+        List<ServiceDTO> services = serviceRepository.findAllDTOs();
+
+        assertThat(services).hasSize(ROWS);
+        assertThat(services.get(0).getName()).isEqualTo("Service A");
+        assertThat(services.get(0).getPrice()).isEqualByComparingTo("100");
+        assertThat(services.get(0).getDuration()).isEqualTo(60);
+        assertSingleQueryWithoutEntities();
+    }
+
+    @Test
+    @DisplayName("Should page blog summaries by publishedAt with excerpts instead of content")
+    void blogSummariesUseOneQueryPerPage() {
+        List<BlogPostSummaryDTO> first = blogPostRepository.findPublishedSummaries(PageRequest.of(0, 5));
+
+        assertThat(first).extracting(BlogPostSummaryDTO::getTitle).containsExactly("Post 19", "Post 18", "Post 17", "Post 16", "Post 15");
+        assertThat(first).allSatisfy(dto -> {
+            assertThat(dto.getExcerpt()).hasSize(BlogPost.EXCERPT_LENGTH);
+            assertThat(dto.getAuthor()).isEqualTo("Jane");
+        });
+        assertSingleQueryWithoutEntities();
+
+        BlogPostSummaryDTO last = first.get(first.size() - 1);
+        List<BlogPostSummaryDTO> second = blogPostRepository.findPublishedSummariesAfter(last.getPublishedAt(), last.getId(), PageRequest.of(0, 5));
+
+        assertThat(second).extracting(BlogPostSummaryDTO::getTitle).containsExactly("Post 14", "Post 13", "Post 12", "Post 11", "Post 10");
+    }
+
+    private static LocalDateTime hour(int i) {
+        return LocalDateTime.of(2024, 5, 1, 9, 0).plusHours(i);
+    }
+
+    private void assertSingleQueryWithoutEntities() {
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getEntityFetchCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,91 @@
+package com.goalglo.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private JwtDecoder delegate;
+
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new CachingJwtDecoder(delegate, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Should verify a token once and serve repeats from cache")
+    void shouldCacheVerifiedToken() {
+        Jwt jwt = jwt("token-a", NOW.plus(Duration.ofHours(1)));
+        when(delegate.decode("token-a")).thenReturn(jwt);
+
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+
+        verify(delegate, times(1)).decode("token-a");
+    }
+
+    @Test
+    @DisplayName("Should keep different tokens apart")
+    void shouldKeyByToken() {
+        when(delegate.decode("token-a")).thenReturn(jwt("token-a", NOW.plus(Duration.ofHours(1))));
+        when(delegate.decode("token-b")).thenReturn(jwt("token-b", NOW.plus(Duration.ofHours(1))));
+
+        assertThat(decoder.decode("token-a").getTokenValue()).isEqualTo("token-a");
+        assertThat(decoder.decode("token-b").getTokenValue()).isEqualTo("token-b");
+    }
+
+    @Test
+    @DisplayName("Should not cache a token that has already expired")
+    void shouldNotCacheExpiredToken() {
+        when(delegate.decode("token-a")).thenReturn(jwt("token-a", NOW.minus(Duration.ofMinutes(1))));
+
+        decoder.decode("token-a");
+        decoder.decode("token-a");
+
+        verify(delegate, times(2)).decode("token-a");
+    }
+
+    @Test
+    @DisplayName("Should not cache tokens that fail verification")
+    void shouldNotCacheRejectedToken() {
+        when(delegate.decode("forged")).thenThrow(new BadJwtException("Invalid signature"));
+
+        assertThatThrownBy(() -> decoder.decode("forged")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("forged")).isInstanceOf(BadJwtException.class);
+
+        verify(delegate, times(2)).decode("forged");
+    }
+
+    private static Jwt jwt(String tokenValue, Instant expiresAt) {
+        return Jwt.withTokenValue(tokenValue)
+           .header("alg", "HS512")
+           .subject("testuser")
+           .issuedAt(expiresAt.minus(Duration.ofHours(2)))
+           .expiresAt(expiresAt)
+           .build();
+    }
+}
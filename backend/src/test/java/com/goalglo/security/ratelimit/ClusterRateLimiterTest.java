@@ -0,0 +1,133 @@
+package com.goalglo.security.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClusterRateLimiterTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+    private static final String KEY = "anonymous|ip:1.1.1.1";
+    private static final long MAXIMUM_KEYS = 100;
+
+    private final AtomicLong clock = new AtomicLong(WINDOW.toMillis() * 1_000);
+    private InMemoryRateLimitStore store;
+    private ClusterRateLimiter replicaA;
+    private ClusterRateLimiter replicaB;
+    private RateLimitPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryRateLimitStore();
+        replicaA = new ClusterRateLimiter(store, MAXIMUM_KEYS, clock::get);
+        replicaB = new ClusterRateLimiter(store, MAXIMUM_KEYS, clock::get);
+        policy = new RateLimitPolicy("anonymous", 10, WINDOW);
+    }
+
+    @Test
+    @DisplayName("Should enforce one limit across replicas after a sync")
+    void shouldShareLimitAcrossReplicas() {
+        for (int i = 0; i < 6; i++) {
+            assertThat(replicaA.tryAcquire(KEY, policy)).isTrue();
+        }
+        replicaA.sync();
+        assertThat(replicaB.tryAcquire(KEY, policy)).isTrue();
+        replicaB.sync();
+
+        int admittedByB = 0;
+        while (replicaB.tryAcquire(KEY, policy)) {
+            admittedByB++;
+        }
+        assertThat(admittedByB).isEqualTo(3);
+        replicaB.sync();
+        replicaA.sync();
+        assertThat(replicaA.tryAcquire(KEY, policy)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should batch local hits into a single delta per sync")
+    void shouldBatchDeltas() {
+        for (int i = 0; i < 4; i++) {
+            replicaA.tryAcquire(KEY, policy);
+        }
+        RateLimitBucket bucket = new RateLimitBucket(KEY, clock.get() / WINDOW.toMillis(), WINDOW.toMillis());
+        assertThat(store.hits(bucket)).isZero();
+
+        replicaA.sync();
+
+        assertThat(store.hits(bucket)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should only upsert buckets that took hits since the last sync")
+    void shouldSkipZeroDeltaBuckets() {
+        replicaA.tryAcquire(KEY, policy);
+        replicaA.sync();
+        assertThat(store.upserted()).isEqualTo(1);
+
+        replicaA.sync();
+        replicaA.sync();
+
+        assertThat(store.upserted()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should evict idle buckets once the key cap is reached")
+    void shouldEvictIdleBucketsAtCapacity() {
+        ClusterRateLimiter limiter = new ClusterRateLimiter(store, 2, clock::get);
+        limiter.tryAcquire("anonymous|ip:1.1.1.1", policy);
+        limiter.tryAcquire("anonymous|ip:2.2.2.2", policy);
+        limiter.sync();
+
+        for (int i = 3; i < 10; i++) {
+            assertThat(limiter.tryAcquire("anonymous|ip:" + i + "." + i + "." + i + "." + i, policy)).isTrue();
+            limiter.sync();
+            assertThat(limiter.trackedBuckets()).isLessThanOrEqualTo(2);
+        }
+
+        assertThat(store.upserted()).isEqualTo(9);
+        for (int i = 0; i < 9; i++) {
+            limiter.tryAcquire(KEY, policy);
+        }
+        limiter.sync();
+        RateLimitBucket bucket = new RateLimitBucket(KEY, clock.get() / WINDOW.toMillis(), WINDOW.toMillis());
+        assertThat(store.hits(bucket)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should keep enforcing locally and resend deltas when the store is unavailable")
+    void shouldSurviveStoreOutage() {
+        store.setAvailable(false);
+        for (int i = 0; i < 10; i++) {
+            assertThat(replicaA.tryAcquire(KEY, policy)).isTrue();
+        }
+        replicaA.sync();
+        assertThat(replicaA.tryAcquire(KEY, policy)).isFalse();
+
+        store.setAvailable(true);
+        replicaA.sync();
+
+        RateLimitBucket bucket = new RateLimitBucket(KEY, clock.get() / WINDOW.toMillis(), WINDOW.toMillis());
+        assertThat(store.hits(bucket)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should purge buckets once their windows have passed")
+    void shouldPurgeExpiredBuckets() {
+        replicaA.tryAcquire(KEY, policy);
+        replicaA.sync();
+
+        clock.addAndGet(WINDOW.toMillis() * 3);
+        replicaA.purgeExpired();
+
+        RateLimitBucket bucket = new RateLimitBucket(KEY, clock.get() / WINDOW.toMillis() - 3, WINDOW.toMillis());
+        assertThat(store.hits(bucket)).isZero();
+        assertThat(store.purgeExpired(Instant.ofEpochMilli(clock.get()))).isZero();
+    }
+}
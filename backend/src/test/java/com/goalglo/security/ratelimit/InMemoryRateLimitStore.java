@@ -0,0 +1,72 @@
+package com.goalglo.security.ratelimit;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory stand-in for {@link JdbcRateLimitStore} shared by several limiter instances in tests.
+ */
+class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Map<RateLimitBucket, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final AtomicInteger upserted = new AtomicInteger();
+    private volatile boolean available = true;
+
+    void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    int upserted() {
+        return upserted.get();
+    }
+
+    long hits(RateLimitBucket bucket) {
+        AtomicLong counter = counters.get(bucket);
+        return counter == null ? 0 : counter.get();
+    }
+
+    @Override
+    public Map<RateLimitBucket, Long> addAndGet(Map<RateLimitBucket, Long> deltas) {
+        if (!available) {
+            throw new IllegalStateException("Store unavailable");
+        }
+        upserted.addAndGet(deltas.size());
+        Map<RateLimitBucket, Long> totals = new HashMap<>();
+        deltas.forEach((bucket, delta) ->
+           totals.put(bucket, counters.computeIfAbsent(bucket, b -> new AtomicLong()).addAndGet(delta)));
+        return totals;
+    }
+
+    @Override
+    public Map<RateLimitBucket, Long> get(Collection<RateLimitBucket> buckets) {
+        if (!available) {
+            throw new IllegalStateException("Store unavailable");
+        }
+        Map<RateLimitBucket, Long> totals = new HashMap<>();
+        buckets.forEach(bucket -> {
+            AtomicLong counter = counters.get(bucket);
+            if (counter != null) {
+                totals.put(bucket, counter.get());
+            }
+        });
+        return totals;
+    }
+
+    @Override
+    public int purgeExpired(Instant now) {
+        AtomicInteger purged = new AtomicInteger();
+        counters.keySet().removeIf(bucket -> {
+            boolean expired = bucket.expiresAt().isBefore(now);
+            if (expired) {
+                purged.incrementAndGet();
+            }
+            return expired;
+        });
+        return purged.get();
+    }
+}
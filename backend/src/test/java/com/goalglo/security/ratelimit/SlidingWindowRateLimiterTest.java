@@ -0,0 +1,125 @@
+package com.goalglo.security.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowRateLimiterTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000L);
+    private SlidingWindowRateLimiter rateLimiter;
+    private RateLimitPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new SlidingWindowRateLimiter(1_000, WINDOW.multipliedBy(2), clock::get);
+        policy = new RateLimitPolicy("test", 5, WINDOW);
+    }
+
+    @Nested
+    @DisplayName("Single window")
+    class SingleWindowTests {
+
+        @Test
+        @DisplayName("Should admit requests up to the limit and reject the rest")
+        void shouldAdmitUpToLimit() {
+            for (int i = 0; i < 5; i++) {
+                assertThat(rateLimiter.tryAcquire("ip:1.1.1.1", policy)).isTrue();
+            }
+            assertThat(rateLimiter.tryAcquire("ip:1.1.1.1", policy)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should track keys independently")
+        void shouldTrackKeysIndependently() {
+            for (int i = 0; i < 5; i++) {
+                rateLimiter.tryAcquire("ip:1.1.1.1", policy);
+            }
+            assertThat(rateLimiter.tryAcquire("ip:1.1.1.1", policy)).isFalse();
+            assertThat(rateLimiter.tryAcquire("ip:2.2.2.2", policy)).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Sliding behaviour")
+    class SlidingTests {
+
+        @Test
+        @DisplayName("Should weight the previous window by its remaining overlap")
+        void shouldWeightPreviousWindow() {
+            for (int i = 0; i < 5; i++) {
+                rateLimiter.tryAcquire("ip:1.1.1.1", policy);
+            }
+            // Half way into the next window, half of the previous window still counts
+            clock.addAndGet(WINDOW.toNanos() + WINDOW.toNanos() / 2);
+
+            assertThat(rateLimiter.tryAcquire("ip:1.1.1.1", policy)).isTrue();
+            assertThat(rateLimiter.tryAcquire("ip:1.1.1.1", policy)).isTrue();
+            assertThat(rateLimiter.tryAcquire("ip:1.1.1.1", policy)).isTrue();
+            assertThat(rateLimiter.tryAcquire("ip:1.1.1.1", policy)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should admit a full window again once the previous window has passed")
+        void shouldResetAfterTwoWindows() {
+            for (int i = 0; i < 5; i++) {
+                rateLimiter.tryAcquire("ip:1.1.1.1", policy);
+            }
+            clock.addAndGet(WINDOW.toNanos() * 2);
+
+            for (int i = 0; i < 5; i++) {
+                assertThat(rateLimiter.tryAcquire("ip:1.1.1.1", policy)).isTrue();
+            }
+            assertThat(rateLimiter.tryAcquire("ip:1.1.1.1", policy)).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("Should never admit more than the limit under concurrent access")
+    void shouldNotLoseIncrementsUnderContention() throws Exception {
+        RateLimitPolicy contended = new RateLimitPolicy("contended", 5_000, WINDOW);
+        int threads = 16;
+        int attemptsPerThread = 1_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int admitted = 0;
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (rateLimiter.tryAcquire("user:hot", contended)) {
+                        admitted++;
+                    }
+                }
+                return admitted;
+            }));
+        }
+        start.countDown();
+
+        int totalAdmitted = 0;
+        for (Future<Integer> result : results) {
+            totalAdmitted += result.get();
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(totalAdmitted).isEqualTo(5_000);
+    }
+}
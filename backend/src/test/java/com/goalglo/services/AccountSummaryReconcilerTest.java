@@ -0,0 +1,123 @@
+package com.goalglo.services;
+
+import com.goalglo.repositories.AccountSummaryRepository;
+import com.goalglo.repositories.LedgerTotals;
+import com.goalglo.repositories.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountSummaryReconcilerTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountSummaryRepository accountSummaryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountSummaryReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reconciler = new AccountSummaryReconciler(transactionRepository, accountSummaryRepository, transactionManager, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should correct drifted and missing summaries and leave matching ones alone")
+    void shouldCorrectOnlyDriftedSummaries() {
+        UUID healthy = UUID.randomUUID();
+        UUID drifted = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        when(transactionRepository.sumTotalsByUser()).thenReturn(List.of(
+            totals(healthy, "100.00", "40.00", "60.00"),
+            totals(drifted, "100.00", "40.00", "60.00"),
+            totals(missing, "25.00", "0.00", "25.00")));
+        when(accountSummaryRepository.findAllTotals()).thenReturn(List.of(
+            totals(healthy, "100", "40", "60"),
+            totals(drifted, "100.00", "40.00", "75.00")));
+
+        LedgerTotals driftedExpected = totals(drifted, "100.00", "40.00", "60.00");
+        when(transactionRepository.sumTotalsForUser(drifted)).thenReturn(Optional.of(driftedExpected));
+        when(accountSummaryRepository.findTotalsByUserId(drifted))
+            .thenReturn(Optional.of(totals(drifted, "100.00", "40.00", "75.00")));
+        when(transactionRepository.sumTotalsForUser(missing)).thenReturn(Optional.of(totals(missing, "25.00", "0.00", "25.00")));
+        when(accountSummaryRepository.findTotalsByUserId(missing)).thenReturn(Optional.empty());
+
+        assertThat(reconciler.reconcile()).isEqualTo(2);
+
+        verify(accountSummaryRepository).overwriteTotals(eq(drifted), eq(new BigDecimal("100.00")), eq(new BigDecimal("40.00")), any());
+        verify(accountSummaryRepository, never()).insertIfAbsent(any(), eq(drifted), any());
+        verify(accountSummaryRepository).insertIfAbsent(any(), eq(missing), any());
+        verify(accountSummaryRepository).overwriteTotals(eq(missing), eq(new BigDecimal("25.00")), eq(new BigDecimal("0.00")), any());
+        verify(accountSummaryRepository, never()).overwriteTotals(eq(healthy), any(), any(), any());
+        assertThat(meterRegistry.counter("ledger.summary.drift").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should skip a suspect whose totals caught up before it was corrected")
+    void shouldSkipSummariesThatCaughtUp() {
+        UUID userId = UUID.randomUUID();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(transactionRepository.sumTotalsByUser()).thenReturn(List.of(totals(userId, "50.00", "0.00", "50.00")));
+        when(accountSummaryRepository.findAllTotals()).thenReturn(List.of());
+
+        // A delta for the user committed between the bulk comparison and the recheck
+        when(transactionRepository.sumTotalsForUser(userId)).thenReturn(Optional.of(totals(userId, "50.00", "0.00", "50.00")));
+        when(accountSummaryRepository.findTotalsByUserId(userId)).thenReturn(Optional.of(totals(userId, "50.00", "0.00", "50.00")));
+
+        assertThat(reconciler.reconcile()).isZero();
+
+        verify(accountSummaryRepository, never()).overwriteTotals(any(), any(), any(), any());
+        assertThat(meterRegistry.counter("ledger.summary.drift").count()).isZero();
+    }
+
+    private static LedgerTotals totals(UUID userId, String income, String expenses, String balance) {
+        return new LedgerTotals() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public BigDecimal getIncome() {
+                return new BigDecimal(income);
+            }
+
+            @Override
+            public BigDecimal getExpenses() {
+                return new BigDecimal(expenses);
+            }
+
+            @Override
+            public BigDecimal getBalance() {
+                return new BigDecimal(balance);
+            }
+        };
+    }
+}
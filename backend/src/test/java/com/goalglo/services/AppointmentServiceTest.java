@@ -0,0 +1,232 @@
+package com.goalglo.services;
+
+import com.goalglo.common.ResourceNotFoundException;
+import com.goalglo.common.SlotUnavailableException;
+import com.goalglo.config.SecretConfig;
+import com.goalglo.dto.AppointmentDTO;
+import com.goalglo.dto.CursorPageDTO;
+import com.goalglo.entities.Appointment;
+import com.goalglo.entities.ServiceEntity;
+import com.goalglo.entities.TimeSlot;
+import com.goalglo.entities.User;
+import com.goalglo.repositories.AppointmentRepository;
+import com.goalglo.repositories.ServiceRepository;
+import com.goalglo.repositories.TimeSlotRepository;
+import com.goalglo.tokens.JwtUtils;
+import com.goalglo.util.BatchInserter;
+import com.goalglo.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentServiceTest {
+
+    private static final String TEMPLATE = "booking-confirmation";
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private TimeSlotRepository timeSlotRepository;
+    @Mock
+    private TimeSlotAvailabilityIndex availabilityIndex;
+    @Mock
+    private BatchInserter batchInserter;
+    @Mock
+    private UserService userService;
+    @Mock
+    private ServiceRepository serviceRepository;
+    @Mock
+    private JwtUtils jwtUtils;
+    @Mock
+    private EmailOutboxService emailOutboxService;
+    @Mock
+    private EmailTemplateService emailTemplateService;
+
+    private AppointmentService appointmentService;
+
+    // Stands in for the booked column: claimIfAvailable flips it exactly like the conditional UPDATE
+    private final Map<UUID, AtomicBoolean> bookedColumn = new ConcurrentHashMap<>();
+    private final Map<UUID, TimeSlot> slots = new ConcurrentHashMap<>();
+    private ServiceEntity service;
+
+    @BeforeEach
+    void setUp() {
+        SecretConfig secretConfig = new SecretConfig();
+        SecretConfig.Domain domain = new SecretConfig.Domain();
+        domain.setAllowedDomain("https://goalglo.test");
+        secretConfig.setDomain(domain);
+        SecretConfig.Contact contact = new SecretConfig.Contact();
+        contact.setCompanyEmail("hello@goalglo.test");
+        contact.setCompanyPhoneNumber("+1 555 0100");
+        secretConfig.setContact(contact);
+        SecretConfig.Email email = new SecretConfig.Email();
+        email.setTemplates(new SecretConfig.Email.Templates());
+        email.getTemplates().setBookingConfirmationEmail(TEMPLATE);
+        secretConfig.setEmail(email);
+
+        service = new ServiceEntity();
+        service.setId(UUID.randomUUID());
+        service.setName("Coaching");
+
+        appointmentService = new AppointmentService(appointmentRepository, new TimeSlotService(timeSlotRepository, availabilityIndex, event -> { }, batchInserter),
+            userService, serviceRepository, jwtUtils, emailOutboxService, secretConfig, emailTemplateService);
+    }
+
+    @Nested
+    @DisplayName("Booking Tests")
+    class BookingTests {
+
+        @Test
+        @DisplayName("Should book a free slot and link it to the appointment")
+        void shouldBookFreeSlot() {
+            UUID slotId = addSlot();
+            stubSuccessfulBooking();
+
+            AppointmentDTO booked = appointmentService.bookAppointment(bookingRequest(), slotId, null);
+
+            assertThat(booked.getTimeSlotId()).isEqualTo(slotId);
+            assertThat(bookedColumn.get(slotId)).isTrue();
+            assertThat(slots.get(slotId).getAppointment()).isNotNull();
+            verify(emailOutboxService).enqueue(anyString(), anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should reject a slot that is already booked without creating an appointment")
+        void shouldRejectBookedSlot() {
+            UUID slotId = addSlot();
+            bookedColumn.get(slotId).set(true);
+            stubClaims();
+            when(timeSlotRepository.existsById(slotId)).thenReturn(true);
+
+            assertThatThrownBy(() -> appointmentService.bookAppointment(bookingRequest(), slotId, null))
+                .isInstanceOf(SlotUnavailableException.class);
+            verify(appointmentRepository, never()).save(any());
+            verify(emailOutboxService, never()).enqueue(anyString(), anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should report a missing slot as not found")
+        void shouldRejectMissingSlot() {
+            UUID slotId = UUID.randomUUID();
+            stubClaims();
+            when(timeSlotRepository.existsById(slotId)).thenReturn(false);
+
+            assertThatThrownBy(() -> appointmentService.bookAppointment(bookingRequest(), slotId, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Admin Listing Tests")
+    class AdminListingTests {
+
+        @Test
+        @DisplayName("Should return a cursor pointing at the last row when more rows exist")
+        void shouldReturnNextCursor() {
+            List<AppointmentDTO> rows = List.of(listed(3), listed(2), listed(1));
+            when(appointmentRepository.findPage(null, null, null, null, null, 3)).thenReturn(rows);
+
+            CursorPageDTO<AppointmentDTO> page = appointmentService.findAppointmentsPage(null, null, null, null, null, 2);
+
+            assertThat(page.getItems()).containsExactly(rows.get(0), rows.get(1));
+            KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+            assertThat(next.timestamp()).isEqualTo(rows.get(1).getStartTime());
+            assertThat(next.id()).isEqualTo(rows.get(1).getId());
+        }
+
+        @Test
+        @DisplayName("Should seek past the cursor and end without a next cursor on the last page")
+        void shouldSeekPastCursor() {
+            AppointmentDTO last = listed(1);
+            KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 5, 2, 10, 0), UUID.randomUUID());
+            when(appointmentRepository.findPage("Pending", null, null, null, cursor, 3)).thenReturn(List.of(last));
+
+            CursorPageDTO<AppointmentDTO> page = appointmentService.findAppointmentsPage("Pending", null, null, null, cursor.encode(), 2);
+
+            assertThat(page.getItems()).containsExactly(last);
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed cursor")
+        void shouldRejectMalformedCursor() {
+            assertThatThrownBy(() -> appointmentService.findAppointmentsPage(null, null, null, null, "not-a-cursor", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        private AppointmentDTO listed(int day) {
+            AppointmentDTO dto = new AppointmentDTO();
+            dto.setId(UUID.randomUUID());
+            dto.setStartTime(LocalDateTime.of(2024, 5, day, 10, 0));
+            return dto;
+        }
+    }
+
+    private UUID addSlot() {
+        UUID slotId = UUID.randomUUID();
+        TimeSlot slot = new TimeSlot();
+        slot.setId(slotId);
+        slot.setStartTime(LocalDateTime.of(2024, 5, 1, 10, 0));
+        slot.setEndTime(LocalDateTime.of(2024, 5, 1, 11, 0));
+        slots.put(slotId, slot);
+        bookedColumn.put(slotId, new AtomicBoolean());
+        return slotId;
+    }
+
+    private void stubClaims() {
+        when(timeSlotRepository.claimIfAvailable(any(UUID.class), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            AtomicBoolean booked = bookedColumn.get(invocation.<UUID>getArgument(0));
+            return booked != null && booked.compareAndSet(false, true) ? 1 : 0;
+        });
+    }
+
+    private void stubSuccessfulBooking() {
+        stubClaims();
+        when(timeSlotRepository.findById(any(UUID.class)))
+            .thenAnswer(invocation -> Optional.ofNullable(slots.get(invocation.<UUID>getArgument(0))));
+
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("guest@example.com");
+        when(userService.findOrCreateUserByEmail(anyString(), any(AppointmentDTO.class))).thenReturn(user);
+        when(serviceRepository.findById(service.getId())).thenReturn(Optional.of(service));
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            appointment.setId(UUID.randomUUID());
+            appointment.setStartTime(appointment.getTimeSlot().getStartTime());
+            appointment.setEndTime(appointment.getTimeSlot().getEndTime());
+            return appointment;
+        });
+        when(emailTemplateService.render(anyString(), anyMap()))
+            .thenReturn(new EmailTemplateService.RenderedEmail("Booked", "<p>Booked</p>"));
+    }
+
+    private AppointmentDTO bookingRequest() {
+        AppointmentDTO request = new AppointmentDTO();
+        request.setEmail("guest@example.com");
+        request.setServiceId(service.getId());
+        return request;
+    }
+}
@@ -0,0 +1,136 @@
+package com.goalglo.services;
+
+import com.goalglo.aws.AwsS3Service;
+import com.goalglo.config.SecretConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BlogImageProcessorTest {
+
+    @Mock
+    private AwsS3Service awsS3Service;
+
+    private BlogImageProcessor processor;
+    private SecretConfig secretConfig;
+
+    @BeforeEach
+    void setUp() {
+        secretConfig = new SecretConfig();
+        processor = new BlogImageProcessor(awsS3Service, secretConfig);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        processor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should upload a JPEG per configured width with the largest as the image URL")
+    void shouldUploadWidthVariants() throws IOException {
+        when(awsS3Service.generateFileKey("beach")).thenReturn("blog-images/abc-beach");
+        when(awsS3Service.generatePublicUrl(anyString())).thenAnswer(invocation -> "https://cdn/" + invocation.getArgument(0));
+        when(awsS3Service.uploadBytes(anyString(), eq("image/jpeg"), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Transparent right half, which JPEG cannot carry
+        BufferedImage source = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = source.createGraphics();
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(0, 0, 1000, 1000);
+        graphics.dispose();
+
+        BlogImageProcessor.ProcessedImage image = processor.process(
+            new MockMultipartFile("image", "beach.png", "image/png", encode(source, "png")));
+        image.completion().join();
+
+        assertThat(image.url()).isEqualTo("https://cdn/blog-images/abc-beach-1600w.jpg");
+        assertThat(image.srcset()).isEqualTo("https://cdn/blog-images/abc-beach-480w.jpg 480w, "
+            + "https://cdn/blog-images/abc-beach-960w.jpg 960w, https://cdn/blog-images/abc-beach-1600w.jpg 1600w");
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<byte[]> contents = ArgumentCaptor.forClass(byte[].class);
+        verify(awsS3Service, times(3)).uploadBytes(keys.capture(), eq("image/jpeg"), contents.capture());
+        assertThat(keys.getAllValues()).containsExactly("blog-images/abc-beach-1600w.jpg",
+            "blog-images/abc-beach-960w.jpg", "blog-images/abc-beach-480w.jpg");
+
+        BufferedImage largest = ImageIO.read(new ByteArrayInputStream(contents.getAllValues().get(0)));
+        assertThat(largest.getWidth()).isEqualTo(1600);
+        assertThat(largest.getHeight()).isEqualTo(800);
+        assertThat(new Color(largest.getRGB(1500, 400)).getRed()).isGreaterThan(240);
+        BufferedImage smallest = ImageIO.read(new ByteArrayInputStream(contents.getAllValues().get(2)));
+        assertThat(smallest.getWidth()).isEqualTo(480);
+    }
+
+    @Test
+    @DisplayName("Should not scale images up and should reject oversized images before decoding")
+    void shouldLimitVariantsToSourceSize() throws IOException {
+        assertThat(processor.variantWidths(300)).containsExactly(300);
+        assertThat(processor.variantWidths(1200)).containsExactly(480, 960, 1200);
+        assertThat(processor.variantWidths(4000)).containsExactly(480, 960, 1600);
+
+        secretConfig.getBlogImages().setMaxPixels(1000);
+        MockMultipartFile large = new MockMultipartFile("image", "large.png", "image/png",
+            encode(new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB), "png"));
+        assertThatThrownBy(() -> processor.process(large)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should read the EXIF orientation and turn rotated photos upright")
+    void shouldApplyExifOrientation() {
+        byte[] bigEndian = {'E', 'x', 'i', 'f', 0, 0, 'M', 'M', 0, 42, 0, 0, 0, 8,
+            0, 1, 0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, 6, 0, 0, 0, 0, 0, 0};
+        byte[] littleEndian = {'E', 'x', 'i', 'f', 0, 0, 'I', 'I', 42, 0, 8, 0, 0, 0,
+            1, 0, 0x12, 0x01, 3, 0, 1, 0, 0, 0, 8, 0, 0, 0, 0, 0, 0, 0};
+        assertThat(BlogImageProcessor.parseExifOrientation(bigEndian)).isEqualTo(6);
+        assertThat(BlogImageProcessor.parseExifOrientation(littleEndian)).isEqualTo(8);
+        assertThat(BlogImageProcessor.parseExifOrientation(new byte[]{'J', 'F', 'I', 'F'})).isZero();
+
+        BufferedImage landscape = new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB);
+        landscape.setRGB(0, 0, Color.RED.getRGB());
+        BufferedImage upright = BlogImageProcessor.orient(landscape, 6);
+        assertThat(upright.getWidth()).isEqualTo(20);
+        assertThat(upright.getHeight()).isEqualTo(40);
+        assertThat(upright.getRGB(19, 0)).isEqualTo(Color.RED.getRGB());
+    }
+
+    @Test
+    @DisplayName("Should list every variant URL for deletion")
+    void shouldListImageUrls() {
+        assertThat(BlogImageProcessor.imageUrls("https://cdn/a-960w.jpg", "https://cdn/a-480w.jpg 480w, https://cdn/a-960w.jpg 960w"))
+            .containsExactlyInAnyOrder("https://cdn/a-480w.jpg", "https://cdn/a-960w.jpg");
+        assertThat(BlogImageProcessor.imageUrls("https://cdn/a.gif", null)).containsExactly("https://cdn/a.gif");
+        assertThat(BlogImageProcessor.imageUrls(null, null)).isEqualTo(List.of());
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
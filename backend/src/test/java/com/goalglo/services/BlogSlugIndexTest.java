@@ -0,0 +1,74 @@
+package com.goalglo.services;
+
+import com.goalglo.repositories.BlogPostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BlogSlugIndexTest {
+
+    @Mock
+    private BlogPostRepository blogPostRepository;
+
+    private BlogSlugIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BlogSlugIndex(blogPostRepository);
+    }
+
+    @Test
+    @DisplayName("Should resolve slugs of posts written on this instance without a query")
+    void shouldResolveFromEvents() {
+        UUID id = UUID.randomUUID();
+        index.onBlogPostChanged(new BlogPostChangedEvent(id, "saving-for-a-house"));
+
+        assertThat(index.findId("saving-for-a-house")).contains(id);
+        verify(blogPostRepository, never()).findIdBySlug("saving-for-a-house");
+    }
+
+    @Test
+    @DisplayName("Should drop the old slug when a post is renamed and every slug when it is deleted")
+    void shouldFollowRenamesAndDeletes() {
+        UUID id = UUID.randomUUID();
+        when(blogPostRepository.findIdBySlug("old-slug")).thenReturn(Optional.empty());
+        when(blogPostRepository.findIdBySlug("new-slug")).thenReturn(Optional.empty());
+
+        index.onBlogPostChanged(new BlogPostChangedEvent(id, "old-slug"));
+        index.onBlogPostChanged(new BlogPostChangedEvent(id, "new-slug"));
+        assertThat(index.findId("old-slug")).isEmpty();
+        assertThat(index.findId("new-slug")).contains(id);
+
+        index.onBlogPostChanged(new BlogPostChangedEvent(id, null));
+        assertThat(index.findId("new-slug")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the database on a miss and remember only hits")
+    void shouldFallBackToDatabase() {
+        UUID id = UUID.randomUUID();
+        when(blogPostRepository.findIdBySlug("created-elsewhere")).thenReturn(Optional.of(id));
+        when(blogPostRepository.findIdBySlug("unknown")).thenReturn(Optional.empty());
+
+        assertThat(index.findId("created-elsewhere")).contains(id);
+        assertThat(index.findId("created-elsewhere")).contains(id);
+        assertThat(index.findId("unknown")).isEmpty();
+        assertThat(index.findId("unknown")).isEmpty();
+
+        verify(blogPostRepository, times(1)).findIdBySlug("created-elsewhere");
+        verify(blogPostRepository, times(2)).findIdBySlug("unknown");
+    }
+}
@@ -0,0 +1,179 @@
+package com.goalglo.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goalglo.common.ImportQueueFullException;
+import com.goalglo.common.PayloadTooLargeException;
+import com.goalglo.config.SecretConfig;
+import com.goalglo.dto.ImportJobDTO;
+import com.goalglo.dto.ServiceDTO;
+import com.goalglo.dto.TimeSlotDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class BulkImportJobServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+    private static final int MAX_UPLOAD_BYTES = 1024;
+
+    @Mock
+    private ServiceService serviceService;
+    @Mock
+    private TimeSlotService timeSlotService;
+
+    private BulkImportJobService bulkImportJobService;
+    private final List<Integer> serviceChunks = new ArrayList<>();
+    private final List<Integer> timeSlotChunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        SecretConfig secretConfig = new SecretConfig();
+        secretConfig.getBulkImport().setChunkSize(CHUNK_SIZE);
+        secretConfig.getBulkImport().setMaxQueuedJobs(0);
+        secretConfig.getBulkImport().setMaxUploadSize(DataSize.ofBytes(MAX_UPLOAD_BYTES));
+        bulkImportJobService = new BulkImportJobService(serviceService, timeSlotService, new ObjectMapper(), secretConfig);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        bulkImportJobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON rows in fixed-size chunks")
+    void shouldImportNdjsonInChunks() throws IOException {
+        recordChunks();
+        String body = """
+            {"type":"service","name":"Coaching","description":"1:1","price":"50.00","duration":60}
+            {"type":"timeSlot","startTime":"2024-05-01T10:00:00","endTime":"2024-05-01T11:00:00"}
+            {"type":"timeSlot","startTime":"2024-05-01T11:00:00","endTime":"2024-05-01T12:00:00"}
+
+            {"type":"timeSlot","startTime":"2024-05-01T12:00:00","endTime":"2024-05-01T13:00:00"}
+            """;
+
+        ImportJobDTO job = run(body, BulkImportJobService.Format.NDJSON);
+
+        assertThat(job.getStatus()).isEqualTo(ImportJobDTO.Status.COMPLETED);
+        assertThat(job.getRowsRead()).isEqualTo(4);
+        assertThat(job.getServicesImported()).isEqualTo(1);
+        assertThat(job.getTimeSlotsImported()).isEqualTo(3);
+        assertThat(timeSlotChunks).containsExactly(2, 1);
+        assertThat(serviceChunks).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should skip invalid rows and report them with their line number")
+    void shouldReportRowErrors() throws IOException {
+        recordChunks();
+        String body = """
+            {"type":"service","name":"Coaching","description":"1:1","price":"-1","duration":60}
+            {"type":"timeSlot","startTime":"2024-05-01T10:00:00","endTime":"2024-05-01T09:00:00"}
+            not json
+            {"type":"unknown"}
+            {"type":"timeSlot","startTime":"2024-05-01T10:00:00","endTime":"2024-05-01T11:00:00"}
+            """;
+
+        ImportJobDTO job = run(body, BulkImportJobService.Format.NDJSON);
+
+        assertThat(job.getStatus()).isEqualTo(ImportJobDTO.Status.COMPLETED);
+        assertThat(job.getErrorCount()).isEqualTo(4);
+        assertThat(job.getErrors()).extracting(ImportJobDTO.RowError::line).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(job.getTimeSlotsImported()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should import CSV records with a header row")
+    void shouldImportCsv() throws IOException {
+        recordChunks();
+        String body = """
+            type,name,description,price,duration,startTime,endTime
+            service,Coaching,"One to one, online",50.00,60,,
+            timeSlot,,,,,2024-05-01T10:00:00,2024-05-01T11:00:00
+            timeSlot,,,,,2024-05-01T11:00:00,
+            """;
+
+        ImportJobDTO job = run(body, BulkImportJobService.Format.CSV);
+
+        assertThat(job.getStatus()).isEqualTo(ImportJobDTO.Status.COMPLETED);
+        assertThat(job.getServicesImported()).isEqualTo(1);
+        assertThat(job.getTimeSlotsImported()).isEqualTo(1);
+        assertThat(job.getErrors()).extracting(ImportJobDTO.RowError::message).containsExactly("endTime is required");
+        assertThat(job.getErrors()).extracting(ImportJobDTO.RowError::line).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Should reject an upload larger than the maximum size without queueing it")
+    void shouldRejectOversizedUpload() {
+        byte[] body = "{\"type\":\"unknown\"}\n".repeat(MAX_UPLOAD_BYTES).getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> submit(body)).isInstanceOf(PayloadTooLargeException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject uploads while every worker and queue slot is taken")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch importing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        lenient().when(serviceService.bulkCreateServices(anyList())).thenAnswer(invocation -> {
+            importing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return 1;
+        });
+        byte[] service = "{\"type\":\"service\",\"name\":\"Coaching\",\"description\":\"1:1\",\"price\":\"50.00\",\"duration\":60}\n"
+            .getBytes(StandardCharsets.UTF_8);
+
+        submit(service);
+        assertThat(importing.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(() -> submit(service)).isInstanceOf(ImportQueueFullException.class);
+
+        release.countDown();
+    }
+
+    private ImportJobDTO submit(byte[] body) throws IOException {
+        return bulkImportJobService.submit(new ByteArrayInputStream(body), BulkImportJobService.Format.NDJSON);
+    }
+
+    private ImportJobDTO run(String body, BulkImportJobService.Format format) throws IOException {
+        Path file = Files.createTempFile("import-test-", ".tmp");
+        Files.writeString(file, body, StandardCharsets.UTF_8);
+        BulkImportJobService.ImportJob job = new BulkImportJobService.ImportJob(100);
+        bulkImportJobService.run(job, file, format);
+        assertThat(file).doesNotExist();
+        return job.toDTO();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recordChunks() {
+        lenient().when(serviceService.bulkCreateServices(anyList())).thenAnswer(invocation -> {
+            List<ServiceDTO> chunk = invocation.getArgument(0);
+            serviceChunks.add(chunk.size());
+            return chunk.size();
+        });
+        lenient().when(timeSlotService.bulkCreateTimeSlots(anyList())).thenAnswer(invocation -> {
+            List<TimeSlotDTO> chunk = invocation.getArgument(0);
+            timeSlotChunks.add(chunk.size());
+            return chunk.size();
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package com.goalglo.services;
+
+import com.goalglo.aws.EmailSender;
+import com.goalglo.aws.FakeEmailSender;
+import com.goalglo.config.SecretConfig;
+import com.goalglo.entities.EmailOutboxMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+    private static final int BATCH_SIZE = 3;
+
+    @Mock
+    private EmailOutboxService emailOutboxService;
+
+    private final FakeEmailSender fakeEmailSender = new FakeEmailSender();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = dispatcher(fakeEmailSender);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should send every claimed message and mark it as sent")
+    void shouldSendClaimedMessages() {
+        List<EmailOutboxMessage> batch = messages(2);
+        when(emailOutboxService.claimDueMessages(BATCH_SIZE)).thenReturn(batch);
+
+        dispatcher.dispatch();
+
+        assertThat(fakeEmailSender.getSentEmails())
+            .extracting(FakeEmailSender.SentEmail::to)
+            .containsExactlyInAnyOrder("user0@example.com", "user1@example.com");
+        batch.forEach(message -> verify(emailOutboxService).markSent(message.getId()));
+        assertThat(meterRegistry.get("email.outbox.send").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should claim a single batch per tick even when it comes back full")
+    void shouldClaimOneBatchPerTick() {
+        when(emailOutboxService.claimDueMessages(BATCH_SIZE)).thenReturn(messages(BATCH_SIZE));
+
+        dispatcher.dispatch();
+
+        verify(emailOutboxService, times(1)).claimDueMessages(BATCH_SIZE);
+        assertThat(fakeEmailSender.getSentEmails()).hasSize(BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("Should record a failure for retry when the sender throws")
+    void shouldScheduleRetryOnFailure() throws InterruptedException {
+        dispatcher.shutdown();
+        EmailSender failingSender = (to, subject, body) -> {
+            throw new IllegalStateException("SES throttled");
+        };
+        dispatcher = dispatcher(failingSender);
+        EmailOutboxMessage message = messages(1).get(0);
+        when(emailOutboxService.claimDueMessages(BATCH_SIZE)).thenReturn(List.of(message));
+        when(emailOutboxService.markFailed(eq(message.getId()), any())).thenReturn(true);
+
+        dispatcher.dispatch();
+
+        verify(emailOutboxService, never()).markSent(any());
+        assertThat(meterRegistry.get("email.outbox.retries").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("email.outbox.failures").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should publish the pending queue depth")
+    void shouldPublishDepth() {
+        when(emailOutboxService.countPending()).thenReturn(42L);
+        when(emailOutboxService.claimDueMessages(BATCH_SIZE)).thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        assertThat(meterRegistry.get("email.outbox.depth").gauge().value()).isEqualTo(42);
+    }
+
+    private EmailOutboxDispatcher dispatcher(EmailSender sender) {
+        SecretConfig secretConfig = new SecretConfig();
+        secretConfig.setEmail(new SecretConfig.Email());
+        secretConfig.getEmail().getOutbox().setBatchSize(BATCH_SIZE);
+        secretConfig.getEmail().getOutbox().setMaxSendRate(1000);
+        return new EmailOutboxDispatcher(emailOutboxService, sender, secretConfig, meterRegistry);
+    }
+
+    private static List<EmailOutboxMessage> messages(int count) {
+        List<EmailOutboxMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            EmailOutboxMessage message = new EmailOutboxMessage("user" + i + "@example.com", "Subject", "<p>Body</p>");
+            message.setId(UUID.randomUUID());
+            message.setAttempts(1);
+            messages.add(message);
+        }
+        return messages;
+    }
+}
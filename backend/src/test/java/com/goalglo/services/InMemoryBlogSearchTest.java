@@ -0,0 +1,99 @@
+package com.goalglo.services;
+
+import com.goalglo.dto.BlogSearchResultDTO;
+import com.goalglo.entities.BlogPost;
+import com.goalglo.repositories.BlogPostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryBlogSearchTest {
+
+    @Mock
+    private BlogPostRepository blogPostRepository;
+
+    private InMemoryBlogSearch search;
+    private BlogPost budgeting;
+    private BlogPost retirement;
+    private BlogPost travel;
+
+    @BeforeEach
+    void setUp() {
+        budgeting = post("Budgeting basics", "<p>A monthly <b>budget</b> keeps saving on track.</p>");
+        retirement = post("Planning for retirement", "<p>Saving early for retirement compounds. Start a budget too.</p>");
+        travel = post("Travel on a budget", "<p>Cheap flights and hostels.</p>");
+        when(blogPostRepository.findByPublishedTrue()).thenReturn(List.of(budgeting, retirement, travel));
+
+        search = new InMemoryBlogSearch(blogPostRepository);
+        search.warm();
+    }
+
+    @Test
+    @DisplayName("Should return only posts containing every word, title matches first")
+    void shouldRankTitleMatchesFirst() {
+        List<BlogSearchResultDTO> results = search.search("budget", 0, 10);
+
+        assertThat(results).extracting(BlogSearchResultDTO::getTitle)
+            .containsExactly("Travel on a budget", "Budgeting basics", "Planning for retirement");
+        assertThat(search.search("budget saving", 0, 10)).extracting(BlogSearchResultDTO::getId)
+            .containsExactlyInAnyOrder(budgeting.getId(), retirement.getId());
+    }
+
+    @Test
+    @DisplayName("Should drop excluded words and page the results")
+    void shouldExcludeAndPage() {
+        assertThat(search.search("budget -retirement", 0, 10)).extracting(BlogSearchResultDTO::getId)
+            .doesNotContain(retirement.getId());
+        assertThat(search.search("budget", 1, 2)).hasSize(1);
+        assertThat(search.search("-budget", 0, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should highlight matches in the text without the post's HTML")
+    void shouldHighlightPlainText() {
+        BlogSearchResultDTO result = search.search("saving", 0, 10).stream()
+            .filter(dto -> dto.getId().equals(budgeting.getId()))
+            .findFirst()
+            .orElseThrow();
+
+        assertThat(result.getHeadline()).isEqualTo("A monthly budget keeps <mark>saving</mark> on track.");
+    }
+
+    @Test
+    @DisplayName("Should follow edits and deletions")
+    void shouldReindexOnChange() {
+        travel.setContent("<p>Now about retirement.</p>");
+        travel.setTitle("Travel later");
+        when(blogPostRepository.findById(travel.getId())).thenReturn(Optional.of(travel));
+        search.onBlogPostChanged(new BlogPostChangedEvent(travel.getId(), travel.getSlug()));
+
+        assertThat(search.search("budget", 0, 10)).extracting(BlogSearchResultDTO::getId).doesNotContain(travel.getId());
+        assertThat(search.search("retirement", 0, 10)).extracting(BlogSearchResultDTO::getId).contains(travel.getId());
+
+        when(blogPostRepository.findById(retirement.getId())).thenReturn(Optional.empty());
+        search.onBlogPostChanged(new BlogPostChangedEvent(retirement.getId(), null));
+
+        assertThat(search.search("retirement", 0, 10)).extracting(BlogSearchResultDTO::getId).containsExactly(travel.getId());
+    }
+
+    private BlogPost post(String title, String content) {
+        BlogPost post = new BlogPost();
+        post.setId(UUID.randomUUID());
+        post.setTitle(title);
+        post.setSlug(title.toLowerCase().replace(' ', '-'));
+        post.setContent(content);
+        post.setPublished(true);
+        return post;
+    }
+}
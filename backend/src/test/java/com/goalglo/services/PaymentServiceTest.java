@@ -0,0 +1,199 @@
+package com.goalglo.services;
+
+import com.goalglo.config.SecretConfig;
+import com.goalglo.dto.PaymentDTO;
+import com.goalglo.entities.Payment;
+import com.goalglo.entities.ServiceEntity;
+import com.goalglo.entities.Transaction;
+import com.goalglo.entities.User;
+import com.goalglo.hook.StripeWebhook;
+import com.goalglo.repositories.PaymentRepository;
+import com.stripe.Stripe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentServiceTest {
+
+    private static final String PAYMENT_INTENT_ID = "pi_1";
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private StripeWebhook stripeWebhook;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ServiceService serviceService;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private StripeWebhookEventService stripeWebhookEventService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PaymentService paymentService;
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        SecretConfig secretConfig = new SecretConfig();
+        secretConfig.setStripe(new SecretConfig.Stripe());
+        SecretConfig.Domain domain = new SecretConfig.Domain();
+        domain.setAllowedDomain("https://goalglo.test");
+        secretConfig.setDomain(domain);
+        paymentService = new PaymentService(paymentRepository, stripeWebhook, userService, serviceService, secretConfig,
+            transactionService, stripeWebhookEventService, transactionManager);
+
+        payment = new Payment();
+        payment.setStripePaymentId(PAYMENT_INTENT_ID);
+        payment.setStatus("INITIATED");
+    }
+
+    @Test
+    @DisplayName("Should ignore a replayed event that is older than the last one applied")
+    void shouldSkipStaleEvents() {
+        when(paymentRepository.findByStripePaymentId(PAYMENT_INTENT_ID)).thenReturn(Optional.of(payment));
+
+        paymentService.applyStripeEvent(payload("evt_2", "payment_intent.succeeded", 1_700_000_100L));
+        paymentService.applyStripeEvent(payload("evt_1", "payment_intent.payment_failed", 1_700_000_000L));
+
+        assertThat(payment.getStatus()).isEqualTo("succeeded");
+        assertThat(payment.getStripeEventId()).isEqualTo("evt_2");
+        verify(paymentRepository).save(payment);
+    }
+
+    @Test
+    @DisplayName("Should apply newer events and leave the payment unchanged when one is applied again")
+    void shouldApplyNewerEvents() {
+        when(paymentRepository.findByStripePaymentId(PAYMENT_INTENT_ID)).thenReturn(Optional.of(payment));
+
+        paymentService.applyStripeEvent(payload("evt_1", "payment_intent.payment_failed", 1_700_000_000L));
+        paymentService.applyStripeEvent(payload("evt_2", "payment_intent.succeeded", 1_700_000_100L));
+        paymentService.applyStripeEvent(payload("evt_2", "payment_intent.succeeded", 1_700_000_100L));
+
+        assertThat(payment.getStatus()).isEqualTo("succeeded");
+        assertThat(payment.getStripeEventId()).isEqualTo("evt_2");
+    }
+
+    @Test
+    @DisplayName("Should keep a succeeded payment when an earlier event from the same second arrives late")
+    void shouldKeepTerminalStatusForSameSecondEvents() {
+        when(paymentRepository.findByStripePaymentId(PAYMENT_INTENT_ID)).thenReturn(Optional.of(payment));
+
+        paymentService.applyStripeEvent(payload("evt_2", "payment_intent.succeeded", 1_700_000_000L));
+        paymentService.applyStripeEvent(payload("evt_1", "payment_intent.processing", 1_700_000_000L));
+        paymentService.applyStripeEvent(payload("evt_0", "payment_intent.payment_failed", 1_700_000_000L));
+
+        assertThat(payment.getStatus()).isEqualTo("succeeded");
+        assertThat(payment.getStripeEventId()).isEqualTo("evt_2");
+        verify(paymentRepository).save(payment);
+    }
+
+    @Test
+    @DisplayName("Should not let an intermediate event from the same second overwrite a failure")
+    void shouldKeepFailureForSameSecondIntermediateEvents() {
+        when(paymentRepository.findByStripePaymentId(PAYMENT_INTENT_ID)).thenReturn(Optional.of(payment));
+
+        paymentService.applyStripeEvent(payload("evt_2", "payment_intent.payment_failed", 1_700_000_000L));
+        paymentService.applyStripeEvent(payload("evt_1", "payment_intent.created", 1_700_000_000L));
+
+        assertThat(payment.getStatus()).isEqualTo("failed");
+        assertThat(payment.getStripeEventId()).isEqualTo("evt_2");
+    }
+
+    @Test
+    @DisplayName("Should ignore events that are not about a PaymentIntent")
+    void shouldIgnoreOtherObjects() {
+        paymentService.applyStripeEvent("{\"id\": \"evt_3\", \"object\": \"event\", \"type\": \"customer.created\", "
+            + "\"created\": 1700000000, \"data\": {\"object\": {\"id\": \"cus_1\", \"object\": \"customer\"}}}");
+
+        verify(paymentRepository, never()).findByStripePaymentId(PAYMENT_INTENT_ID);
+        assertThat(payment.getStatus()).isEqualTo("INITIATED");
+    }
+
+    @Test
+    @DisplayName("Should complete a confirmed payment and record its expense in one transaction")
+    void shouldRecordExpenseOnce() throws Exception {
+        UUID paymentId = confirmablePayment();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(paymentRepository.updateStatusIfChanged(eq(paymentId), eq("COMPLETED"), any())).thenReturn(1);
+
+        paymentService.confirmPayment(paymentId);
+
+        verify(stripeWebhook).confirmPaymentIntent(eq(PAYMENT_INTENT_ID), anyString(), anyString());
+        verify(transactionService).recordTransaction(any(Transaction.class));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should not record the expense again when another confirmation completed the payment first")
+    void shouldNotRecordExpenseTwiceConcurrently() throws Exception {
+        UUID paymentId = confirmablePayment();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(paymentRepository.updateStatusIfChanged(eq(paymentId), eq("COMPLETED"), any())).thenReturn(0);
+
+        paymentService.confirmPayment(paymentId);
+
+        verify(transactionService, never()).recordTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Should return a completed payment without confirming or recording it again")
+    void shouldIgnoreRepeatedConfirmation() throws Exception {
+        UUID paymentId = confirmablePayment();
+        payment.setStatus("COMPLETED");
+
+        PaymentDTO confirmed = paymentService.confirmPayment(paymentId);
+
+        assertThat(confirmed.getStatus()).isEqualTo("COMPLETED");
+        verify(stripeWebhook, never()).confirmPaymentIntent(anyString(), anyString(), anyString());
+        verify(transactionService, never()).recordTransaction(any());
+    }
+
+    private UUID confirmablePayment() {
+        UUID paymentId = UUID.randomUUID();
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        ServiceEntity service = new ServiceEntity();
+        service.setId(UUID.randomUUID());
+        service.setName("Coaching");
+        payment.setId(paymentId);
+        payment.setUser(user);
+        payment.setService(service);
+        payment.setAmount(5000L);
+        payment.setCurrency("usd");
+        payment.setPaymentMethod("pm_card_visa");
+        when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
+        return paymentId;
+    }
+
+    private static String payload(String eventId, String type, long created) {
+        return "{\"id\": \"" + eventId + "\", \"object\": \"event\", \"type\": \"" + type + "\", \"created\": " + created
+            + ", \"api_version\": \"" + Stripe.API_VERSION + "\", \"data\": {\"object\": {\"id\": \"" + PAYMENT_INTENT_ID
+            + "\", \"object\": \"payment_intent\"}}}";
+    }
+}
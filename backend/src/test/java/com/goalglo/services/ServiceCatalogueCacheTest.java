@@ -0,0 +1,107 @@
+package com.goalglo.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goalglo.config.SecretConfig;
+import com.goalglo.dto.ServiceDTO;
+import com.goalglo.entities.ServiceEntity;
+import com.goalglo.repositories.ServiceRepository;
+import com.goalglo.util.SerializedResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceCatalogueCacheTest {
+
+    @Mock
+    private ServiceRepository serviceRepository;
+
+    private ServiceCatalogueCache cache;
+
+    @BeforeEach
+    void setUp() {
+        SecretConfig secretConfig = new SecretConfig();
+        cache = new ServiceCatalogueCache(serviceRepository, new ObjectMapper(), secretConfig);
+    }
+
+    @Test
+    @DisplayName("Should query and serialise the catalogue once while it is unchanged")
+    void shouldServeListFromCache() {
+        when(serviceRepository.findAllDTOs()).thenReturn(List.of(dto("Coaching")));
+
+        SerializedResponse first = cache.getAllServices();
+        SerializedResponse second = cache.getAllServices();
+
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.body())).contains("\"name\":\"Coaching\"");
+        assertThat(first.eTag()).startsWith("\"").endsWith("\"");
+        verify(serviceRepository, times(1)).findAllDTOs();
+    }
+
+    @Test
+    @DisplayName("Should reload the list with a new ETag after a change")
+    void shouldEvictListOnChange() {
+        when(serviceRepository.findAllDTOs())
+            .thenReturn(List.of(dto("Coaching")))
+            .thenReturn(List.of(dto("Coaching"), dto("Planning")));
+
+        String before = cache.getAllServices().eTag();
+        cache.onCatalogueChanged(new ServiceCatalogueChangedEvent(null));
+        String after = cache.getAllServices().eTag();
+
+        assertThat(after).isNotEqualTo(before);
+        verify(serviceRepository, times(2)).findAllDTOs();
+    }
+
+    @Test
+    @DisplayName("Should evict only the changed service and the list")
+    void shouldEvictChangedServiceOnly() {
+        ServiceEntity changed = entity("Coaching");
+        ServiceEntity untouched = entity("Planning");
+        when(serviceRepository.findById(changed.getId())).thenReturn(Optional.of(changed));
+        when(serviceRepository.findById(untouched.getId())).thenReturn(Optional.of(untouched));
+
+        cache.getService(changed.getId());
+        cache.getService(untouched.getId());
+        cache.onCatalogueChanged(new ServiceCatalogueChangedEvent(changed.getId()));
+        cache.getService(changed.getId());
+        cache.getService(untouched.getId());
+
+        verify(serviceRepository, times(2)).findById(changed.getId());
+        verify(serviceRepository, times(1)).findById(untouched.getId());
+    }
+
+    @Test
+    @DisplayName("Should not remember services that do not exist yet")
+    void shouldNotCacheMissingService() {
+        UUID id = UUID.randomUUID();
+        ServiceEntity created = entity("Coaching");
+        when(serviceRepository.findById(id)).thenReturn(Optional.empty()).thenReturn(Optional.of(created));
+
+        assertThat(cache.getService(id)).isEmpty();
+        assertThat(cache.getService(id)).isPresent();
+    }
+
+    private ServiceDTO dto(String name) {
+        return new ServiceDTO(UUID.randomUUID(), name, name + " sessions", BigDecimal.TEN, 60);
+    }
+
+    private ServiceEntity entity(String name) {
+        ServiceEntity entity = new ServiceEntity(dto(name));
+        entity.setId(UUID.randomUUID());
+        return entity;
+    }
+}
@@ -0,0 +1,120 @@
+package com.goalglo.services;
+
+import com.goalglo.config.SecretConfig;
+import com.goalglo.entities.StripeWebhookEvent;
+import com.stripe.model.Event;
+import com.stripe.net.ApiResource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StripeWebhookDispatcherTest {
+
+    @Mock
+    private StripeWebhookEventService stripeWebhookEventService;
+
+    @Mock
+    private PaymentService paymentService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StripeWebhookDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        SecretConfig secretConfig = new SecretConfig();
+        secretConfig.setStripe(new SecretConfig.Stripe());
+        dispatcher = new StripeWebhookDispatcher(stripeWebhookEventService, paymentService, secretConfig, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should apply the events of one PaymentIntent one after another in order")
+    void shouldApplyEventsOfOneKeyInOrder() {
+        StripeWebhookEvent created = event("pi_1", "payment_intent.created");
+        StripeWebhookEvent succeeded = event("pi_1", "payment_intent.succeeded");
+        when(stripeWebhookEventService.claimDueEvents(anyInt())).thenReturn(List.of(created));
+        when(stripeWebhookEventService.claimNextEvent("pi_1"))
+            .thenReturn(Optional.of(succeeded))
+            .thenReturn(Optional.empty());
+
+        dispatcher.dispatch();
+
+        InOrder order = inOrder(paymentService, stripeWebhookEventService);
+        order.verify(paymentService).applyStripeEvent(created.getPayload());
+        order.verify(stripeWebhookEventService).markProcessed(created.getId());
+        order.verify(paymentService).applyStripeEvent(succeeded.getPayload());
+        order.verify(stripeWebhookEventService).markProcessed(succeeded.getId());
+        assertThat(meterRegistry.get("stripe.webhook.lag").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should hold back later events of a PaymentIntent while an earlier one is retried")
+    void shouldStopKeyOnFailure() {
+        StripeWebhookEvent failing = event("pi_2", "payment_intent.succeeded");
+        when(stripeWebhookEventService.claimDueEvents(anyInt())).thenReturn(List.of(failing));
+        doThrow(new IllegalStateException("Payment not found")).when(paymentService).applyStripeEvent(failing.getPayload());
+        when(stripeWebhookEventService.markFailed(any(), any())).thenReturn(true);
+
+        dispatcher.dispatch();
+
+        verify(stripeWebhookEventService).markFailed(any(), any());
+        verify(stripeWebhookEventService, never()).markProcessed(any());
+        verify(stripeWebhookEventService, never()).claimNextEvent(any());
+        assertThat(meterRegistry.get("stripe.webhook.retries").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should order events by the PaymentIntent their object is or belongs to")
+    void shouldPickOrderingKey() {
+        assertThat(StripeWebhookEventService.orderingKey(stripeEvent("evt_1",
+            "{\"id\": \"pi_1\", \"object\": \"payment_intent\"}"))).isEqualTo("pi_1");
+        assertThat(StripeWebhookEventService.orderingKey(stripeEvent("evt_2",
+            "{\"id\": \"ch_1\", \"object\": \"charge\", \"payment_intent\": \"pi_1\"}"))).isEqualTo("pi_1");
+        assertThat(StripeWebhookEventService.orderingKey(stripeEvent("evt_3",
+            "{\"id\": \"ch_2\", \"object\": \"charge\", \"payment_intent\": {\"id\": \"pi_3\"}}"))).isEqualTo("pi_3");
+        assertThat(StripeWebhookEventService.orderingKey(stripeEvent("evt_4",
+            "{\"id\": \"cus_1\", \"object\": \"customer\"}"))).isEqualTo("evt_4");
+    }
+
+    private static StripeWebhookEvent event(String orderingKey, String type) {
+        StripeWebhookEvent event = new StripeWebhookEvent();
+        event.setId(UUID.randomUUID());
+        event.setEventId("evt_" + UUID.randomUUID());
+        event.setEventType(type);
+        event.setOrderingKey(orderingKey);
+        event.setPayload("{\"type\": \"" + type + "\"}");
+        event.setAttempts(1);
+        event.setReceivedAt(LocalDateTime.now());
+        return event;
+    }
+
+    private static Event stripeEvent(String id, String object) {
+        return ApiResource.GSON.fromJson("{\"id\": \"" + id + "\", \"object\": \"event\", \"type\": \"test\", "
+            + "\"data\": {\"object\": " + object + "}}", Event.class);
+    }
+}
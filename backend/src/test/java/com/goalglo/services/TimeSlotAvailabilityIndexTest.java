@@ -0,0 +1,114 @@
+package com.goalglo.services;
+
+import com.goalglo.dto.TimeSlotDTO;
+import com.goalglo.entities.TimeSlot;
+import com.goalglo.repositories.TimeSlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSlotAvailabilityIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 9, 0);
+
+    @Mock
+    private TimeSlotRepository timeSlotRepository;
+
+    private TimeSlotAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TimeSlotAvailabilityIndex(timeSlotRepository, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Should return free slots in start time order within the requested range")
+    void shouldServeRangeInOrder() {
+        TimeSlotDTO late = free(NOW.plusDays(2));
+        TimeSlotDTO early = free(NOW.plusHours(1));
+        TimeSlotDTO nextWeek = free(NOW.plusDays(8));
+        publish(late, early, nextWeek);
+
+        assertThat(index.findAvailable(null, null, 0, 10)).containsExactly(early, late, nextWeek);
+        assertThat(index.findAvailable(NOW, NOW.plusDays(7), 0, 10)).containsExactly(early, late);
+        assertThat(index.findAvailable(NOW.plusDays(1), null, 0, 10)).containsExactly(late, nextWeek);
+    }
+
+    @Test
+    @DisplayName("Should page through free slots")
+    void shouldPage() {
+        TimeSlotDTO first = free(NOW.plusHours(1));
+        TimeSlotDTO second = free(NOW.plusHours(2));
+        TimeSlotDTO third = free(NOW.plusHours(3));
+        publish(first, second, third);
+
+        assertThat(index.findAvailable(null, null, 0, 2)).containsExactly(first, second);
+        assertThat(index.findAvailable(null, null, 1, 2)).containsExactly(third);
+    }
+
+    @Test
+    @DisplayName("Should drop a slot once it is booked and restore it when released")
+    void shouldFollowBookings() {
+        TimeSlotDTO slot = free(NOW.plusHours(1));
+        publish(slot);
+
+        TimeSlotDTO booked = new TimeSlotDTO(slot.getId(), slot.getStartTime(), slot.getEndTime(), true);
+        publish(booked);
+        assertThat(index.findAvailable(null, null, 0, 10)).isEmpty();
+
+        publish(slot);
+        assertThat(index.findAvailable(null, null, 0, 10)).containsExactly(slot);
+    }
+
+    @Test
+    @DisplayName("Should hide slots that have already ended")
+    void shouldHideEndedSlots() {
+        publish(free(NOW.minusHours(2)));
+
+        assertThat(index.findAvailable(null, null, 0, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should replace its contents with the database state on refresh")
+    void shouldRefreshFromDatabase() {
+        TimeSlotDTO stale = free(NOW.plusHours(1));
+        publish(stale);
+
+        TimeSlot stored = new TimeSlot();
+        stored.setId(UUID.randomUUID());
+        stored.setStartTime(NOW.plusHours(5));
+        stored.setEndTime(NOW.plusHours(6));
+        when(timeSlotRepository.findByBookedFalseAndEndTimeAfterOrderByStartTimeAsc(any(LocalDateTime.class)))
+            .thenReturn(List.of(stored));
+
+        index.refresh();
+
+        assertThat(index.findAvailable(null, null, 0, 10))
+            .extracting(TimeSlotDTO::getId)
+            .containsExactly(stored.getId());
+    }
+
+    private void publish(TimeSlotDTO... slots) {
+        for (TimeSlotDTO slot : slots) {
+            index.onTimeSlotChanged(new TimeSlotChangedEvent(slot));
+        }
+    }
+
+    private static TimeSlotDTO free(LocalDateTime start) {
+        return new TimeSlotDTO(UUID.randomUUID(), start, start.plusHours(1), false);
+    }
+}
@@ -0,0 +1,142 @@
+package com.goalglo.services;
+
+import com.goalglo.common.SlotUnavailableException;
+import com.goalglo.entities.TimeSlot;
+import com.goalglo.repositories.TimeSlotRepository;
+import com.goalglo.util.BatchInserter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Claims time slots through the transactional {@link TimeSlotService} proxy against a real database, so the
+ * conditional UPDATE, its row lock and the MANDATORY propagation are what decide each race.
+ */
+@DataJpaTest
+@ActiveProfiles("local")
+@Import(TimeSlotService.class)
+// Each claim commits in its own transaction so the competing threads see each other's writes
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TimeSlotClaimTest {
+
+    private static final int SLOTS = 5;
+    private static final int ATTEMPTS = 500;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private TimeSlotAvailabilityIndex availabilityIndex;
+
+    @MockBean
+    private BatchInserter batchInserter;
+
+    private TransactionTemplate transactionTemplate;
+    private final List<UUID> slotIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 10, 0);
+        for (int i = 0; i < SLOTS; i++) {
+            TimeSlot slot = new TimeSlot();
+            slot.setStartTime(start.plusHours(i));
+            slot.setEndTime(start.plusHours(i + 1));
+            slotIds.add(timeSlotRepository.save(slot).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        timeSlotRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of hundreds of parallel claims win each slot")
+    void shouldClaimEachSlotExactlyOnce() throws Exception {
+        AtomicInteger claimed = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> attempts = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            UUID slotId = slotIds.get(i % SLOTS);
+            attempts.add(executor.submit(() -> {
+                start.await();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> timeSlotService.claimSlot(slotId));
+                    claimed.incrementAndGet();
+                } catch (SlotUnavailableException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> attempt : attempts) {
+            attempt.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(claimed.get()).isEqualTo(SLOTS);
+        assertThat(conflicts.get()).isEqualTo(ATTEMPTS - SLOTS);
+        assertThat(timeSlotRepository.findAllById(slotIds)).allSatisfy(slot -> assertThat(slot.isBooked()).isTrue());
+    }
+
+    @Test
+    @DisplayName("Should free the slot again when the booking transaction rolls back")
+    void shouldReleaseClaimOnRollback() {
+        UUID slotId = slotIds.get(0);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            timeSlotService.claimSlot(slotId);
+            status.setRollbackOnly();
+        });
+
+        assertThat(timeSlotRepository.findById(slotId)).get().extracting(TimeSlot::isBooked).isEqualTo(false);
+        transactionTemplate.executeWithoutResult(status -> timeSlotService.claimSlot(slotId));
+        assertThat(timeSlotRepository.findById(slotId)).get().extracting(TimeSlot::isBooked).isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("Should refuse to claim a slot outside a transaction")
+    void shouldRequireTransaction() {
+        UUID slotId = slotIds.get(0);
+
+        assertThatThrownBy(() -> timeSlotService.claimSlot(slotId))
+            .isInstanceOf(IllegalTransactionStateException.class);
+        assertThat(timeSlotRepository.findById(slotId)).get().extracting(TimeSlot::isBooked).isEqualTo(false);
+    }
+}
@@ -0,0 +1,117 @@
+package com.goalglo.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.goalglo.dto.TransactionDTO;
+import com.goalglo.repositories.TransactionRepository;
+import com.goalglo.tokens.JwtUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionExportService service;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        service = new TransactionExportService(transactionRepository, jwtUtils, transactionManager, objectMapper);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    @DisplayName("Should write a CSV header and one line per transaction in a read-only transaction")
+    void shouldWriteCsv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.export(() -> Stream.of(transaction(1, "income", "Salary"), transaction(2, "expense", "Coaching, 1h")),
+            TransactionExportService.Format.CSV, false, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+            "id,transactionDate,type,amount,description,userId,paymentId,serviceId",
+            "00000000-0000-0000-0000-000000000011,2024-05-01T09:00:30,income,10.50,Salary," + USER_ID + ",,",
+            "00000000-0000-0000-0000-000000000012,2024-05-02T09:00:30,expense,21.00,\"Coaching, 1h\"," + USER_ID + ",,");
+        verify(transactionManager).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Should write gzipped NDJSON, one object per line")
+    void shouldWriteGzippedNdjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.export(() -> Stream.of(transaction(1, "income", "Salary"), transaction(2, "expense", null)),
+            TransactionExportService.Format.NDJSON, true, out);
+
+        String[] lines = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+            StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{").contains("\"description\":\"Salary\"", "\"transactionDate\":\"2024-05-01T09:00:30\"");
+        assertThat(lines[1]).contains("\"type\":\"expense\"");
+    }
+
+    @Test
+    @DisplayName("Should leave the gzip stream unfinished when reading fails part way")
+    void shouldNotFinishFailedExport() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Stream<TransactionDTO> failing = Stream.of(1, 2).map(i -> {
+            if (i == 2) {
+                throw new IllegalStateException("connection lost");
+            }
+            return transaction(i, "income", "Salary");
+        });
+
+        assertThatThrownBy(() -> service.export(() -> failing, TransactionExportService.Format.NDJSON, true, out))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes())
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("Should accept export formats in any case and reject unknown ones")
+    void shouldParseFormatIgnoringCase() {
+        assertThat(TransactionExportService.Format.parse("csv")).isEqualTo(TransactionExportService.Format.CSV);
+        assertThat(TransactionExportService.Format.parse("NdJson")).isEqualTo(TransactionExportService.Format.NDJSON);
+        assertThatThrownBy(() -> TransactionExportService.Format.parse("xlsx"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static TransactionDTO transaction(int i, String type, String description) {
+        return new TransactionDTO(UUID.fromString("00000000-0000-0000-0000-0000000000" + (10 + i)), USER_ID, null, null,
+            new BigDecimal("10.50").multiply(BigDecimal.valueOf(i)), type, description, LocalDateTime.of(2024, 5, i, 9, 0, 30));
+    }
+}
@@ -0,0 +1,112 @@
+package com.goalglo.services;
+
+import com.goalglo.config.SecretConfig;
+import com.goalglo.dto.TransactionSeriesPointDTO;
+import com.goalglo.entities.Transaction;
+import com.goalglo.entities.TransactionRollup.Granularity;
+import com.goalglo.entities.User;
+import com.goalglo.repositories.TransactionRollupRepository;
+import com.goalglo.tokens.JwtUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionRollupServiceTest {
+
+    @Mock
+    private TransactionRollupRepository rollupRepository;
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Authentication authentication;
+
+    private TransactionRollupService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        service = new TransactionRollupService(rollupRepository, jwtUtils, transactionManager, new SecretConfig());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should add a transaction to its day and month buckets")
+    void shouldAddTransactionToBuckets() {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setType(Transaction.TYPE_EXPENSE);
+        transaction.setAmount(new BigDecimal("12.50"));
+        transaction.setTransactionDate(LocalDateTime.of(2026, 3, 14, 23, 59));
+
+        service.applyTransaction(transaction);
+
+        verify(rollupRepository).addToBucket(any(), eq(user.getId()), eq("DAY"), eq(LocalDate.of(2026, 3, 14)),
+            eq(Transaction.TYPE_EXPENSE), eq(new BigDecimal("12.50")), any());
+        verify(rollupRepository).addToBucket(any(), eq(user.getId()), eq("MONTH"), eq(LocalDate.of(2026, 3, 1)),
+            eq(Transaction.TYPE_EXPENSE), eq(new BigDecimal("12.50")), any());
+    }
+
+    @Test
+    @DisplayName("Should return a point for every bucket in the range, zero where there were no transactions")
+    void shouldFillEmptyBuckets() {
+        when(jwtUtils.getCurrentUser(authentication)).thenReturn(Optional.of(user));
+        TransactionSeriesPointDTO february = new TransactionSeriesPointDTO(LocalDate.of(2026, 2, 1),
+            new BigDecimal("100.00"), new BigDecimal("30.00"), 4);
+        when(rollupRepository.findSeries(user.getId(), Granularity.MONTH, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 4, 1)))
+            .thenReturn(List.of(february));
+
+        List<TransactionSeriesPointDTO> series = service.getSeries(authentication, Granularity.MONTH,
+            LocalDate.of(2026, 1, 15), LocalDate.of(2026, 4, 10));
+
+        assertThat(series).extracting(TransactionSeriesPointDTO::getBucketStart).containsExactly(
+            LocalDate.of(2026, 1, 1), LocalDate.of(2026, 2, 1), LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 1));
+        assertThat(series.get(1)).isSameAs(february);
+        assertThat(series.get(0).getIncome()).isZero();
+        assertThat(series.get(3).getTransactionCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject reversed and overly long ranges without querying")
+    void shouldRejectInvalidRanges() {
+        when(jwtUtils.getCurrentUser(authentication)).thenReturn(Optional.of(user));
+
+        assertThatThrownBy(() -> service.getSeries(authentication, Granularity.DAY,
+            LocalDate.of(2026, 2, 1), LocalDate.of(2026, 1, 31))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.getSeries(authentication, Granularity.DAY,
+            LocalDate.of(2020, 1, 1), LocalDate.of(2026, 1, 1))).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(rollupRepository);
+    }
+}
@@ -0,0 +1,60 @@
+package com.goalglo.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledTemplateTest {
+
+    @Test
+    @DisplayName("Should substitute every placeholder occurrence")
+    void shouldSubstitutePlaceholders() {
+        CompiledTemplate template = CompiledTemplate.compile("Hi {name}, your {service_name} is on {booking_date}. Bye {name}!");
+
+        String rendered = template.render(Map.of("name", "Ada", "service_name", "Coaching", "booking_date", "2024-05-01"));
+
+        assertThat(rendered).isEqualTo("Hi Ada, your Coaching is on 2024-05-01. Bye Ada!");
+    }
+
+    @Test
+    @DisplayName("Should leave placeholders without a value untouched")
+    void shouldKeepUnknownPlaceholders() {
+        CompiledTemplate template = CompiledTemplate.compile("Visit {verificationUrl} or {other}");
+
+        assertThat(template.render(Map.of("verificationUrl", "https://x/verify")))
+            .isEqualTo("Visit https://x/verify or {other}");
+    }
+
+    @Test
+    @DisplayName("Should treat braces that are not placeholders as literal text")
+    void shouldKeepCssBraces() {
+        String html = "<style>p { color: red; } a{}</style><p>{reset_url}</p>{";
+        CompiledTemplate template = CompiledTemplate.compile(html);
+
+        assertThat(template.render(Map.of("reset_url", "link")))
+            .isEqualTo("<style>p { color: red; } a{}</style><p>link</p>{");
+    }
+
+    @Test
+    @DisplayName("Should render the same output as chained String.replace")
+    void shouldMatchReplaceChain() {
+        String source = "<h1>{service_name}</h1><p>{booking_date} {booking_time}</p><a href=\"{link_to_registration}\">{company_email}</a>{company_phone_number}";
+        Map<String, String> variables = Map.of(
+            "service_name", "Coaching",
+            "booking_date", "2024-05-01",
+            "booking_time", "10:00",
+            "link_to_registration", "https://goalglo.com/register",
+            "company_email", "hello@goalglo.com",
+            "company_phone_number", "+1 555 0100");
+
+        String expected = source;
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            expected = expected.replace("{" + variable.getKey() + "}", variable.getValue());
+        }
+
+        assertThat(CompiledTemplate.compile(source).render(variables)).isEqualTo(expected);
+    }
+}
@@ -4,7 +4,7 @@ import {fetchAllAppointments, updateAppointmentStatus} from '../../redux/actions
 
 const AdminAppointmentList = () => {
    const dispatch = useDispatch();
-   const {appointments, loading, error} = useSelector((state) => state.appointments);
+   const {appointments, appointmentsNextCursor, loading, error} = useSelector((state) => state.appointments);
 
    useEffect(() => {
       dispatch(fetchAllAppointments());
@@ -14,7 +14,7 @@ const AdminAppointmentList = () => {
       dispatch(updateAppointmentStatus(appointmentId, newStatus));
    };
 
-   if (loading) return <div>Loading appointments...</div>;
+   if (loading && appointments.length === 0) return <div>Loading appointments...</div>;
    if (error) return <div>Error: {error}</div>;
 
    return (
@@ -52,6 +52,11 @@ const AdminAppointmentList = () => {
             ))}
             </tbody>
          </table>
+         {appointmentsNextCursor && (
+            <button disabled={loading} onClick={() => dispatch(fetchAllAppointments(appointmentsNextCursor))}>
+               {loading ? 'Loading...' : 'Load more'}
+            </button>
+         )}
       </div>
    );
 };
@@ -14,6 +14,7 @@ post: An object containing the post data, including:
   date: The date when the post was published
   author: The author of the post
   imageUrl: The URL of the image associated with the post
+  imageSrcset: Resized variants of the image, when the server produced them
 
   */
 const formatDate = (dateString) => {
@@ -28,7 +29,9 @@ const formatDate = (dateString) => {
 };
 
 const BlogPostCard = ({post, isAdmin, onEditClick}) => {
-   const sanitizedExcerpt = DOMPurify.sanitize(post.content.substring(0, 150) + "...");
+   // Listings send a server-side excerpt; a full post (e.g. just edited) still has its content
+   const excerpt = post.excerpt ?? post.content ?? "";
+   const sanitizedExcerpt = DOMPurify.sanitize(excerpt.substring(0, 150) + "...");
 
    return (
       <div className="blog-post-card">
@@ -36,6 +39,9 @@ const BlogPostCard = ({post, isAdmin, onEditClick}) => {
          {post.imageUrl && (
             <img
                src={post.imageUrl}
+               srcSet={post.imageSrcset ?? undefined}
+               sizes="(max-width: 600px) 100vw, 400px"
+               loading="lazy"
                alt={post.title}
                className="blog-post-image"
             />
@@ -53,7 +59,7 @@ const BlogPostCard = ({post, isAdmin, onEditClick}) => {
                Edit
             </button>
          )}
-         <Link to={`/blog/${post.id}`} className="read-more">
+         <Link to={`/blog/${post.slug ?? post.id}`} className="read-more">
             Read More
          </Link>
       </div>
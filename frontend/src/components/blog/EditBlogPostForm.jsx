@@ -1,6 +1,6 @@
 import {useEffect, useState} from 'react';
 import {useDispatch, useSelector} from 'react-redux';
-import {fetchBlogPostById, updateBlogPost} from '../../redux/actions/blogActions';
+import {DIRECT_UPLOAD_THRESHOLD, fetchBlogPostById, updateBlogPost, uploadBlogImage} from '../../redux/actions/blogActions';
 
 /**
  * EditBlogPostForm component
@@ -48,10 +48,14 @@ const EditBlogPostForm = ({postId, onCancel, onEditSuccess}) => {
       formDataToSend.append('title', formData.title);
       formDataToSend.append('content', formData.content);
       formDataToSend.append('published', formData.published);
-      if (image) {
+      const directUpload = image && image.size > DIRECT_UPLOAD_THRESHOLD;
+      if (image && !directUpload) {
          formDataToSend.append('image', image);
       }
       await dispatch(updateBlogPost(postId, formDataToSend));
+      if (directUpload) {
+         await dispatch(uploadBlogImage(postId, image));
+      }
       onEditSuccess();
    };
 
@@ -3,11 +3,13 @@ import {useParams} from 'react-router-dom';
 import {useDispatch, useSelector} from 'react-redux';
 import DOMPurify from 'dompurify';
 
-import {fetchBlogPostById} from "../../redux/actions/blogActions";
+import {fetchBlogPostById, fetchBlogPostBySlug} from "../../redux/actions/blogActions";
+
+const UUID_PATTERN = /^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$/i;
 
 /**
  * SingleBlogPostPage component
- * Displays a single blog post based on the provided ID
+ * Displays a single blog post based on the provided slug, or ID for older links
  */
 const SingleBlogPostPage = () => {
    const {id} = useParams();
@@ -15,7 +17,7 @@ const SingleBlogPostPage = () => {
    const {currentPost, loading, error} = useSelector(state => state.blog);
 
    useEffect(() => {
-      dispatch(fetchBlogPostById(id));
+      dispatch(UUID_PATTERN.test(id) ? fetchBlogPostById(id) : fetchBlogPostBySlug(id));
    }, [dispatch, id]);
 
    if (loading) return <div>Loading...</div>;
@@ -26,7 +28,13 @@ const SingleBlogPostPage = () => {
       <div className="single-blog-post">
          <div className="container">
             <h1>{currentPost.title}</h1>
-            <img src={currentPost.imageUrl} alt={currentPost.title} className="blog-post-image"/>
+            <img
+               src={currentPost.imageUrl}
+               srcSet={currentPost.imageSrcset ?? undefined}
+               sizes="(max-width: 800px) 100vw, 800px"
+               alt={currentPost.title}
+               className="blog-post-image"
+            />
             <div
                className="blog-post-content"
                dangerouslySetInnerHTML={{__html: DOMPurify.sanitize(currentPost.content)}}
@@ -3,7 +3,6 @@ import {useDispatch, useSelector} from "react-redux";
 import {fetchBlogPostById, fetchBlogPosts} from "../redux/actions/blogActions";
 import BlogPostCard from "../components/blog/BlogPostCard";
 import EditBlogPostForm from "../components/blog/EditBlogPostForm";
-import Pagination from "../components/common/Pagination";
 import {useAuthContext} from "../hooks/useAuthContext";
 
 /**
@@ -16,17 +15,12 @@ const BlogPage = () => {
    const dispatch = useDispatch();
    const {hasSecuredRole} = useAuthContext();
 
-   const {posts, loading, error, totalPages} = useSelector((state) => state.blog);
-   const [currentPage, setCurrentPage] = useState(1);
+   const {posts, postsNextCursor, loading, error} = useSelector((state) => state.blog);
    const [editingPostId, setEditingPostId] = useState(null);
 
    useEffect(() => {
-      dispatch(fetchBlogPosts(currentPage));
-   }, [dispatch, currentPage]);
-
-   const handlePageChange = (pageNumber) => {
-      setCurrentPage(pageNumber);
-   };
+      dispatch(fetchBlogPosts());
+   }, [dispatch]);
 
    const handleEditClick = (postId) => {
       dispatch(fetchBlogPostById(postId));
@@ -39,10 +33,10 @@ const BlogPage = () => {
 
    const handleEditSuccess = () => {
       setEditingPostId(null);
-      dispatch(fetchBlogPosts(currentPage)); // Refresh the posts after edit
+      dispatch(fetchBlogPosts()); // Refresh the posts after edit
    };
 
-   if (loading) return <div className="loading">Loading blog posts...</div>;
+   if (loading && posts.length === 0) return <div className="loading">Loading blog posts...</div>;
    if (error) return <div className="error">Error: {error}</div>;
 
    return (
@@ -78,12 +72,10 @@ const BlogPage = () => {
                <p>No blog posts available.</p>
             )}
          </div>
-         {totalPages > 1 && (
-            <Pagination
-               currentPage={currentPage}
-               totalPages={totalPages}
-               onPageChange={handlePageChange}
-            />
+         {postsNextCursor && (
+            <button disabled={loading} onClick={() => dispatch(fetchBlogPosts(postsNextCursor))}>
+               {loading ? "Loading..." : "Load more"}
+            </button>
          )}
       </div>
    );
@@ -1,6 +1,6 @@
 import {useRef, useState} from 'react';
 import {useDispatch, useSelector} from 'react-redux';
-import {createBlogPost} from '../redux/actions/blogActions';
+import {createBlogPost, DIRECT_UPLOAD_THRESHOLD, uploadBlogImage} from '../redux/actions/blogActions';
 import DOMPurify from "dompurify";
 
 /**
@@ -48,12 +48,16 @@ const CreateBlogPostPage = () => {
       postData.append('title', formData.title);
       postData.append('content', sanitizedContent);
       postData.append('slug', formData.slug);
-      if (image) {
+      const directUpload = image && image.size > DIRECT_UPLOAD_THRESHOLD;
+      if (image && !directUpload) {
          postData.append('image', image);
       }
 
       try {
-         await dispatch(createBlogPost(postData));
+         const created = await dispatch(createBlogPost(postData));
+         if (created && directUpload) {
+            await dispatch(uploadBlogImage(created.id, image));
+         }
          setFormData({title: '', content: '', slug: ''});
          setImage(null);
          if (fileInputRef.current) {
@@ -104,11 +104,12 @@ export const updateAppointment = (id, appointment) => async (dispatch) => {
 };
 
 
-export const fetchAllAppointments = () => async (dispatch) => {
+export const fetchAllAppointments = (cursor = null) => async (dispatch) => {
    dispatch({type: FETCH_ALL_APPOINTMENTS_REQUEST});
    try {
-      const response = await apiService.get("/appointments/all");
-      dispatch({type: FETCH_ALL_APPOINTMENTS_SUCCESS, payload: response.data});
+      const params = cursor ? {cursor} : {};
+      const response = await apiService.get("/appointments/all", {params});
+      dispatch({type: FETCH_ALL_APPOINTMENTS_SUCCESS, payload: {...response.data, append: Boolean(cursor)}});
    } catch (error) {
       dispatch({type: FETCH_ALL_APPOINTMENTS_FAILURE, payload: error.message});
    }
@@ -1,5 +1,12 @@
+import axios from "axios";
 import apiService from "../../services/apiService";
 
+/**
+ * Images larger than this are PUT straight to S3 instead of being sent through the API.
+ * Smaller images still go through the API, which resizes them into responsive variants.
+ */
+export const DIRECT_UPLOAD_THRESHOLD = 8 * 1024 * 1024;
+
 /*
  * Action Types
  * These constants represent the different types of actions that can be dispatched
@@ -49,19 +56,20 @@ export const DELETE_BLOG_POST_SUCCESS = "DELETE_BLOG_POST_SUCCESS";
 export const DELETE_BLOG_POST_FAILURE = "DELETE_BLOG_POST_FAILURE";
 
 /**
- * Action creator for fetching blog posts
- * @param {number} page - The page number to fetch
+ * Action creator for fetching a page of blog post summaries
+ * @param {string|null} cursor - The nextCursor of the previous page, or null for the first page
  * @returns {Function} - A thunk function that dispatches the appropriate actions
  */
-export const fetchBlogPosts = (page = 1) => {
+export const fetchBlogPosts = (cursor = null) => {
    return async (dispatch) => {
       dispatch({ type: FETCH_BLOG_POSTS_REQUEST });
 
       try {
-         const response = await apiService.get(`/blog-posts?page=${page}`);
+         const params = cursor ? {cursor} : {};
+         const response = await apiService.get("/blog-posts/summaries", {params});
          dispatch({
             type: FETCH_BLOG_POSTS_SUCCESS,
-            payload: response.data,
+            payload: {...response.data, append: Boolean(cursor)},
          });
       } catch (error) {
          dispatch({
@@ -93,6 +101,7 @@ export const createBlogPost = (postData) => {
             type: CREATE_BLOG_POST_SUCCESS,
             payload: response.data,
          });
+         return response.data;
       } catch (error) {
          dispatch({
             type: CREATE_BLOG_POST_FAILURE,
@@ -124,6 +133,35 @@ export const updateBlogPost = (id, formData) => async (dispatch) => {
    }
 };
 
+/**
+ * Action creator for uploading a blog post's image straight to S3 with a pre-signed URL
+ * @param {string} id - The id of the blog post
+ * @param {File} file - The image to upload
+ * @returns {Function} - A thunk function that dispatches the appropriate actions
+ */
+export const uploadBlogImage = (id, file) => async (dispatch) => {
+   dispatch({type: UPDATE_BLOG_POST_REQUEST});
+   try {
+      const {data: upload} = await apiService.post(`/blog-posts/${id}/image-uploads`, {
+         fileName: file.name,
+         contentType: file.type,
+         contentLength: file.size,
+      });
+      // Plain axios: the pre-signed URL must not carry the API's Authorization header
+      await axios.put(upload.uploadUrl, file, {headers: upload.headers});
+      const response = await apiService.post(`/blog-posts/${id}/image-uploads/complete`, {key: upload.key});
+      dispatch({
+         type: UPDATE_BLOG_POST_SUCCESS,
+         payload: response.data,
+      });
+   } catch (error) {
+      dispatch({
+         type: UPDATE_BLOG_POST_FAILURE,
+         payload: error.message,
+      });
+   }
+};
+
 export const fetchBlogPostById = (id) => async (dispatch) => {
    dispatch({type: FETCH_BLOG_POST_BY_ID_REQUEST});
    try {
@@ -140,6 +178,22 @@ export const fetchBlogPostById = (id) => async (dispatch) => {
    }
 };
 
+export const fetchBlogPostBySlug = (slug) => async (dispatch) => {
+   dispatch({type: FETCH_BLOG_POST_BY_ID_REQUEST});
+   try {
+      const response = await apiService.get(`/blog-posts/by-slug/${encodeURIComponent(slug)}`);
+      dispatch({
+         type: FETCH_BLOG_POST_BY_ID_SUCCESS,
+         payload: response.data,
+      });
+   } catch (error) {
+      dispatch({
+         type: FETCH_BLOG_POST_BY_ID_FAILURE,
+         payload: error.message,
+      });
+   }
+};
+
 export const fetchPublishedBlogPosts = () => async (dispatch) => {
    dispatch({type: FETCH_PUBLISHED_BLOG_POSTS_REQUEST});
    try {
@@ -25,6 +25,7 @@ import {
 
 const initialState = {
    appointments: [],
+   appointmentsNextCursor: null,
    availableTimeSlots: [],
    loading: false,
    error: null,
@@ -104,7 +105,10 @@ const appointmentsReducer = (state = initialState, action) => {
       case FETCH_ALL_APPOINTMENTS_SUCCESS:
          return {
             ...state,
-            appointments: action.payload,
+            appointments: action.payload.append
+               ? [...state.appointments, ...action.payload.items]
+               : action.payload.items,
+            appointmentsNextCursor: action.payload.nextCursor,
             loading: false,
          };
 
@@ -29,7 +29,7 @@ const initialState = {
    currentPost: null,
    loading: false,
    error: null,
-   totalPages: 0,
+   postsNextCursor: null,
 };
 const blogReducer = (state = initialState, action) => {
    switch (action.type) {
@@ -44,8 +44,10 @@ const blogReducer = (state = initialState, action) => {
          return {
             ...state,
             loading: false,
-            posts: action.payload,
-            totalPages: action.payload.totalPages,
+            posts: action.payload.append
+               ? [...state.posts, ...action.payload.items]
+               : action.payload.items,
+            postsNextCursor: action.payload.nextCursor,
          };
       case FETCH_LATEST_BLOG_POSTS_SUCCESS:
          return {